@@ -0,0 +1,148 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.bench;
+
+import com.artipie.ArtipieException;
+import com.artipie.gem.GemApiKeyAuth;
+import com.artipie.http.Headers;
+import com.artipie.http.auth.AuthScheme;
+import com.artipie.http.auth.Authentication;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Authentication benchmark of {@link GemApiKeyAuth} with and without cache of
+ * verified credentials. Origin authentication verifies PBKDF2 password hash.
+ * @since 1.0
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class AuthBench {
+
+    /**
+     * User name.
+     */
+    private static final String USER = "alice";
+
+    /**
+     * User password.
+     */
+    private static final String PASSWORD = "secret";
+
+    /**
+     * Cached auth scheme.
+     */
+    private AuthScheme cached;
+
+    /**
+     * Auth scheme without cache.
+     */
+    private AuthScheme uncached;
+
+    /**
+     * Request headers with API key.
+     */
+    private Headers headers;
+
+    /**
+     * Create auth schemes.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        final byte[] hash = AuthBench.hash(AuthBench.PASSWORD);
+        final Authentication auth = (name, pass) -> Optional.of(name)
+            .filter(AuthBench.USER::equals)
+            .filter(any -> MessageDigest.isEqual(hash, AuthBench.hash(pass)))
+            .map(Authentication.User::new);
+        this.cached = new GemApiKeyAuth(auth);
+        this.uncached = new GemApiKeyAuth(auth, Duration.ZERO, 0);
+        this.headers = new Headers.From(
+            "Authorization",
+            Base64.getEncoder().encodeToString(
+                String.format("%s:%s", AuthBench.USER, AuthBench.PASSWORD)
+                    .getBytes(StandardCharsets.UTF_8)
+            )
+        );
+    }
+
+    /**
+     * Authenticate with cache.
+     * @return Authentication result
+     */
+    @Benchmark
+    public AuthScheme.Result cached() {
+        return this.cached.authenticate(this.headers).toCompletableFuture().join();
+    }
+
+    /**
+     * Authenticate without cache.
+     * @return Authentication result
+     */
+    @Benchmark
+    public AuthScheme.Result uncached() {
+        return this.uncached.authenticate(this.headers).toCompletableFuture().join();
+    }
+
+    /**
+     * PBKDF2 hash of password.
+     * @param password Password
+     * @return Hash
+     * @checkstyle MagicNumberCheck (10 lines)
+     */
+    private static byte[] hash(final String password) {
+        try {
+            return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(
+                new PBEKeySpec(
+                    password.toCharArray(), "artipie".getBytes(StandardCharsets.UTF_8),
+                    10_000, 256
+                )
+            ).getEncoded();
+        } catch (final GeneralSecurityException err) {
+            throw new ArtipieException(err);
+        }
+    }
+}
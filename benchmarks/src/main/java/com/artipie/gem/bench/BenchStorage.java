@@ -0,0 +1,65 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.bench;
+
+import com.artipie.asto.ArtipieIOException;
+import com.artipie.asto.Storage;
+import com.artipie.asto.fs.FileStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Storages of benchmarks.
+ * @since 1.0
+ */
+public final class BenchStorage {
+
+    /**
+     * Ctor.
+     */
+    private BenchStorage() {
+    }
+
+    /**
+     * New empty storage.
+     * @param type Storage type, {@code memory} or {@code file}
+     * @return Storage, file storage is created in new temporary directory
+     */
+    public static Storage create(final String type) {
+        final Storage res;
+        if ("memory".equals(type)) {
+            res = new InMemoryStorage();
+        } else if ("file".equals(type)) {
+            try {
+                res = new FileStorage(Files.createTempDirectory("gem-bench"));
+            } catch (final IOException err) {
+                throw new ArtipieIOException(err);
+            }
+        } else {
+            throw new IllegalArgumentException(String.format("Unknown storage: %s", type));
+        }
+        return res;
+    }
+}
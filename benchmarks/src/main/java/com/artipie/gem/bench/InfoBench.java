@@ -0,0 +1,117 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.bench;
+
+import com.artipie.asto.Storage;
+import com.artipie.gem.Gem;
+import com.artipie.gem.GemMeta;
+import com.artipie.gem.SpecEntry;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Gem lookups benchmark of {@link Gem#info(String)} and {@link Gem#latest(String)}.
+ * @since 1.0
+ * @checkstyle VisibilityModifierCheck (500 lines)
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class InfoBench {
+
+    /**
+     * Number of gems in repository.
+     */
+    @Param({"1000", "50000"})
+    public int size;
+
+    /**
+     * Storage type.
+     */
+    @Param({"memory", "file"})
+    public String storage;
+
+    /**
+     * Gem SDK.
+     */
+    private Gem gem;
+
+    /**
+     * Requested gems counter.
+     */
+    private int counter;
+
+    /**
+     * Generate repository.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        final Storage sto = BenchStorage.create(this.storage);
+        this.gem = new Gem(sto);
+        SyntheticGems.repository(sto, this.gem, this.size);
+    }
+
+    /**
+     * Gem info of next gem.
+     * @return Gem info
+     */
+    @Benchmark
+    public GemMeta.MetaInfo info() {
+        return this.gem.info(this.next()).toCompletableFuture().join();
+    }
+
+    /**
+     * Latest version of next gem.
+     * @return Latest specs entry
+     */
+    @Benchmark
+    public Optional<SpecEntry> latest() {
+        return this.gem.latest(this.next()).toCompletableFuture().join();
+    }
+
+    /**
+     * Name of next requested gem, gems are requested in turn.
+     * @return Gem name
+     */
+    private String next() {
+        this.counter = (this.counter + 1) % this.size;
+        return SyntheticGems.name(this.counter);
+    }
+}
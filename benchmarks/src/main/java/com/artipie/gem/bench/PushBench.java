@@ -0,0 +1,113 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.bench;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.gem.Gem;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Push latency benchmark of {@link Gem#push(Content)} against repositories
+ * of different sizes.
+ * @since 1.0
+ * @checkstyle VisibilityModifierCheck (500 lines)
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class PushBench {
+
+    /**
+     * Number of gems in repository.
+     */
+    @Param({"10", "1000", "50000"})
+    public int size;
+
+    /**
+     * Storage type.
+     */
+    @Param({"memory", "file"})
+    public String storage;
+
+    /**
+     * Gem SDK.
+     */
+    private Gem gem;
+
+    /**
+     * Gem to push.
+     */
+    private byte[] pushed;
+
+    /**
+     * Pushed gems counter.
+     */
+    private int counter;
+
+    /**
+     * Generate repository.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        final Storage sto = BenchStorage.create(this.storage);
+        this.gem = new Gem(sto);
+        SyntheticGems.repository(sto, this.gem, this.size);
+    }
+
+    /**
+     * Generate new version of pushed gem.
+     */
+    @Setup(Level.Invocation)
+    public void next() {
+        this.counter = this.counter + 1;
+        this.pushed = SyntheticGems.gem("pushed", String.format("1.0.%d", this.counter));
+    }
+
+    /**
+     * Push gem.
+     * @return Pushed gem key
+     */
+    @Benchmark
+    public Key push() {
+        return this.gem.push(new Content.From(this.pushed)).toCompletableFuture().join();
+    }
+}
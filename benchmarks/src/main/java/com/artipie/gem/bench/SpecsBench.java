@@ -0,0 +1,154 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.bench;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.gem.GroupIndex;
+import com.artipie.gem.SpecEntry;
+import com.artipie.gem.SpecsIndex;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Specs index benchmark: adding entries to {@link SpecsIndex} and merging specs
+ * of group members by {@link GroupIndex}. Member indexes overlap by half of entries.
+ * @since 1.0
+ * @checkstyle VisibilityModifierCheck (500 lines)
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class SpecsBench {
+
+    /**
+     * Number of entries added by one operation.
+     */
+    private static final int BATCH = 100;
+
+    /**
+     * Number of entries in member index.
+     */
+    @Param({"1000", "50000"})
+    public int size;
+
+    /**
+     * Storage type.
+     */
+    @Param({"memory", "file"})
+    public String storage;
+
+    /**
+     * Index to add entries to.
+     */
+    private SpecsIndex index;
+
+    /**
+     * Group index.
+     */
+    private GroupIndex group;
+
+    /**
+     * Group cache storage.
+     */
+    private Storage cache;
+
+    /**
+     * Added batches counter.
+     */
+    private int counter;
+
+    /**
+     * Generate indexes.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        final Storage first = BenchStorage.create(this.storage);
+        final Storage second = BenchStorage.create(this.storage);
+        final Storage target = BenchStorage.create(this.storage);
+        SpecsBench.populate(first, 0, this.size);
+        SpecsBench.populate(second, this.size / 2, this.size);
+        SpecsBench.populate(target, 0, this.size);
+        this.index = new SpecsIndex(target);
+        this.group = new GroupIndex(Arrays.asList(first, second));
+        this.cache = BenchStorage.create(this.storage);
+    }
+
+    /**
+     * Add batch of new entries to index.
+     */
+    @Benchmark
+    public void add() {
+        this.counter = this.counter + 1;
+        final List<SpecEntry> entries = new ArrayList<>(SpecsBench.BATCH);
+        for (int num = 0; num < SpecsBench.BATCH; num = num + 1) {
+            entries.add(
+                new SpecEntry(String.format("added-%d", this.counter), String.format("1.%d", num))
+            );
+        }
+        this.index.add(entries).toCompletableFuture().join();
+    }
+
+    /**
+     * Merge specs of group members into cache storage.
+     * @return True if merged specs were saved
+     */
+    @Benchmark
+    public boolean merge() {
+        return this.group.merge(new Key.From("specs.4.8.gz"), this.cache)
+            .toCompletableFuture().join();
+    }
+
+    /**
+     * Add synthetic entries to specs index of storage.
+     * @param storage Storage
+     * @param from First gem number
+     * @param size Number of entries
+     */
+    private static void populate(final Storage storage, final int from, final int size) {
+        final List<SpecEntry> entries = new ArrayList<>(size);
+        for (int num = from; num < from + size; num = num + 1) {
+            entries.add(new SpecEntry(SyntheticGems.name(num), SyntheticGems.version(num)));
+        }
+        new SpecsIndex(storage).add(entries).toCompletableFuture().join();
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.bench;
+
+import com.artipie.asto.ArtipieIOException;
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.gem.Gem;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Synthetic gems and repositories generator.
+ * <p>
+ * Generates minimal valid {@code .gem} archives with {@code metadata.gz},
+ * {@code data.tar.gz} and {@code checksums.yaml.gz} entries. Gem names and versions
+ * depend only on gem number, so repositories of the same size are the same on every run.
+ * </p>
+ * @since 1.0
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+public final class SyntheticGems {
+
+    /**
+     * Versions of each gem name in repository.
+     */
+    private static final int VERSIONS = 4;
+
+    /**
+     * Tar block size.
+     */
+    private static final int BLOCK = 512;
+
+    /**
+     * Gemspec YAML template, arguments are name and version.
+     */
+    private static final String GEMSPEC = String.join(
+        "\n",
+        "--- !ruby/object:Gem::Specification",
+        "name: %1$s",
+        "version: !ruby/object:Gem::Version",
+        "  version: %2$s",
+        "platform: ruby",
+        "authors:",
+        "- Artipie",
+        "bindir: bin",
+        "cert_chain: []",
+        "date: 2020-01-01 00:00:00.000000000 Z",
+        "dependencies:",
+        "- !ruby/object:Gem::Dependency",
+        "  name: builder",
+        "  requirement: !ruby/object:Gem::Requirement",
+        "    requirements:",
+        "    - - \"~>\"",
+        "      - !ruby/object:Gem::Version",
+        "        version: '3.2'",
+        "  type: :runtime",
+        "  prerelease: false",
+        "  version_requirements: !ruby/object:Gem::Requirement",
+        "    requirements:",
+        "    - - \"~>\"",
+        "      - !ruby/object:Gem::Version",
+        "        version: '3.2'",
+        "description: Synthetic gem %1$s",
+        "email: bench@artipie.com",
+        "executables: []",
+        "extensions: []",
+        "extra_rdoc_files: []",
+        "files: []",
+        "homepage: https://github.com/artipie/gem-adapter",
+        "licenses:",
+        "- MIT",
+        "metadata: {}",
+        "require_paths:",
+        "- lib",
+        "required_ruby_version: !ruby/object:Gem::Requirement",
+        "  requirements:",
+        "  - - \">=\"",
+        "    - !ruby/object:Gem::Version",
+        "      version: '0'",
+        "required_rubygems_version: !ruby/object:Gem::Requirement",
+        "  requirements:",
+        "  - - \">=\"",
+        "    - !ruby/object:Gem::Version",
+        "      version: '0'",
+        "requirements: []",
+        "rubygems_version: 3.1.2",
+        "specification_version: 4",
+        "summary: Synthetic gem %1$s",
+        "test_files: []",
+        ""
+    );
+
+    /**
+     * Ctor.
+     */
+    private SyntheticGems() {
+    }
+
+    /**
+     * Name of gem number.
+     * @param num Gem number
+     * @return Gem name
+     */
+    public static String name(final int num) {
+        return String.format("synthetic-%06d", num / SyntheticGems.VERSIONS);
+    }
+
+    /**
+     * Version of gem number.
+     * @param num Gem number
+     * @return Gem version
+     */
+    public static String version(final int num) {
+        return String.format("1.%d.0", num % SyntheticGems.VERSIONS);
+    }
+
+    /**
+     * Generate repository of indexed gems.
+     * @param storage Repository storage
+     * @param gem Gem SDK of repository storage
+     * @param size Number of gems
+     */
+    public static void repository(final Storage storage, final Gem gem, final int size) {
+        final List<Key> keys = new ArrayList<>(size);
+        final CompletableFuture<?>[] saves = new CompletableFuture<?>[size];
+        for (int num = 0; num < size; num = num + 1) {
+            final Key key = new Key.From(
+                "gems",
+                String.format("%s-%s.gem", SyntheticGems.name(num), SyntheticGems.version(num))
+            );
+            keys.add(key);
+            saves[num] = storage.save(
+                key,
+                new Content.From(
+                    SyntheticGems.gem(SyntheticGems.name(num), SyntheticGems.version(num))
+                )
+            );
+        }
+        CompletableFuture.allOf(saves).join();
+        gem.update(keys).toCompletableFuture().join();
+    }
+
+    /**
+     * Generate gem archive.
+     * @param name Gem name
+     * @param version Gem version
+     * @return Gem archive bytes
+     */
+    public static byte[] gem(final String name, final String version) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SyntheticGems.entry(
+            out, "metadata.gz",
+            SyntheticGems.gzip(
+                String.format(SyntheticGems.GEMSPEC, name, version)
+                    .getBytes(StandardCharsets.UTF_8)
+            )
+        );
+        SyntheticGems.entry(
+            out, "data.tar.gz", SyntheticGems.gzip(new byte[SyntheticGems.BLOCK * 2])
+        );
+        SyntheticGems.entry(
+            out, "checksums.yaml.gz",
+            SyntheticGems.gzip("--- {}\n".getBytes(StandardCharsets.UTF_8))
+        );
+        out.writeBytes(new byte[SyntheticGems.BLOCK * 2]);
+        return out.toByteArray();
+    }
+
+    /**
+     * Write tar entry.
+     * @param out Output
+     * @param name Entry name
+     * @param data Entry data
+     */
+    private static void entry(final ByteArrayOutputStream out, final String name,
+        final byte[] data) {
+        final byte[] header = new byte[SyntheticGems.BLOCK];
+        SyntheticGems.field(header, 0, name);
+        SyntheticGems.field(header, 100, "0000644");
+        SyntheticGems.field(header, 108, "0000000");
+        SyntheticGems.field(header, 116, "0000000");
+        SyntheticGems.field(header, 124, String.format("%011o", data.length));
+        SyntheticGems.field(header, 136, String.format("%011o", 0));
+        header[156] = '0';
+        SyntheticGems.field(header, 257, "ustar");
+        header[263] = '0';
+        header[264] = '0';
+        for (int pos = 148; pos < 156; pos = pos + 1) {
+            header[pos] = ' ';
+        }
+        int sum = 0;
+        for (final byte item : header) {
+            sum = sum + (item & 0xff);
+        }
+        SyntheticGems.field(header, 148, String.format("%06o", sum));
+        out.writeBytes(header);
+        out.writeBytes(data);
+        out.writeBytes(
+            new byte[(SyntheticGems.BLOCK - data.length % SyntheticGems.BLOCK)
+                % SyntheticGems.BLOCK]
+        );
+    }
+
+    /**
+     * Write ASCII field to tar header.
+     * @param header Header
+     * @param pos Field position
+     * @param value Field value
+     */
+    private static void field(final byte[] header, final int pos, final String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(bytes, 0, header, pos, bytes.length);
+    }
+
+    /**
+     * Gzip bytes.
+     * @param bytes Bytes
+     * @return Gzipped bytes
+     */
+    private static byte[] gzip(final byte[] bytes) {
+        final ByteArrayOutputStream res = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(res)) {
+            out.write(bytes);
+        } catch (final IOException err) {
+            throw new ArtipieIOException(err);
+        }
+        return res.toByteArray();
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.ext.Digests;
+import com.artipie.http.auth.Authentication;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.apache.commons.codec.binary.Hex;
+
+/**
+ * Authentication with size-bounded cache of verified credentials.
+ * <p>
+ * Successful and failed verifications are cached for time to live by SHA-256
+ * digest of credentials, so credentials are never kept in memory as is.
+ * Changed or revoked credentials take effect when cached verification expires.
+ * </p>
+ * @since 1.0
+ */
+final class CachedAuthentication implements Authentication {
+
+    /**
+     * Origin authentication.
+     */
+    private final Authentication origin;
+
+    /**
+     * Verification time to live.
+     */
+    private final Duration ttl;
+
+    /**
+     * Verifications by credentials digest in access order.
+     */
+    private final Map<String, Verified> cache;
+
+    /**
+     * New cached authentication.
+     * @param origin Origin authentication
+     * @param ttl Verification time to live
+     * @param size Max number of cached verifications
+     */
+    @SuppressWarnings("serial")
+    CachedAuthentication(final Authentication origin, final Duration ttl, final int size) {
+        this.origin = origin;
+        this.ttl = ttl;
+        this.cache = new LinkedHashMap<String, Verified>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Verified> eldest) {
+                return this.size() > size;
+            }
+        };
+    }
+
+    @Override
+    public Optional<User> user(final String name, final String pass) {
+        final String key = Hex.encodeHexString(
+            Digests.SHA256.get().digest(
+                String.format("%s\0%s", name, pass).getBytes(StandardCharsets.UTF_8)
+            )
+        );
+        final Instant now = Instant.now();
+        Verified verified;
+        synchronized (this.cache) {
+            verified = this.cache.get(key);
+        }
+        if (verified == null || !verified.expires.isAfter(now)) {
+            verified = new Verified(this.origin.user(name, pass), now.plus(this.ttl));
+            synchronized (this.cache) {
+                this.cache.put(key, verified);
+            }
+        }
+        return verified.user;
+    }
+
+    /**
+     * Cached verification.
+     * @since 1.0
+     */
+    private static final class Verified {
+
+        /**
+         * Authenticated user, empty if verification failed.
+         */
+        private final Optional<User> user;
+
+        /**
+         * Expiration time.
+         */
+        private final Instant expires;
+
+        /**
+         * New verification.
+         * @param user Authenticated user, empty if verification failed
+         * @param expires Expiration time
+         */
+        Verified(final Optional<User> user, final Instant expires) {
+            this.user = user;
+            this.expires = expires;
+        }
+    }
+}
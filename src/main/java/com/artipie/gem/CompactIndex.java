@@ -0,0 +1,393 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.UnderLockOperation;
+import com.artipie.asto.ext.Digests;
+import com.artipie.asto.ext.PublisherAs;
+import com.artipie.asto.lock.storage.StorageLock;
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.commons.codec.binary.Hex;
+
+/**
+ * Bundler compact index of gem repository storage.
+ * <p>
+ * Maintains {@code versions}, {@code names} and {@code info/<name>} keys.
+ * Lines of new gem versions are appended to {@code versions} and {@code info/<name>},
+ * existing content is never changed, so clients can fetch only appended bytes.
+ * MD5 entity tags of files, which are checked by Bundler, are saved with files,
+ * gzipped copies of files are saved with {@code .gz} suffix.
+ * </p>
+ * @since 1.0
+ */
+public final class CompactIndex {
+
+    /**
+     * Versions key.
+     */
+    public static final Key VERSIONS = new Key.From("versions");
+
+    /**
+     * Names key.
+     */
+    public static final Key NAMES = new Key.From("names");
+
+    /**
+     * Index files separator line.
+     */
+    static final String SEPARATOR = "---\n";
+
+    /**
+     * Repository storage.
+     */
+    private final Storage storage;
+
+    /**
+     * New compact index.
+     * @param storage Repository storage
+     */
+    public CompactIndex(final Storage storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * Info key of gem.
+     * @param name Gem name
+     * @return Key of {@code info/<name>}
+     */
+    public static Key info(final String name) {
+        return new Key.From("info", name);
+    }
+
+    /**
+     * Add gems to compact index.
+     * @param gems Indexed gems
+     * @return Completable action
+     */
+    CompletionStage<Void> add(final Collection<IndexedGem> gems) {
+        final Map<String, Set<IndexedGem>> byname = new TreeMap<>();
+        for (final IndexedGem gem : gems) {
+            byname.computeIfAbsent(
+                gem.entry().name(),
+                name -> new TreeSet<>(
+                    (left, right) -> left.entry().compareTo(right.entry())
+                )
+            ).add(gem);
+        }
+        return new UnderLockOperation<>(
+            new IndexLock(new StorageLock(this.storage, CompactIndex.VERSIONS)),
+            sto -> {
+                CompletionStage<StringBuilder> lines = CompletableFuture.completedFuture(
+                    new StringBuilder()
+                );
+                for (final Map.Entry<String, Set<IndexedGem>> item : byname.entrySet()) {
+                    lines = lines.thenCompose(
+                        acc -> CompactIndex.info(sto, item.getKey(), item.getValue())
+                            .thenApply(acc::append)
+                    );
+                }
+                return lines.thenCompose(
+                    appended -> CompactIndex.append(
+                        sto, CompactIndex.VERSIONS, CompactIndex.header(), appended.toString()
+                    )
+                ).thenCompose(none -> CompactIndex.names(sto, byname.keySet()));
+            }
+        ).perform(this.storage);
+    }
+
+    /**
+     * Remove yanked gem version from compact index.
+     * <p>
+     * Version line is removed from {@code info/<name>} and yanked version line
+     * {@code name -version md5} is appended to {@code versions}, as RubyGems does.
+     * </p>
+     * @param entry Specs entry
+     * @return Completable action
+     */
+    CompletionStage<Void> remove(final SpecEntry entry) {
+        final Key key = CompactIndex.info(entry.name());
+        final String version = CompactIndex.version(entry);
+        return new UnderLockOperation<>(
+            new IndexLock(new StorageLock(this.storage, CompactIndex.VERSIONS)),
+            sto -> CompactIndex.read(sto, key, CompactIndex.SEPARATOR).thenCompose(
+                text -> {
+                    final String info = CompactIndex.lines(text)
+                        .filter(line -> !line.startsWith(String.format("%s ", version)))
+                        .map(line -> String.format("%s\n", line))
+                        .collect(Collectors.joining());
+                    final CompletionStage<Void> res;
+                    if (info.equals(text)) {
+                        res = CompletableFuture.completedFuture(null);
+                    } else {
+                        res = CompactIndex.save(sto, key, info).thenCompose(
+                            none -> CompactIndex.append(
+                                sto, CompactIndex.VERSIONS, CompactIndex.header(),
+                                String.format(
+                                    "%s -%s %s\n", entry.name(), version,
+                                    CompactIndex.md5(info.getBytes(StandardCharsets.UTF_8))
+                                )
+                            )
+                        );
+                    }
+                    return res;
+                }
+            )
+        ).perform(this.storage);
+    }
+
+    /**
+     * Append new versions to info file of gem.
+     * @param sto Storage
+     * @param name Gem name
+     * @param gems Gems of the same name
+     * @return Future with line for versions file or empty string if nothing was added
+     */
+    private static CompletionStage<String> info(final Storage sto, final String name,
+        final Set<IndexedGem> gems) {
+        final Key key = CompactIndex.info(name);
+        return CompactIndex.read(sto, key, CompactIndex.SEPARATOR).thenCompose(
+            text -> {
+                final Set<String> known = CompactIndex.lines(text)
+                    .skip(1)
+                    .map(line -> line.substring(0, line.indexOf(' ')))
+                    .collect(Collectors.toSet());
+                final StringBuilder info = new StringBuilder(text);
+                final Set<String> added = new TreeSet<>();
+                for (final IndexedGem gem : gems) {
+                    final String version = CompactIndex.version(gem.entry());
+                    if (known.add(version)) {
+                        added.add(version);
+                        info.append(CompactIndex.line(gem)).append('\n');
+                    }
+                }
+                final CompletionStage<String> res;
+                if (added.isEmpty()) {
+                    res = CompletableFuture.completedFuture("");
+                } else {
+                    final byte[] bytes = info.toString().getBytes(StandardCharsets.UTF_8);
+                    res = CompactIndex.save(sto, key, bytes).thenApply(
+                        none -> String.format(
+                            "%s %s %s\n", name, String.join(",", added), CompactIndex.md5(bytes)
+                        )
+                    );
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Append text to file, file is created with header if it doesn't exist.
+     * @param sto Storage
+     * @param key Key
+     * @param header Header of new file
+     * @param text Text to append
+     * @return Completable action
+     */
+    private static CompletionStage<Void> append(final Storage sto, final Key key,
+        final String header, final String text) {
+        final CompletionStage<Void> res;
+        if (text.isEmpty()) {
+            res = CompletableFuture.completedFuture(null);
+        } else {
+            res = CompactIndex.read(sto, key, header).thenCompose(
+                current -> CompactIndex.save(sto, key, current.concat(text))
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Add names to sorted names file.
+     * @param sto Storage
+     * @param added Gem names
+     * @return Completable action
+     */
+    private static CompletionStage<Void> names(final Storage sto, final Collection<String> added) {
+        return CompactIndex.read(sto, CompactIndex.NAMES, CompactIndex.SEPARATOR).thenCompose(
+            text -> {
+                final Set<String> names = CompactIndex.lines(text).skip(1)
+                    .collect(Collectors.toCollection(TreeSet::new));
+                final CompletionStage<Void> res;
+                if (names.addAll(added)) {
+                    final StringBuilder out = new StringBuilder(CompactIndex.SEPARATOR);
+                    names.forEach(name -> out.append(name).append('\n'));
+                    res = CompactIndex.save(sto, CompactIndex.NAMES, out.toString());
+                } else {
+                    res = CompletableFuture.completedFuture(null);
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Save text file with its entity tag.
+     * @param sto Storage
+     * @param key Key
+     * @param text Text
+     * @return Completable action
+     */
+    private static CompletionStage<Void> save(final Storage sto, final Key key,
+        final String text) {
+        return CompactIndex.save(sto, key, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Save file and its gzipped copy with entity tags.
+     * @param sto Storage
+     * @param key Key
+     * @param bytes File content
+     * @return Completable action
+     */
+    private static CompletionStage<Void> save(final Storage sto, final Key key,
+        final byte[] bytes) {
+        final Key gzkey = new Key.From(String.format("%s.gz", key.string()));
+        final byte[] gzip = SpecsIndex.gzip(bytes);
+        final StoredEtag etag = new StoredEtag(sto);
+        return sto.save(key, new Content.From(bytes))
+            .thenCompose(none -> etag.save(key, bytes))
+            .thenCompose(none -> sto.save(gzkey, new Content.From(gzip)))
+            .thenCompose(none -> etag.save(gzkey, gzip));
+    }
+
+    /**
+     * Read text file or return default text if it doesn't exist.
+     * @param sto Storage
+     * @param key Key
+     * @param def Default text
+     * @return Future with text
+     */
+    private static CompletionStage<String> read(final Storage sto, final Key key,
+        final String def) {
+        return sto.exists(key).thenCompose(
+            exists -> {
+                final CompletionStage<String> res;
+                if (exists) {
+                    res = sto.value(key).thenCompose(
+                        content -> new PublisherAs(content).string(StandardCharsets.UTF_8)
+                    );
+                } else {
+                    res = CompletableFuture.completedFuture(def);
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Info line of gem, e.g.
+     * {@code 1.0.0 rack:>= 1.0&< 3|checksum:abc,ruby:>= 2.3}.
+     * @param gem Indexed gem
+     * @return Line without line break
+     */
+    private static String line(final IndexedGem gem) {
+        final StringBuilder line = new StringBuilder(CompactIndex.version(gem.entry()))
+            .append(' ')
+            .append(
+                new TreeMap<>(gem.dependencies()).entrySet().stream()
+                    .map(
+                        dep -> String.format(
+                            "%s:%s", dep.getKey(), CompactIndex.requirement(dep.getValue())
+                        )
+                    ).collect(Collectors.joining(","))
+            ).append("|checksum:").append(gem.checksum());
+        if (!">= 0".equals(gem.ruby())) {
+            line.append(",ruby:").append(CompactIndex.requirement(gem.ruby()));
+        }
+        if (!">= 0".equals(gem.rubygems())) {
+            line.append(",rubygems:").append(CompactIndex.requirement(gem.rubygems()));
+        }
+        return line.toString();
+    }
+
+    /**
+     * Compact index requirement format, requirements are joined by {@code &}.
+     * @param req Requirement, e.g. {@code >= 1.0, < 3}
+     * @return Requirement, e.g. {@code >= 1.0&< 3}
+     */
+    private static String requirement(final String req) {
+        return req.replace(", ", "&");
+    }
+
+    /**
+     * Version with platform suffix for non ruby platform.
+     * @param entry Specs entry
+     * @return Version, e.g. {@code 1.0.0} or {@code 1.0.0-java}
+     */
+    private static String version(final SpecEntry entry) {
+        final String res;
+        if (SpecEntry.RUBY.equals(entry.platform())) {
+            res = entry.version().string();
+        } else {
+            res = String.format("%s-%s", entry.version().string(), entry.platform());
+        }
+        return res;
+    }
+
+    /**
+     * Lines of index file text.
+     * @param text Index file text
+     * @return Lines without line terminators
+     */
+    static Stream<String> lines(final String text) {
+        return new BufferedReader(new StringReader(text)).lines();
+    }
+
+    /**
+     * Header of new versions file.
+     * @return Header with creation time
+     */
+    static String header() {
+        return String.format(
+            "created_at: %s\n%s", Instant.now().truncatedTo(ChronoUnit.SECONDS),
+            CompactIndex.SEPARATOR
+        );
+    }
+
+    /**
+     * MD5 hex digest.
+     * @param bytes Bytes
+     * @return Hex digest
+     */
+    static String md5(final byte[] bytes) {
+        return Hex.encodeHexString(Digests.MD5.get().digest(bytes));
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import io.reactivex.Flowable;
+import io.reactivex.disposables.Disposable;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import org.reactivestreams.Publisher;
+
+/**
+ * Blocking input stream of content publisher.
+ * <p>
+ * Buffers of content are requested as stream is read, so content is never held
+ * in memory as a whole. Reads block until next buffer is published, stream should
+ * not be read on threads which publish content.
+ * </p>
+ * @since 1.0
+ */
+final class ContentStream extends InputStream {
+
+    /**
+     * Content buffers.
+     */
+    private final Iterator<ByteBuffer> buffers;
+
+    /**
+     * Current buffer.
+     */
+    private ByteBuffer current;
+
+    /**
+     * New content stream.
+     * @param content Content publisher
+     */
+    ContentStream(final Publisher<ByteBuffer> content) {
+        this.buffers = Flowable.fromPublisher(content).blockingIterable().iterator();
+        this.current = ByteBuffer.allocate(0);
+    }
+
+    @Override
+    public int read() {
+        final int res;
+        if (this.next()) {
+            res = this.current.get() & 0xff;
+        } else {
+            res = -1;
+        }
+        return res;
+    }
+
+    @Override
+    public int read(final byte[] buf, final int off, final int len) {
+        final int res;
+        if (len == 0) {
+            res = 0;
+        } else if (this.next()) {
+            res = Math.min(len, this.current.remaining());
+            this.current.get(buf, off, res);
+        } else {
+            res = -1;
+        }
+        return res;
+    }
+
+    @Override
+    public void close() {
+        if (this.buffers instanceof Disposable) {
+            ((Disposable) this.buffers).dispose();
+        }
+    }
+
+    /**
+     * Move to next buffer if current one is read.
+     * @return False if content is read
+     */
+    private boolean next() {
+        while (!this.current.hasRemaining() && this.buffers.hasNext()) {
+            this.current = this.buffers.next().duplicate();
+        }
+        return this.current.hasRemaining();
+    }
+}
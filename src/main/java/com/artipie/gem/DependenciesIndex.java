@@ -0,0 +1,265 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.Storage;
+import com.artipie.asto.ext.PublisherAs;
+import com.artipie.gem.metrics.Metrics;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory index of gem dependencies by gem name for dependency API.
+ * <p>
+ * Dependencies of gem versions are loaded from compact index {@code info/<name>}
+ * file on first request of gem name, gem entry is invalidated when new versions
+ * of gem are indexed. Cache is bounded by number of gems, least recently used gems
+ * are evicted, unknown gems are not cached. Each version is represented as Ruby hash with
+ * {@code :name}, {@code :number}, {@code :platform} and {@code :dependencies} keys.
+ * </p>
+ * @since 1.0
+ */
+final class DependenciesIndex {
+
+    /**
+     * Name key.
+     */
+    private static final MarshalSymbol NAME = new MarshalSymbol("name");
+
+    /**
+     * Number key.
+     */
+    private static final MarshalSymbol NUMBER = new MarshalSymbol("number");
+
+    /**
+     * Platform key.
+     */
+    private static final MarshalSymbol PLATFORM = new MarshalSymbol("platform");
+
+    /**
+     * Dependencies key.
+     */
+    private static final MarshalSymbol DEPENDENCIES = new MarshalSymbol("dependencies");
+
+    /**
+     * Default max number of cached gems.
+     */
+    private static final int SIZE = 1000;
+
+    /**
+     * Repository storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Loaded versions by gem name in access order.
+     */
+    private final Map<String, CompletableFuture<List<Map<MarshalSymbol, Object>>>> cache;
+
+    /**
+     * Metrics of cache lookups.
+     */
+    private final Metrics metrics;
+
+    /**
+     * New dependencies index.
+     * @param storage Repository storage
+     * @param metrics Metrics of cache lookups
+     */
+    DependenciesIndex(final Storage storage, final Metrics metrics) {
+        this(storage, metrics, DependenciesIndex.SIZE);
+    }
+
+    /**
+     * New dependencies index.
+     * @param storage Repository storage
+     * @param metrics Metrics of cache lookups
+     * @param size Max number of cached gems
+     */
+    @SuppressWarnings("serial")
+    DependenciesIndex(final Storage storage, final Metrics metrics, final int size) {
+        this.storage = storage;
+        this.metrics = metrics;
+        this.cache =
+            new LinkedHashMap<String, CompletableFuture<List<Map<MarshalSymbol, Object>>>>(
+                16, 0.75f, true
+            ) {
+                @Override
+                protected boolean removeEldestEntry(
+                    final Map.Entry<String, CompletableFuture<List<Map<MarshalSymbol, Object>>>>
+                        eldest
+                ) {
+                    return this.size() > size;
+                }
+            };
+    }
+
+    /**
+     * Dependencies of all versions of gems.
+     * @param names Gem names
+     * @return Future with versions of all known gems
+     */
+    CompletionStage<List<Map<MarshalSymbol, Object>>> dependencies(
+        final Collection<String> names) {
+        final List<CompletableFuture<List<Map<MarshalSymbol, Object>>>> all = names.stream()
+            .distinct()
+            .map(this::cached)
+            .collect(Collectors.toList());
+        return CompletableFuture.allOf(all.toArray(new CompletableFuture<?>[0])).thenApply(
+            none -> all.stream().flatMap(item -> item.join().stream()).collect(Collectors.toList())
+        );
+    }
+
+    /**
+     * Invalidate loaded gems.
+     * @param names Gem names
+     */
+    void invalidate(final Collection<String> names) {
+        synchronized (this.cache) {
+            names.forEach(this.cache::remove);
+        }
+    }
+
+    /**
+     * Loaded versions of gem, cache hits and misses are counted. Concurrent requests
+     * of gem wait for one load, gem is removed from cache if it's unknown or if load
+     * fails.
+     * @param name Gem name
+     * @return Future with versions
+     */
+    private CompletableFuture<List<Map<MarshalSymbol, Object>>> cached(final String name) {
+        final CompletableFuture<List<Map<MarshalSymbol, Object>>> res;
+        final CompletableFuture<List<Map<MarshalSymbol, Object>>> loading;
+        synchronized (this.cache) {
+            final CompletableFuture<List<Map<MarshalSymbol, Object>>> prev = this.cache.get(name);
+            if (prev == null) {
+                loading = new CompletableFuture<>();
+                this.cache.put(name, loading);
+                res = loading;
+            } else {
+                loading = null;
+                res = prev;
+            }
+        }
+        if (loading == null) {
+            this.metrics.counter("gem_dependencies_cache_hit", 1);
+        } else {
+            this.metrics.counter("gem_dependencies_cache_miss", 1);
+            this.load(name).whenComplete(
+                (versions, err) -> {
+                    if (err != null || !versions.isPresent()) {
+                        synchronized (this.cache) {
+                            this.cache.remove(name, loading);
+                        }
+                    }
+                    if (err == null) {
+                        loading.complete(versions.orElse(Collections.emptyList()));
+                    } else {
+                        loading.completeExceptionally(err);
+                    }
+                }
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Load gem versions from compact index.
+     * @param name Gem name
+     * @return Future with versions, empty if gem is unknown
+     */
+    private CompletionStage<Optional<List<Map<MarshalSymbol, Object>>>> load(
+        final String name) {
+        return this.storage.exists(CompactIndex.info(name)).thenCompose(
+            exists -> {
+                final CompletionStage<Optional<List<Map<MarshalSymbol, Object>>>> versions;
+                if (exists) {
+                    versions = this.storage.value(CompactIndex.info(name))
+                        .thenCompose(
+                            content -> new PublisherAs(content).string(StandardCharsets.UTF_8)
+                        ).thenApply(
+                            text -> Optional.of(
+                                CompactIndex.lines(text).skip(1)
+                                    .map(line -> DependenciesIndex.version(name, line))
+                                    .collect(Collectors.toList())
+                            )
+                        );
+                } else {
+                    versions = CompletableFuture.completedFuture(Optional.empty());
+                }
+                return versions;
+            }
+        );
+    }
+
+    /**
+     * Gem version from compact index info line,
+     * e.g. {@code 1.0.0-java rack:>= 1.0&< 3|checksum:abc}.
+     * @param name Gem name
+     * @param line Info line
+     * @return Version hash
+     */
+    private static Map<MarshalSymbol, Object> version(final String name, final String line) {
+        final int space = line.indexOf(' ');
+        final String full = line.substring(0, space);
+        final int dash = full.indexOf('-');
+        final String number;
+        final String platform;
+        if (dash < 0) {
+            number = full;
+            platform = SpecEntry.RUBY;
+        } else {
+            number = full.substring(0, dash);
+            platform = full.substring(dash + 1);
+        }
+        final String deps = line.substring(space + 1, line.indexOf('|', space));
+        final List<List<String>> dependencies = new ArrayList<>(0);
+        if (!deps.isEmpty()) {
+            for (final String dep : deps.split(",")) {
+                final int colon = dep.indexOf(':');
+                dependencies.add(
+                    Arrays.asList(
+                        dep.substring(0, colon), dep.substring(colon + 1).replace("&", ", ")
+                    )
+                );
+            }
+        }
+        final Map<MarshalSymbol, Object> res = new LinkedHashMap<>();
+        res.put(DependenciesIndex.NAME, name);
+        res.put(DependenciesIndex.NUMBER, number);
+        res.put(DependenciesIndex.PLATFORM, platform);
+        res.put(DependenciesIndex.DEPENDENCIES, dependencies);
+        return res;
+    }
+}
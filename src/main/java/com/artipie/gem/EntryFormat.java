@@ -0,0 +1,98 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+/**
+ * Meta format to extract specs entry: name, version and platform of gem.
+ * Entries with name, version or platform not matching RubyGems patterns are
+ * rejected, because they are used in storage keys.
+ * @since 1.0
+ */
+final class EntryFormat implements GemMeta.MetaFormat {
+
+    /**
+     * Gem name.
+     */
+    private String name;
+
+    /**
+     * Gem version.
+     */
+    private String version;
+
+    /**
+     * Gem platform.
+     */
+    private String platform;
+
+    @Override
+    public void print(final String nme, final String value) {
+        if ("name".equals(nme)) {
+            this.name = value;
+        } else if ("version".equals(nme)) {
+            this.version = value;
+        } else if ("platform".equals(nme)) {
+            this.platform = value;
+        }
+    }
+
+    @Override
+    public void print(final String nme, final GemMeta.MetaInfo value) {
+        // do nothing
+    }
+
+    /**
+     * Specs entry from printed metadata.
+     * @return Entry
+     */
+    SpecEntry entry() {
+        if (this.name == null || this.version == null) {
+            throw new InvalidGemException("Gem name or version is missing in metadata");
+        }
+        String pfm = this.platform;
+        if (pfm == null || pfm.isEmpty()) {
+            pfm = SpecEntry.RUBY;
+        }
+        if (!SpecEntry.valid(this.name, this.version, pfm)) {
+            throw new InvalidGemException(
+                String.format(
+                    "Invalid gem name, version or platform in metadata: %s %s %s",
+                    this.name, this.version, pfm
+                )
+            );
+        }
+        return new SpecEntry(this.name, new GemVersion(this.version), pfm);
+    }
+
+    /**
+     * Specs entry of gem metadata.
+     * @param info Gem metadata
+     * @return Entry
+     */
+    static SpecEntry entry(final GemMeta.MetaInfo info) {
+        final EntryFormat fmt = new EntryFormat();
+        info.print(fmt);
+        return fmt.entry();
+    }
+}
@@ -24,31 +24,32 @@
 package com.artipie.gem;
 
 import com.artipie.asto.ArtipieIOException;
-import com.artipie.asto.Copy;
+import com.artipie.asto.Content;
 import com.artipie.asto.Key;
 import com.artipie.asto.Storage;
-import com.artipie.asto.fs.FileStorage;
-import com.artipie.asto.misc.UncheckedIOFunc;
-import com.artipie.gem.GemMeta.MetaInfo;
-import com.artipie.gem.ruby.RubyGemIndex;
-import com.artipie.gem.ruby.RubyGemMeta;
+import com.artipie.asto.ext.Digests;
+import com.artipie.gem.metrics.Metrics;
+import com.artipie.gem.ruby.RubyQuickSpec;
 import com.artipie.gem.ruby.SharedRuntime;
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import io.reactivex.Flowable;
+import java.security.MessageDigest;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.Set;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
-import java.util.concurrent.atomic.AtomicReference;
-import java.util.function.BiFunction;
-import java.util.function.Predicate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
-import org.apache.commons.io.FileUtils;
+import org.apache.commons.codec.binary.Hex;
 
 /**
  * An SDK, which servers gem packages.
@@ -60,16 +61,6 @@ import org.apache.commons.io.FileUtils;
  */
 public final class Gem {
 
-    /**
-     * Read only set of metadata item names.
-     */
-    private static final Set<Key> META_NAMES = Collections.unmodifiableSet(
-        Stream.of(
-            "latest_specs.4.8", "latest_specs.4.8.gz", "prerelease_specs.4.8",
-            "prerelease_specs.4.8.gz", "specs.4.8", "specs.4.8.gz"
-        ).map(Key.From::new).collect(Collectors.toSet())
-    );
-
     /**
      * Gem repository storage.
      */
@@ -80,186 +71,591 @@ public final class Gem {
      */
     private final SharedRuntime shared;
 
+    /**
+     * Gem versions by name.
+     */
+    private final VersionsIndex versions;
+
+    /**
+     * Gem dependencies by name.
+     */
+    private final DependenciesIndex deps;
+
+    /**
+     * Index updates queue.
+     */
+    private final IndexQueue queue;
+
+    /**
+     * Quick Marshal gemspecs being generated on demand.
+     */
+    private final ConcurrentMap<Key, CompletableFuture<Boolean>> generating;
+
+    /**
+     * Pushed gems read on upload, waiting for indexing by their keys.
+     */
+    private final ConcurrentMap<Key, IndexedGem> pushed;
+
+    /**
+     * Repository metrics.
+     */
+    private final Metrics metrics;
+
     /**
      * New Gem SDK with default indexer.
      * @param storage Repository storage.
      */
     public Gem(final Storage storage) {
+        this(storage, new SharedRuntime());
+    }
+
+    /**
+     * New Gem SDK with shared ruby runtime.
+     * @param storage Repository storage.
+     * @param shared Shared ruby runtime.
+     */
+    public Gem(final Storage storage, final SharedRuntime shared) {
+        this(storage, shared, Metrics.NOP);
+    }
+
+    /**
+     * New Gem SDK with shared ruby runtime and metrics.
+     * <p>
+     * Durations of push, index update and info stages are recorded by {@code gem_*}
+     * timers, pushed bytes by {@code gem_push_bytes} counter, operations in flight by
+     * {@code gem_*_inflight} gauges and dependencies cache lookups by
+     * {@code gem_dependencies_cache_hit} and {@code gem_dependencies_cache_miss} counters.
+     * </p>
+     * @param storage Repository storage.
+     * @param shared Shared ruby runtime.
+     * @param metrics Repository metrics.
+     */
+    public Gem(final Storage storage, final SharedRuntime shared, final Metrics metrics) {
         this.storage = storage;
-        this.shared = new SharedRuntime();
+        this.shared = shared;
+        this.metrics = metrics;
+        this.versions = new VersionsIndex(storage);
+        this.deps = new DependenciesIndex(storage, metrics);
+        this.queue = new IndexQueue(this::index);
+        this.generating = new ConcurrentHashMap<>();
+        this.pushed = new ConcurrentHashMap<>();
     }
 
     /**
      * Batch update Ruby gems for repository.
+     * <p>
+     * Index updates are performed one at a time, gems submitted while
+     * index is being updated are indexed together by the next update.
+     * </p>
      *
      * @param gem Ruby gem for indexing
      * @return Completable action
      */
     public CompletionStage<Void> update(final Key gem) {
-        final AtomicReference<Path> dir = new AtomicReference<>();
-        return newTempDir().thenCompose(
-            tmp -> {
-                dir.set(tmp);
-                return new Copy(this.storage, key -> META_NAMES.contains(key) || key.equals(gem))
-                .copy(new FileStorage(tmp))
-                .thenApply(ignore -> tmp);
-            }
-        ).thenCompose(
-            tmp -> this.shared.apply(RubyGemMeta::new)
-                .thenApply(
-                    meta -> {
-                        final RevisionFormat fmt = new RevisionFormat();
-                        meta.info(Paths.get(tmp.toString(), gem.string())).print(fmt);
-                        return fmt.toString();
-                    }
-                ).thenApply(
-                    new UncheckedIOFunc<>(
-                        name -> {
-                            final Path path = Paths.get(tmp.toString(), gem.string());
-                            final Path target = path.getParent().resolve(name);
-                            Files.move(path, target);
-                            return target;
+        return this.update(Collections.singleton(gem));
+    }
+
+    /**
+     * Batch update Ruby gems for repository.
+     * <p>
+     * Gems metadata is extracted in parallel, then all gems are added
+     * to index with a single write of each index file.
+     * </p>
+     *
+     * @param gems Ruby gems for indexing
+     * @return Completable action
+     */
+    public CompletionStage<Void> update(final Collection<Key> gems) {
+        this.metrics.gauge("gem_update_inflight", 1);
+        return this.metrics.timed("gem_update", () -> this.queue.add(gems)).whenComplete(
+            (none, err) -> this.metrics.gauge("gem_update_inflight", -1)
+        );
+    }
+
+    /**
+     * Index all gems stored under the prefix, e.g. to import
+     * or migrate a repository. Gems are moved to {@code gems} directory.
+     *
+     * @param prefix Storage prefix of gem files
+     * @return Completable action
+     */
+    public CompletionStage<Void> updateAll(final Key prefix) {
+        return this.storage.list(prefix).thenCompose(
+            keys -> this.update(
+                keys.stream()
+                    .filter(key -> key.string().endsWith(".gem"))
+                    .collect(Collectors.toList())
+            )
+        );
+    }
+
+    /**
+     * Push new gem to repository.
+     * <p>
+     * Gem content is saved to storage once, metadata is parsed and checksum
+     * is computed while the content is being saved. Then gem is moved to its
+     * {@code gems/name-version[-platform].gem} key and indexed without reading
+     * it again.
+     * </p>
+     *
+     * @param gem Gem content
+     * @return Future with gem key
+     */
+    public CompletionStage<Key> push(final Content gem) {
+        this.metrics.gauge("gem_push_inflight", 1);
+        return this.metrics.timed("gem_push", () -> this.upload(gem)).whenComplete(
+            (key, err) -> this.metrics.gauge("gem_push_inflight", -1)
+        );
+    }
+
+    /**
+     * Save pushed gem, move it to its revision key and index it.
+     * @param gem Gem content
+     * @return Future with gem key
+     */
+    private CompletionStage<Key> upload(final Content gem) {
+        final GemArchive archive = new GemArchive();
+        final MessageDigest sha = Digests.SHA256.get();
+        final Key upload = new Key.From(
+            "gems", UUID.randomUUID().toString().replace("-", "").concat(".gem")
+        );
+        return this.metrics.timed(
+            "gem_push_upload",
+            () -> this.storage.save(
+                upload,
+                new Content.From(
+                    gem.size(),
+                    Flowable.fromPublisher(gem).doOnNext(
+                        buf -> {
+                            this.metrics.counter("gem_push_bytes", buf.remaining());
+                            archive.accept(buf);
+                            sha.update(buf.duplicate());
                         }
                     )
                 )
+            )
+        ).thenApply(
+            none -> new IndexedGem(archive.gemspec(), Hex.encodeHexString(sha.digest()))
         ).thenCompose(
-            fullpath -> this.shared.apply(RubyGemIndex::new)
-                .thenAccept(index -> index.update(fullpath))
-                .thenCompose(
-                    none -> new Copy(
-                        new FileStorage(dir.get())
-                    ).copy(this.storage)
-                )
-                .handle(removeTempDir(dir.get()))
-        );
+            indexed -> {
+                final Key target = new Key.From("gems", Gem.revision(indexed.entry()));
+                return this.metrics.timed(
+                    "gem_push_move", () -> this.storage.move(upload, target)
+                ).thenCompose(
+                    none -> new StoredEtag(this.storage).save(target, indexed.checksum())
+                ).thenCompose(
+                    none -> {
+                        this.pushed.put(target, indexed);
+                        return this.update(target);
+                    }
+                ).thenApply(none -> target);
+            }
+        ).handle(
+            (key, err) -> {
+                final CompletionStage<Key> res;
+                if (err == null) {
+                    res = CompletableFuture.completedFuture(key);
+                } else {
+                    res = this.storage.exists(upload).thenCompose(
+                        exists -> {
+                            final CompletionStage<Void> clean;
+                            if (exists) {
+                                clean = this.storage.delete(upload);
+                            } else {
+                                clean = CompletableFuture.completedFuture(null);
+                            }
+                            return clean;
+                        }
+                    ).thenApply(
+                        none -> {
+                            throw new CompletionException(err);
+                        }
+                    );
+                }
+                return res;
+            }
+        ).thenCompose(Function.identity());
     }
 
     /**
-     * Gem info data.
+     * Yank gem version.
+     * <p>
+     * Gem is removed from specs files, latest specs are recomputed for the yanked gem only,
+     * gem is removed from compact index and gem file with its quick gemspec are deleted.
+     * Yank is queued with index updates, so it never runs concurrently with them.
+     * </p>
+     * @param name Gem name
+     * @param version Gem version
+     * @param platform Gem platform
+     * @return Future with true if gem was yanked, false if there is no such gem
+     */
+    public CompletionStage<Boolean> yank(final String name, final String version,
+        final String platform) {
+        final SpecEntry entry = new SpecEntry(name, new GemVersion(version), platform);
+        final Key gem = new Key.From("gems", Gem.revision(entry));
+        final AtomicBoolean yanked = new AtomicBoolean();
+        return this.queue.run(
+            () -> this.storage.exists(gem).thenCompose(
+                exists -> {
+                    final CompletionStage<Void> res;
+                    if (exists) {
+                        yanked.set(true);
+                        res = this.remove(entry, gem);
+                    } else {
+                        res = CompletableFuture.completedFuture(null);
+                    }
+                    return res;
+                }
+            )
+        ).thenApply(none -> yanked.get());
+    }
+
+    /**
+     * Gem info data of the newest gem version.
      * @param gem Gem name
      * @return Future
      */
     public CompletionStage<GemMeta.MetaInfo> info(final String gem) {
-        return newTempDir().thenCompose(
-            tmp -> new Copy(this.storage, new IsGemKey(gem))
-                .copy(new FileStorage(tmp))
-                .thenApply(ignore -> tmp)
-        ).thenCompose(
-            tmp -> this.shared.apply(RubyGemMeta::new)
-                .thenCompose(
-                    info -> new FileStorage(tmp).list(Key.ROOT).thenApply(
-                        items -> items.stream().findFirst()
-                            .map(first -> Paths.get(tmp.toString(), first.string()))
-                            .map(path -> info.info(path))
-                            .orElseThrow(() -> new ArtipieIOException("gem not found"))
-                    )
-                ).handle(removeTempDir(tmp))
+        return this.versions.latest(gem).thenCompose(
+            entry -> this.info(
+                entry.orElseThrow(() -> new ArtipieIOException("gem not found"))
+            )
         );
     }
 
     /**
-     * Create new temp dir asynchronously.
+     * Gem info data of indexed gem version.
+     * @param entry Specs entry of gem version
      * @return Future
      */
-    private static CompletionStage<Path> newTempDir() {
-        return CompletableFuture.supplyAsync(
-            new UncheckedSupplier<>(
-                () -> Files.createTempDirectory(Gem.class.getSimpleName())
-            )
+    public CompletionStage<GemMeta.MetaInfo> info(final SpecEntry entry) {
+        return this.metrics.timed(
+            "gem_info",
+            () -> this.storage.value(new Key.From("gems", Gem.revision(entry)))
+                .thenCompose(content -> new YamlGemMeta().info(content))
         );
     }
 
     /**
-     * Handle async result.
-     * @param tmpdir Path directory to remove
-     * @param <T> Result type
-     * @return Function handler
+     * Newest indexed version of gem, release versions are preferred over prerelease.
+     * @param gem Gem name
+     * @return Future with specs entry if gem is indexed
+     */
+    public CompletionStage<Optional<SpecEntry>> latest(final String gem) {
+        return this.versions.latest(gem);
+    }
+
+    /**
+     * Dependencies of all versions of gems for dependency API.
+     * <p>
+     * Each version is a Ruby hash of {@code :name}, {@code :number}, {@code :platform}
+     * and {@code :dependencies}, which is a list of {@code [name, requirement]} pairs.
+     * Unknown gems are skipped.
+     * </p>
+     * @param names Gem names
+     * @return Future with gem versions
+     */
+    public CompletionStage<List<Map<MarshalSymbol, Object>>> dependencies(
+        final Collection<String> names) {
+        return this.deps.dependencies(names);
+    }
+
+    /**
+     * Ensure quick Marshal gemspec {@code quick/Marshal.4.8/<name>.gemspec.rz} exists,
+     * generate and save it from stored gem {@code gems/<name>.gem} if it's missing.
+     * <p>
+     * Concurrent requests of the same missing gemspec share one generation.
+     * </p>
+     * @param name Full gem name, e.g. {@code builder-3.2.4}
+     * @return Future with true if gemspec exists, false if there is no such gem
      */
-    private static <T> BiFunction<T, Throwable, T> removeTempDir(
-        final Path tmpdir) {
-        return (res, err) -> {
-            try {
-                if (tmpdir != null) {
-                    FileUtils.deleteDirectory(new File(tmpdir.toString()));
+    public CompletionStage<Boolean> quickspec(final String name) {
+        final Key key = Gem.rz(name);
+        return this.storage.exists(key).thenCompose(
+            exists -> {
+                final CompletionStage<Boolean> res;
+                if (exists) {
+                    res = CompletableFuture.completedFuture(true);
+                } else {
+                    final CompletableFuture<Boolean> gen = new CompletableFuture<>();
+                    final CompletableFuture<Boolean> prev = this.generating.putIfAbsent(key, gen);
+                    if (prev == null) {
+                        this.metrics.timed(
+                            "gem_quickspec_generate", () -> this.generate(name, key)
+                        ).whenComplete(
+                            (done, err) -> {
+                                this.generating.remove(key, gen);
+                                if (err == null) {
+                                    gen.complete(done);
+                                } else {
+                                    gen.completeExceptionally(err);
+                                }
+                            }
+                        );
+                        res = gen;
+                    } else {
+                        res = prev;
+                    }
                 }
-            } catch (final IOException iox) {
-                throw new ArtipieIOException(iox);
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Update repository index with gems.
+     * <p>
+     * Pushed gems were read on upload and are not read again, other gems are read
+     * and renamed to their revision keys. Then specs entries are merged into
+     * storage index keys, compact index is appended and quick Marshal gemspecs
+     * are saved next to them. Gems which can't be read are not indexed, other
+     * gems are indexed without them.
+     * </p>
+     * @param gems Gem keys
+     * @return Future with read failures of gems which were not indexed
+     */
+    private CompletionStage<Map<Key, Throwable>> index(final Collection<Key> gems) {
+        final Map<Key, CompletableFuture<IndexedGem>> read = new LinkedHashMap<>();
+        for (final Key gem : gems) {
+            final IndexedGem pushed = this.pushed.remove(gem);
+            if (pushed == null) {
+                read.put(gem, this.rename(gem).toCompletableFuture());
+            } else {
+                read.put(gem, CompletableFuture.completedFuture(pushed));
             }
-            if (err != null) {
-                throw new CompletionException(err);
+        }
+        return this.metrics.timed(
+            "gem_index_read",
+            () -> CompletableFuture.allOf(
+                read.values().stream()
+                    .map(future -> future.handle((gem, err) -> gem))
+                    .toArray(CompletableFuture<?>[]::new)
+            )
+        ).thenCompose(
+            none -> {
+                final Map<Key, Throwable> failures = new HashMap<>();
+                final Map<SpecEntry, IndexedGem> indexed = new HashMap<>();
+                for (final Map.Entry<Key, CompletableFuture<IndexedGem>> gem : read.entrySet()) {
+                    if (gem.getValue().isCompletedExceptionally()) {
+                        failures.put(gem.getKey(), gem.getValue().handle((res, err) -> err).join());
+                    } else {
+                        final IndexedGem item = gem.getValue().join();
+                        indexed.putIfAbsent(item.entry(), item);
+                    }
+                }
+                final CompletionStage<Void> res;
+                if (indexed.isEmpty()) {
+                    res = CompletableFuture.completedFuture(null);
+                } else {
+                    res = this.addIndexed(indexed);
+                }
+                return res.thenApply(nothing -> failures);
             }
-            return res;
-        };
+        );
     }
 
     /**
-     * Predicate to find gem key by name.
-     * @since 1.0
+     * Add read gems to repository index.
+     * @param indexed Read gems by specs entries
+     * @return Completable action
      */
-    private static final class IsGemKey implements Predicate<Key>  {
+    private CompletionStage<Void> addIndexed(final Map<SpecEntry, IndexedGem> indexed) {
+        return this.metrics.timed(
+            "gem_index_specs", () -> new SpecsIndex(this.storage).add(indexed.keySet())
+        ).thenRun(() -> this.versions.add(indexed.keySet()))
+            .thenCompose(
+                none -> this.metrics.timed(
+                    "gem_index_compact",
+                    () -> new CompactIndex(this.storage).add(indexed.values())
+                )
+            )
+            .thenRun(
+                () -> this.deps.invalidate(
+                    indexed.keySet().stream().map(SpecEntry::name).collect(Collectors.toSet())
+                )
+            )
+            .thenCompose(
+                none -> this.metrics.timed(
+                    "gem_index_quick", () -> this.quick(indexed.values())
+                )
+            );
+    }
 
-        /**
-         * Gem name.
-         */
-        private final String name;
+    /**
+     * Remove gem from index and delete its files.
+     * @param entry Gem specs entry
+     * @param gem Gem key
+     * @return Completable action
+     */
+    private CompletionStage<Void> remove(final SpecEntry entry, final Key gem) {
+        return new SpecsIndex(this.storage).remove(entry)
+            .thenRun(() -> this.versions.remove(entry))
+            .thenCompose(none -> new CompactIndex(this.storage).remove(entry))
+            .thenRun(() -> this.deps.invalidate(Collections.singleton(entry.name())))
+            .thenCompose(none -> this.delete(gem))
+            .thenCompose(none -> this.delete(Gem.rz(entry.fullName())));
+    }
 
-        /**
-         * New predicate.
-         * @param name Gem name
-         */
-        IsGemKey(final String name) {
-            this.name = name;
-        }
+    /**
+     * Delete storage item with its entity tag if it exists.
+     * @param key Item key
+     * @return Completable action
+     */
+    private CompletionStage<Void> delete(final Key key) {
+        return this.storage.exists(key).thenCompose(
+            exists -> {
+                final CompletionStage<Void> res;
+                if (exists) {
+                    res = this.storage.delete(key);
+                } else {
+                    res = CompletableFuture.completedFuture(null);
+                }
+                return res;
+            }
+        ).thenCompose(none -> new StoredEtag(this.storage).delete(key));
+    }
 
-        @Override
-        public boolean test(final Key key) {
-            final String str = key.string();
-            final int idx = str.lastIndexOf(this.name);
-            boolean matches = false;
-            if (idx >= 0) {
-                final String tail = str.substring(idx + this.name.length());
-                if (tail.isEmpty() || tail.matches("^[0-9a-zA-Z\\-\\.]+$")) {
-                    matches = true;
+    /**
+     * Save quick Marshal gemspecs, e.g. {@code quick/Marshal.4.8/builder-3.2.4.gemspec.rz}.
+     * @param gems Indexed gems
+     * @return Completable action
+     */
+    private CompletionStage<Void> quick(final Collection<IndexedGem> gems) {
+        return this.shared.apply(
+            ruby -> {
+                final RubyQuickSpec quick = new RubyQuickSpec(ruby);
+                final Map<Key, byte[]> res = new HashMap<>(gems.size());
+                for (final IndexedGem gem : gems) {
+                    res.put(Gem.rz(gem.entry().fullName()), quick.deflated(gem.gemspec()));
                 }
+                return res;
             }
-            return matches;
-        }
+        ).thenCompose(
+            rzs -> CompletableFuture.allOf(
+                rzs.entrySet().stream().map(
+                    item -> this.save(item.getKey(), item.getValue()).toCompletableFuture()
+                ).toArray(CompletableFuture<?>[]::new)
+            )
+        );
     }
 
     /**
-     * Revision Gem meta format.
-     * @since 1.0
+     * Generate quick Marshal gemspec from stored gem.
+     * @param name Full gem name
+     * @param key Quick Marshal gemspec key
+     * @return Future with true if gemspec was saved, false if there is no such gem
      */
-    private static final class RevisionFormat implements GemMeta.MetaFormat {
+    private CompletionStage<Boolean> generate(final String name, final Key key) {
+        final Key gem = new Key.From("gems", String.format("%s.gem", name));
+        return this.storage.exists(key).thenCompose(
+            saved -> {
+                final CompletionStage<Boolean> res;
+                if (saved) {
+                    res = CompletableFuture.completedFuture(true);
+                } else {
+                    res = this.storage.exists(gem).thenCompose(
+                        exists -> {
+                            final CompletionStage<Boolean> gen;
+                            if (exists) {
+                                gen = this.storage.value(gem)
+                                    .thenCompose(Gem::read)
+                                    .thenCompose(
+                                        indexed -> this.shared.apply(
+                                            ruby -> new RubyQuickSpec(ruby)
+                                                .deflated(indexed.gemspec())
+                                        )
+                                    )
+                                    .thenCompose(bytes -> this.save(key, bytes))
+                                    .thenApply(none -> true);
+                            } else {
+                                gen = CompletableFuture.completedFuture(false);
+                            }
+                            return gen;
+                        }
+                    );
+                }
+                return res;
+            }
+        );
+    }
 
-        /**
-         * Gem name.
-         */
-        private String name;
+    /**
+     * Save quick Marshal gemspec with its entity tag.
+     * @param key Gemspec key
+     * @param bytes Deflated gemspec
+     * @return Completable action
+     */
+    private CompletionStage<Void> save(final Key key, final byte[] bytes) {
+        return this.storage.save(key, new Content.From(bytes))
+            .thenCompose(none -> new StoredEtag(this.storage).save(key, bytes));
+    }
 
-        /**
-         * Gem value.
-         */
-        private String version;
+    /**
+     * Move gem to the key of its revision name, e.g. {@code gems/builder-3.2.4.gem}.
+     * <p>
+     * Gems from any prefix are moved to {@code gems}, where they are downloaded from
+     * and looked up by other operations. Gem content is read once to extract gemspec
+     * and to compute gem checksum, which is saved as gem entity tag.
+     * </p>
+     * @param gem Gem key
+     * @return Future with indexed gem
+     */
+    private CompletionStage<IndexedGem> rename(final Key gem) {
+        return this.storage.value(gem)
+            .thenCompose(Gem::read)
+            .thenCompose(
+                indexed -> {
+                    final Key target = new Key.From("gems", Gem.revision(indexed.entry()));
+                    final CompletionStage<Void> res;
+                    if (target.equals(gem)) {
+                        res = CompletableFuture.completedFuture(null);
+                    } else {
+                        res = this.storage.move(gem, target);
+                    }
+                    return res.thenCompose(
+                        none -> new StoredEtag(this.storage).save(target, indexed.checksum())
+                    ).thenApply(none -> indexed);
+                }
+            );
+    }
 
-        @Override
-        public void print(final String nme, final String value) {
-            if (nme.equals("name")) {
-                this.name = value;
-            }
-            if (nme.equals("version")) {
-                this.version = value;
-            }
-        }
+    /**
+     * Read gem content: extract gemspec and compute SHA-256 checksum.
+     * @param content Gem content
+     * @return Future with indexed gem
+     */
+    private static CompletionStage<IndexedGem> read(final Content content) {
+        final CompletableFuture<IndexedGem> res = new CompletableFuture<>();
+        final GemArchive archive = new GemArchive();
+        final MessageDigest sha = Digests.SHA256.get();
+        Flowable.fromPublisher(content)
+            .doOnNext(
+                buf -> {
+                    archive.accept(buf);
+                    sha.update(buf.duplicate());
+                }
+            )
+            .ignoreElements()
+            .toSingle(() -> new IndexedGem(archive.gemspec(), Hex.encodeHexString(sha.digest())))
+            .subscribe(res::complete, res::completeExceptionally);
+        return res;
+    }
 
-        @Override
-        public void print(final String nme, final MetaInfo value) {
-            // do nothing
-        }
+    /**
+     * Quick Marshal gemspec key.
+     * @param name Full gem name
+     * @return Key, e.g. {@code quick/Marshal.4.8/builder-3.2.4.gemspec.rz}
+     */
+    private static Key rz(final String name) {
+        return new Key.From("quick", "Marshal.4.8", String.format("%s.gemspec.rz", name));
+    }
 
-        @Override
-        public String toString() {
-            return String.format("%s-%s.gem", this.name, this.version);
-        }
+    /**
+     * Gem file name by its specs entry.
+     * @param entry Specs entry
+     * @return File name, e.g. {@code builder-3.2.4.gem}
+     */
+    private static String revision(final SpecEntry entry) {
+        return String.format("%s.gem", entry.fullName());
     }
 }
@@ -28,6 +28,7 @@ import com.artipie.http.auth.Authentication;
 import com.artipie.http.auth.BasicAuthScheme;
 import com.artipie.http.headers.Authorization;
 import com.artipie.http.rq.RqHeaders;
+import java.time.Duration;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
@@ -47,10 +48,24 @@ public final class GemApiKeyAuth implements AuthScheme {
 
     /**
      * Ctor.
+     * <p>
+     * Verified credentials are cached for one minute.
+     * </p>
      * @param auth Concrete implementation for User Identification.
      */
     public GemApiKeyAuth(final Authentication auth) {
-        this.auth = auth;
+        this(auth, Duration.ofMinutes(1), 1024);
+    }
+
+    /**
+     * Ctor.
+     * @param auth Concrete implementation for User Identification.
+     * @param ttl Time to live of successful and failed credentials verifications,
+     *  revoked credentials are accepted until cached verification expires.
+     * @param size Max number of cached verifications.
+     */
+    public GemApiKeyAuth(final Authentication auth, final Duration ttl, final int size) {
+        this.auth = new CachedAuthentication(auth, ttl, size);
     }
 
     @Override
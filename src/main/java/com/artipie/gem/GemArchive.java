@@ -0,0 +1,240 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.ArtipieIOException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streaming reader of {@code .gem} archive.
+ * <p>
+ * Gem file is a tar archive with {@code metadata.gz}, {@code data.tar.gz} and
+ * {@code checksums.yaml.gz} entries. This reader accepts archive chunks in order
+ * as they arrive, keeps only {@code metadata.gz} entry bytes and skips everything else,
+ * so it's never needed to store whole gem in memory or in temporary file.
+ * </p>
+ * @since 1.0
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+public final class GemArchive {
+
+    /**
+     * Tar block size.
+     */
+    private static final int BLOCK = 512;
+
+    /**
+     * Metadata entry name.
+     */
+    private static final String METADATA = "metadata.gz";
+
+    /**
+     * Current header block.
+     */
+    private final byte[] header;
+
+    /**
+     * Metadata entry bytes.
+     */
+    private final ByteArrayOutputStream metadata;
+
+    /**
+     * Header bytes read.
+     */
+    private int filled;
+
+    /**
+     * Bytes left in current entry including padding.
+     */
+    private long left;
+
+    /**
+     * Data bytes left in current entry excluding padding.
+     */
+    private long data;
+
+    /**
+     * Current entry is metadata.
+     */
+    private boolean capture;
+
+    /**
+     * Metadata was read completely or archive is ended.
+     */
+    private boolean done;
+
+    /**
+     * New gem archive reader.
+     */
+    public GemArchive() {
+        this.header = new byte[GemArchive.BLOCK];
+        this.metadata = new ByteArrayOutputStream();
+    }
+
+    /**
+     * Accept next archive chunk.
+     * Chunk buffer position is not changed.
+     * @param chunk Archive bytes
+     */
+    public void accept(final ByteBuffer chunk) {
+        final ByteBuffer buf = chunk.duplicate();
+        while (buf.hasRemaining() && !this.done) {
+            if (this.left > 0) {
+                this.entry(buf);
+            } else {
+                final int len = Math.min(buf.remaining(), GemArchive.BLOCK - this.filled);
+                buf.get(this.header, this.filled, len);
+                this.filled += len;
+                if (this.filled == GemArchive.BLOCK) {
+                    this.filled = 0;
+                    this.parseHeader();
+                }
+            }
+        }
+    }
+
+    /**
+     * Check if metadata entry was read completely, or archive has no more entries.
+     * @return True if no more bytes are needed
+     */
+    public boolean done() {
+        return this.done;
+    }
+
+    /**
+     * Gemspec YAML from metadata entry.
+     * @return Gemspec YAML string
+     */
+    public String gemspec() {
+        if (this.metadata.size() == 0) {
+            throw new ArtipieIOException("Gem metadata not found");
+        }
+        try (InputStream gzip = new GZIPInputStream(
+            new ByteArrayInputStream(this.metadata.toByteArray())
+        )) {
+            final ByteArrayOutputStream yaml = new ByteArrayOutputStream();
+            final byte[] buf = new byte[8192];
+            int read = gzip.read(buf);
+            while (read >= 0) {
+                yaml.write(buf, 0, read);
+                read = gzip.read(buf);
+            }
+            return new String(yaml.toByteArray(), StandardCharsets.UTF_8);
+        } catch (final IOException err) {
+            throw new ArtipieIOException(err);
+        }
+    }
+
+    /**
+     * Consume current entry bytes.
+     * @param buf Buffer
+     */
+    private void entry(final ByteBuffer buf) {
+        final int len = (int) Math.min(buf.remaining(), this.left);
+        final int payload = (int) Math.min(len, this.data);
+        if (this.capture && payload > 0) {
+            final byte[] bytes = new byte[payload];
+            buf.get(bytes);
+            this.metadata.write(bytes, 0, payload);
+            buf.position(buf.position() + len - payload);
+        } else {
+            buf.position(buf.position() + len);
+        }
+        this.left -= len;
+        this.data -= payload;
+        if (this.left == 0 && this.capture) {
+            this.done = true;
+        }
+    }
+
+    /**
+     * Parse tar header block.
+     */
+    private void parseHeader() {
+        boolean empty = true;
+        for (final byte item : this.header) {
+            if (item != 0) {
+                empty = false;
+                break;
+            }
+        }
+        if (empty) {
+            this.done = true;
+        } else {
+            String name = GemArchive.text(this.header, 0, 100);
+            final String prefix = GemArchive.text(this.header, 345, 155);
+            if (!prefix.isEmpty()) {
+                name = String.format("%s/%s", prefix, name);
+            }
+            final long size = GemArchive.octal(this.header, 124, 12);
+            this.data = size;
+            this.left = (size + GemArchive.BLOCK - 1) / GemArchive.BLOCK * GemArchive.BLOCK;
+            this.capture = GemArchive.METADATA.equals(name);
+            if (this.capture && this.left == 0) {
+                this.done = true;
+            }
+        }
+    }
+
+    /**
+     * Read null-terminated header string.
+     * @param buf Header
+     * @param off Offset
+     * @param len Max length
+     * @return String
+     */
+    private static String text(final byte[] buf, final int off, final int len) {
+        int end = off;
+        while (end < off + len && buf[end] != 0) {
+            end += 1;
+        }
+        return new String(buf, off, end - off, StandardCharsets.US_ASCII).trim();
+    }
+
+    /**
+     * Read octal header number.
+     * @param buf Header
+     * @param off Offset
+     * @param len Max length
+     * @return Number
+     */
+    private static long octal(final byte[] buf, final int off, final int len) {
+        long res = 0;
+        for (int pos = off; pos < off + len; ++pos) {
+            final byte item = buf[pos];
+            if (item >= '0' && item <= '7') {
+                res = res * 8 + item - '0';
+            } else if (item == 0 || item == ' ' && res > 0) {
+                break;
+            }
+        }
+        return res;
+    }
+}
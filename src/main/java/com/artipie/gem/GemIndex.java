@@ -25,12 +25,15 @@
 package com.artipie.gem;
 
 import java.nio.file.Path;
+import java.util.Collection;
 
 /**
  * Gem repository index.
  *
  * @since 1.0
+ * @deprecated Use {@link Gem#update(java.util.Collection)} or {@link SpecsIndex}
  */
+@Deprecated
 public interface GemIndex {
 
     /**
@@ -38,4 +41,10 @@ public interface GemIndex {
      * @param path Repository index path
      */
     void update(Path path);
+
+    /**
+     * Update index with several gems at once.
+     * @param gems Paths to gems in the same repository directory
+     */
+    void update(Collection<Path> gems);
 }
@@ -0,0 +1,184 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Gem version, Java port of {@code Gem::Version} comparison rules.
+ * @since 1.0
+ */
+public final class GemVersion implements Comparable<GemVersion> {
+
+    /**
+     * Version segment pattern.
+     */
+    private static final Pattern SEGMENT = Pattern.compile("[0-9]+|[a-zA-Z]+");
+
+    /**
+     * Version string.
+     */
+    private final String value;
+
+    /**
+     * New gem version.
+     * @param value Version string
+     */
+    public GemVersion(final String value) {
+        this.value = value.trim();
+    }
+
+    /**
+     * Version string.
+     * @return Version as it was declared
+     */
+    public String string() {
+        return this.value;
+    }
+
+    /**
+     * Check if this version is a prerelease version.
+     * @return True if version contains letters
+     */
+    public boolean prerelease() {
+        boolean pre = false;
+        for (int pos = 0; pos < this.value.length(); ++pos) {
+            if (Character.isLetter(this.value.charAt(pos))) {
+                pre = true;
+                break;
+            }
+        }
+        return pre;
+    }
+
+    @Override
+    public int compareTo(final GemVersion other) {
+        final List<Object> left = this.canonical();
+        final List<Object> right = other.canonical();
+        int res = 0;
+        for (int idx = 0; idx < Math.max(left.size(), right.size()); ++idx) {
+            final Object lhs = GemVersion.segment(left, idx);
+            final Object rhs = GemVersion.segment(right, idx);
+            if (!lhs.equals(rhs)) {
+                res = GemVersion.compare(lhs, rhs);
+                break;
+            }
+        }
+        return res;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return this == other
+            || other instanceof GemVersion && this.compareTo((GemVersion) other) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return this.canonical().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return this.value;
+    }
+
+    /**
+     * Canonical segments: numbers and strings with trailing zeros removed
+     * from release and prerelease parts.
+     * @return Segments list
+     */
+    private List<Object> canonical() {
+        final List<Object> release = new ArrayList<>(4);
+        final List<Object> pre = new ArrayList<>(0);
+        final Matcher matcher = SEGMENT.matcher(this.value.replace("-", ".pre."));
+        while (matcher.find()) {
+            final String seg = matcher.group();
+            final Object item;
+            if (Character.isDigit(seg.charAt(0))) {
+                item = Long.parseLong(seg);
+            } else {
+                item = seg;
+            }
+            if (pre.isEmpty() && item instanceof Long) {
+                release.add(item);
+            } else {
+                pre.add(item);
+            }
+        }
+        GemVersion.trim(release);
+        GemVersion.trim(pre);
+        release.addAll(pre);
+        return release;
+    }
+
+    /**
+     * Segment at position or zero.
+     * @param segments Segments
+     * @param idx Position
+     * @return Segment
+     */
+    private static Object segment(final List<Object> segments, final int idx) {
+        final Object res;
+        if (idx < segments.size()) {
+            res = segments.get(idx);
+        } else {
+            res = 0L;
+        }
+        return res;
+    }
+
+    /**
+     * Compare two segments, strings are always less than numbers.
+     * @param lhs Left segment
+     * @param rhs Right segment
+     * @return Comparison result
+     */
+    private static int compare(final Object lhs, final Object rhs) {
+        final int res;
+        if (lhs instanceof String && rhs instanceof Long) {
+            res = -1;
+        } else if (lhs instanceof Long && rhs instanceof String) {
+            res = 1;
+        } else if (lhs instanceof Long) {
+            res = Long.compare((Long) lhs, (Long) rhs);
+        } else {
+            res = Integer.signum(((String) lhs).compareTo((String) rhs));
+        }
+        return res;
+    }
+
+    /**
+     * Remove trailing zeros.
+     * @param segments Segments
+     */
+    private static void trim(final List<Object> segments) {
+        while (!segments.isEmpty() && Long.valueOf(0L).equals(segments.get(segments.size() - 1))) {
+            segments.remove(segments.size() - 1);
+        }
+    }
+}
@@ -0,0 +1,578 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.ArtipieException;
+import com.artipie.asto.ArtipieIOException;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ext.Digests;
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.apache.commons.codec.binary.Hex;
+
+/**
+ * Index of group repository, merged from indexes of member repositories.
+ * <p>
+ * Specs files are merged by k-way merge of sorted member entries, which are decoded
+ * one by one from member files, so only the current entry of each member is held
+ * in memory, merged entries are encoded as soon as they are merged. Compact index
+ * {@code names} is merged the same way, {@code info/<name>} files are concatenated
+ * with versions of the first member taking precedence and {@code versions} lines of
+ * gems which exist in several members are rebuilt from merged info files.
+ * </p>
+ * <p>
+ * Member files are streamed from member storages and merged file is streamed to
+ * target storage while it is written, so neither member files nor merged file are
+ * read into memory as a whole. Specs files are merged twice: the first pass counts
+ * merged entries for Marshal array header, the second one writes them. Member files
+ * are read with blocking streams on dedicated threads, never on storage threads or
+ * common pool.
+ * </p>
+ * @since 1.0
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ * @checkstyle ClassFanOutComplexityCheck (500 lines)
+ */
+@SuppressWarnings({"PMD.TooManyMethods", "PMD.ExcessiveImports"})
+public final class GroupIndex {
+
+    /**
+     * Specs files pattern.
+     */
+    private static final Pattern SPECS =
+        Pattern.compile("^(prerelease_|latest_)?specs\\.4\\.8(\\.gz)?$");
+
+    /**
+     * Info files pattern.
+     */
+    private static final Pattern INFO = Pattern.compile("^info/([^/]+)$");
+
+    /**
+     * Separator line of compact index files.
+     */
+    private static final String SEPARATOR = CompactIndex.SEPARATOR.trim();
+
+    /**
+     * Merge threads counter.
+     */
+    private static final AtomicInteger THREADS = new AtomicInteger();
+
+    /**
+     * Executor of blocking merges.
+     */
+    private static final ExecutorService MERGES = Executors.newCachedThreadPool(
+        task -> {
+            final Thread thread = new Thread(
+                task, String.format("gem-group-%d", GroupIndex.THREADS.incrementAndGet())
+            );
+            thread.setDaemon(true);
+            return thread;
+        }
+    );
+
+    /**
+     * Member repositories storages.
+     */
+    private final List<Storage> members;
+
+    /**
+     * New group index.
+     * @param members Member repositories storages in priority order
+     */
+    public GroupIndex(final List<Storage> members) {
+        this.members = members;
+    }
+
+    /**
+     * Check if index file is merged from members.
+     * @param key Index key
+     * @return True for specs and compact index files
+     */
+    public static boolean merged(final Key key) {
+        final String str = key.string();
+        return GroupIndex.SPECS.matcher(str).matches() || GroupIndex.INFO.matcher(str).matches()
+            || CompactIndex.NAMES.equals(key) || CompactIndex.VERSIONS.equals(key);
+    }
+
+    /**
+     * Fingerprint of members index files, it changes when any member file changes.
+     * @param key Index key
+     * @return Future with fingerprint
+     */
+    public CompletionStage<String> fingerprint(final Key key) {
+        final List<CompletableFuture<String>> prints = new ArrayList<>(this.members.size());
+        for (final Storage member : this.members) {
+            prints.add(
+                new StoredEtag(member).read(key).thenCompose(
+                    tag -> tag.<CompletionStage<String>>map(
+                        val -> CompletableFuture.completedFuture(val.etag())
+                    ).orElseGet(
+                        () -> member.exists(key).thenCompose(
+                            exists -> {
+                                final CompletionStage<String> res;
+                                if (exists) {
+                                    res = member.size(key).thenApply(String::valueOf);
+                                } else {
+                                    res = CompletableFuture.completedFuture("-");
+                                }
+                                return res;
+                            }
+                        )
+                    )
+                ).toCompletableFuture()
+            );
+        }
+        return CompletableFuture.allOf(prints.toArray(new CompletableFuture<?>[0])).thenApply(
+            none -> prints.stream().map(CompletableFuture::join).collect(Collectors.joining(","))
+        );
+    }
+
+    /**
+     * Merge index file of members and save it with entity tag to target storage.
+     * @param key Index key
+     * @param target Target storage
+     * @return Future with true if file was saved, false if no member has gem info file
+     */
+    public CompletionStage<Boolean> merge(final Key key, final Storage target) {
+        final Matcher specs = GroupIndex.SPECS.matcher(key.string());
+        final CompletionStage<Boolean> res;
+        if (specs.matches()) {
+            res = this.sources(key).thenCompose(
+                sources -> GroupIndex.save(
+                    key, target,
+                    out -> GroupIndex.specs(
+                        sources, key, specs.group(2) != null,
+                        "latest_".equals(specs.group(1)), out
+                    )
+                )
+            );
+        } else if (CompactIndex.NAMES.equals(key)) {
+            res = this.sources(key).thenCompose(
+                sources -> GroupIndex.save(key, target, out -> GroupIndex.names(sources, out))
+            );
+        } else if (CompactIndex.VERSIONS.equals(key)) {
+            res = this.sources(CompactIndex.NAMES).thenCompose(
+                names -> this.sources(CompactIndex.VERSIONS).thenCompose(
+                    sources -> GroupIndex.save(
+                        key, target, out -> this.versions(names, sources, out)
+                    )
+                )
+            );
+        } else if (GroupIndex.INFO.matcher(key.string()).matches()) {
+            res = this.sources(key).thenCompose(
+                sources -> {
+                    final CompletionStage<Boolean> info;
+                    if (sources.isEmpty()) {
+                        info = CompletableFuture.completedFuture(false);
+                    } else {
+                        info = GroupIndex.save(
+                            key, target,
+                            out -> {
+                                final Writer writer = GroupIndex.writer(out);
+                                GroupIndex.info(
+                                    sources, key,
+                                    line -> {
+                                        try {
+                                            writer.write(line);
+                                            writer.write('\n');
+                                        } catch (final IOException err) {
+                                            throw new UncheckedIOException(err);
+                                        }
+                                    }
+                                );
+                                writer.flush();
+                            }
+                        );
+                    }
+                    return info;
+                }
+            );
+        } else {
+            throw new ArtipieException(String.format("Not a merged index key: %s", key.string()));
+        }
+        return res;
+    }
+
+    /**
+     * Merge versions file: lines of gems which exist in one member are copied,
+     * lines of gems which exist in several members are built from merged info files.
+     * Merged info files are not kept, only their versions and checksums.
+     * @param names Members with names file
+     * @param sources Members with versions file
+     * @param out Output
+     * @throws IOException On error
+     */
+    private void versions(final List<Storage> names, final List<Storage> sources,
+        final OutputStream out) throws IOException {
+        final Map<String, String> merged = new TreeMap<>();
+        for (final String name : GroupIndex.overlaps(names)) {
+            final Key info = CompactIndex.info(name);
+            final List<Storage> infos = new ArrayList<>(this.members.size());
+            for (final Storage member : this.members) {
+                if (member.exists(info).toCompletableFuture().join()) {
+                    infos.add(member);
+                }
+            }
+            final MessageDigest md5 = Digests.MD5.get();
+            final List<String> tokens = new ArrayList<>(1);
+            GroupIndex.info(
+                infos, info,
+                line -> {
+                    md5.update(String.format("%s\n", line).getBytes(StandardCharsets.UTF_8));
+                    if (!GroupIndex.SEPARATOR.equals(line)) {
+                        tokens.add(GroupIndex.token(line));
+                    }
+                }
+            );
+            merged.put(
+                name,
+                String.format(
+                    "%s %s %s", name, String.join(",", tokens), Hex.encodeHexString(md5.digest())
+                )
+            );
+        }
+        final Writer writer = GroupIndex.writer(out);
+        writer.write(CompactIndex.header());
+        for (final Storage source : sources) {
+            try (BufferedReader reader = GroupIndex.reader(source, CompactIndex.VERSIONS)) {
+                final List<String> head = new ArrayList<>(1);
+                String line = reader.readLine();
+                while (line != null && !GroupIndex.SEPARATOR.equals(line)) {
+                    head.add(line);
+                    line = reader.readLine();
+                }
+                final Iterator<String> body;
+                if (line == null) {
+                    body = head.iterator();
+                } else {
+                    body = reader.lines().iterator();
+                }
+                while (body.hasNext()) {
+                    final String item = body.next();
+                    if (!merged.containsKey(GroupIndex.token(item))) {
+                        writer.write(item);
+                        writer.write('\n');
+                    }
+                }
+            }
+        }
+        for (final String line : merged.values()) {
+            writer.write(line);
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    /**
+     * Members which have index file.
+     * @param key Index key
+     * @return Future with member storages in members order
+     */
+    private CompletionStage<List<Storage>> sources(final Key key) {
+        final List<CompletableFuture<Boolean>> checks = new ArrayList<>(this.members.size());
+        for (final Storage member : this.members) {
+            checks.add(member.exists(key).toCompletableFuture());
+        }
+        return CompletableFuture.allOf(checks.toArray(new CompletableFuture<?>[0])).thenApply(
+            none -> {
+                final List<Storage> res = new ArrayList<>(this.members.size());
+                for (int idx = 0; idx < this.members.size(); idx += 1) {
+                    if (checks.get(idx).join()) {
+                        res.add(this.members.get(idx));
+                    }
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Save merged file with entity tag to target storage. Merged file is written
+     * on merge thread while target storage reads it.
+     * @param key Index key
+     * @param target Target storage
+     * @param merge Merged file writer
+     * @return Future with true when file is saved
+     */
+    private static CompletionStage<Boolean> save(final Key key, final Storage target,
+        final OutputContent.Source merge) {
+        final MessageDigest md5 = Digests.MD5.get();
+        return target.save(
+            key,
+            new OutputContent(
+                out -> {
+                    final OutputStream digest = new DigestOutputStream(out, md5);
+                    try {
+                        merge.write(digest);
+                    } catch (final UncheckedIOException err) {
+                        throw err.getCause();
+                    }
+                    digest.flush();
+                },
+                GroupIndex.MERGES
+            )
+        ).thenCompose(
+            none -> new StoredEtag(target).save(key, Hex.encodeHexString(md5.digest()))
+        ).thenApply(none -> true);
+    }
+
+    /**
+     * Merge specs files: the first pass over merged entries counts them, the second
+     * one writes them, gzipped file is compressed while it is written.
+     * @param sources Members with specs file
+     * @param key Specs key
+     * @param gzip Files are gzipped
+     * @param latest Keep only latest version of each gem and platform
+     * @param out Output
+     * @throws IOException On error
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private static void specs(final List<Storage> sources, final Key key, final boolean gzip,
+        final boolean latest, final OutputStream out) throws IOException {
+        final AtomicInteger count = new AtomicInteger();
+        GroupIndex.entries(sources, key, gzip, latest, entry -> count.incrementAndGet());
+        final OutputStream dest;
+        if (gzip) {
+            dest = new GZIPOutputStream(out);
+        } else {
+            dest = out;
+        }
+        final MarshalWriter marshal = new MarshalWriter(dest);
+        marshal.header();
+        marshal.array(count.get());
+        GroupIndex.entries(
+            sources, key, gzip, latest,
+            entry -> {
+                try {
+                    marshal.write(entry);
+                } catch (final IOException err) {
+                    throw new UncheckedIOException(err);
+                }
+            }
+        );
+        if (gzip) {
+            ((GZIPOutputStream) dest).finish();
+        }
+    }
+
+    /**
+     * Pass merged entries of specs files to consumer.
+     * @param sources Members with specs file
+     * @param key Specs key
+     * @param gzip Files are gzipped
+     * @param latest Keep only latest version of each gem and platform
+     * @param target Consumer of merged entries
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private static void entries(final List<Storage> sources, final Key key,
+        final boolean gzip, final boolean latest, final Consumer<SpecEntry> target) {
+        final Iterator<SpecEntry> merged = new SortedMerge<>(
+            sources.stream()
+                .map(
+                    member -> SpecsIndex.ordered(
+                        new SpecsReader(GroupIndex.input(member, key, gzip))
+                    )
+                )
+                .collect(Collectors.toList()),
+            true
+        );
+        if (latest) {
+            final LatestSpecs last = new LatestSpecs(target);
+            merged.forEachRemaining(last);
+            last.finish();
+        } else {
+            merged.forEachRemaining(target);
+        }
+    }
+
+    /**
+     * Merge names files.
+     * @param sources Members with names file
+     * @param out Output
+     * @throws IOException On error
+     */
+    private static void names(final List<Storage> sources, final OutputStream out)
+        throws IOException {
+        final Writer writer = GroupIndex.writer(out);
+        writer.write(CompactIndex.SEPARATOR);
+        final Iterator<String> names = new SortedMerge<>(
+            GroupIndex.lines(sources, CompactIndex.NAMES), true
+        );
+        while (names.hasNext()) {
+            writer.write(names.next());
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    /**
+     * Names which exist in several names files.
+     * @param sources Members with names file
+     * @return Sorted names
+     */
+    private static Set<String> overlaps(final List<Storage> sources) {
+        final Set<String> res = new TreeSet<>();
+        final Iterator<String> names = new SortedMerge<>(
+            GroupIndex.lines(sources, CompactIndex.NAMES), false
+        );
+        String last = null;
+        while (names.hasNext()) {
+            final String name = names.next();
+            if (name.equals(last)) {
+                res.add(name);
+            }
+            last = name;
+        }
+        return res;
+    }
+
+    /**
+     * Merge info files, lines of versions which were already added are skipped.
+     * @param sources Members with info file
+     * @param key Info key
+     * @param lines Consumer of merged lines without line breaks, separator line first
+     * @throws IOException On error
+     */
+    private static void info(final List<Storage> sources, final Key key,
+        final Consumer<String> lines) throws IOException {
+        lines.accept(GroupIndex.SEPARATOR);
+        final Set<String> seen = new HashSet<>();
+        for (final Storage source : sources) {
+            try (BufferedReader reader = GroupIndex.reader(source, key)) {
+                reader.readLine();
+                String line = reader.readLine();
+                while (line != null) {
+                    if (seen.add(GroupIndex.token(line))) {
+                        lines.accept(line);
+                    }
+                    line = reader.readLine();
+                }
+            }
+        }
+    }
+
+    /**
+     * Lines after separator line of text files.
+     * @param sources Members with file
+     * @param key File key
+     * @return Lines iterators
+     */
+    private static List<Iterator<String>> lines(final List<Storage> sources, final Key key) {
+        return sources.stream()
+            .map(member -> GroupIndex.reader(member, key).lines().skip(1))
+            .map(Stream::iterator)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * First token of compact index line.
+     * @param line Line
+     * @return Line up to first space
+     */
+    private static String token(final String line) {
+        final int idx = line.indexOf(' ');
+        final String res;
+        if (idx < 0) {
+            res = line;
+        } else {
+            res = line.substring(0, idx);
+        }
+        return res;
+    }
+
+    /**
+     * Text writer of output.
+     * @param out Output
+     * @return Writer, should be flushed
+     */
+    private static Writer writer(final OutputStream out) {
+        return new OutputStreamWriter(out, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Text reader of member file.
+     * @param member Member storage
+     * @param key File key
+     * @return Buffered reader
+     */
+    private static BufferedReader reader(final Storage member, final Key key) {
+        return new BufferedReader(
+            new InputStreamReader(GroupIndex.input(member, key, false), StandardCharsets.UTF_8)
+        );
+    }
+
+    /**
+     * Input stream of member file, blocks until file content is available.
+     * @param member Member storage
+     * @param key File key
+     * @param gzip File is gzipped
+     * @return Buffered input stream
+     */
+    private static InputStream input(final Storage member, final Key key, final boolean gzip) {
+        final InputStream content = new ContentStream(
+            member.value(key).toCompletableFuture().join()
+        );
+        final InputStream res;
+        if (gzip) {
+            try {
+                res = new BufferedInputStream(new GZIPInputStream(content));
+            } catch (final IOException err) {
+                throw new ArtipieIOException(err);
+            }
+        } else {
+            res = new BufferedInputStream(content);
+        }
+        return res;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.FailedCompletionStage;
+import com.artipie.asto.lock.Lock;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Lock of index files, which waits for the lock held by another repository instance.
+ * <p>
+ * Storage lock fails at once if the lock is held by someone else, e.g. by another
+ * adapter instance sharing the storage. This lock retries to acquire origin lock
+ * with exponential backoff, so concurrent index updates wait for each other
+ * instead of failing.
+ * </p>
+ * @since 1.0
+ */
+final class IndexLock implements Lock {
+
+    /**
+     * Default max number of attempts to acquire the lock.
+     */
+    private static final int ATTEMPTS = 10;
+
+    /**
+     * Delay before the second attempt, in milliseconds.
+     */
+    private static final long DELAY = 100L;
+
+    /**
+     * Max delay between attempts, in milliseconds.
+     */
+    private static final long MAX_DELAY = 5_000L;
+
+    /**
+     * Timer of attempts.
+     */
+    private static final ScheduledExecutorService TIMER =
+        Executors.newSingleThreadScheduledExecutor(
+            task -> {
+                final Thread thread = new Thread(task, "gem-lock-timer");
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+
+    /**
+     * Origin lock.
+     */
+    private final Lock origin;
+
+    /**
+     * Max number of attempts.
+     */
+    private final int attempts;
+
+    /**
+     * New index lock with default number of attempts.
+     * @param origin Origin lock
+     */
+    IndexLock(final Lock origin) {
+        this(origin, IndexLock.ATTEMPTS);
+    }
+
+    /**
+     * New index lock.
+     * @param origin Origin lock
+     * @param attempts Max number of attempts to acquire the lock
+     */
+    IndexLock(final Lock origin, final int attempts) {
+        this.origin = origin;
+        this.attempts = attempts;
+    }
+
+    @Override
+    public CompletionStage<Void> acquire() {
+        return this.acquire(1, IndexLock.DELAY);
+    }
+
+    @Override
+    public CompletionStage<Void> release() {
+        return this.origin.release();
+    }
+
+    /**
+     * Try to acquire origin lock, retry after delay on failure.
+     * @param attempt Number of this attempt
+     * @param delay Delay before next attempt, in milliseconds
+     * @return Completion of lock acquisition, it fails with the error of
+     *  the last attempt
+     */
+    private CompletionStage<Void> acquire(final int attempt, final long delay) {
+        return this.origin.acquire().handle(
+            (none, err) -> {
+                final CompletionStage<Void> res;
+                if (err == null) {
+                    res = CompletableFuture.completedFuture(null);
+                } else if (attempt < this.attempts) {
+                    final CompletableFuture<Void> delayed = new CompletableFuture<>();
+                    IndexLock.TIMER.schedule(
+                        () -> delayed.complete(null), delay, TimeUnit.MILLISECONDS
+                    );
+                    res = delayed.thenCompose(
+                        nothing -> this.acquire(
+                            attempt + 1, Math.min(delay * 2, IndexLock.MAX_DELAY)
+                        )
+                    );
+                } else {
+                    res = new FailedCompletionStage<>(err);
+                }
+                return res;
+            }
+        ).thenCompose(Function.identity());
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.Key;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Single writer queue of index updates.
+ * <p>
+ * Only one index update is performed at a time. Gems submitted while
+ * index update is in progress are collected and indexed together by the
+ * next update, so concurrent pushes never overwrite each other index
+ * changes and are indexed in one batch. Other index changes, like yanks,
+ * are queued the same way and performed one by one. Failure of one gem fails
+ * only updates which submitted it, other gems of the batch are indexed.
+ * </p>
+ * @since 1.0
+ */
+final class IndexQueue {
+
+    /**
+     * Batch index update, returns failures of gems which were not indexed.
+     */
+    private final Function<Collection<Key>, CompletionStage<Map<Key, Throwable>>> batch;
+
+    /**
+     * Pending updates.
+     */
+    private final Queue<Pending> pending;
+
+    /**
+     * Index update is in progress.
+     */
+    private final AtomicBoolean running;
+
+    /**
+     * New index queue.
+     * @param batch Batch index update function, it indexes gems which can be
+     *  indexed and returns failures of other gems by their keys
+     */
+    IndexQueue(final Function<Collection<Key>, CompletionStage<Map<Key, Throwable>>> batch) {
+        this.batch = batch;
+        this.pending = new ConcurrentLinkedQueue<>();
+        this.running = new AtomicBoolean();
+    }
+
+    /**
+     * Submit gems for indexing.
+     * @param gems Gem keys
+     * @return Future completed when gems are indexed
+     */
+    CompletionStage<Void> add(final Collection<Key> gems) {
+        final CompletableFuture<Void> res = new CompletableFuture<>();
+        this.pending.add(new Pending(gems, null, res));
+        this.drain();
+        return res;
+    }
+
+    /**
+     * Submit other index change, e.g. gem removal. It's performed alone,
+     * after index updates submitted before it.
+     * @param action Index change
+     * @return Future completed when change is performed
+     */
+    CompletionStage<Void> run(final Supplier<CompletionStage<Void>> action) {
+        final CompletableFuture<Void> res = new CompletableFuture<>();
+        this.pending.add(new Pending(Collections.emptyList(), action, res));
+        this.drain();
+        return res;
+    }
+
+    /**
+     * Start index update for all pending gems if no update is running.
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private void drain() {
+        if (this.running.compareAndSet(false, true)) {
+            final List<Pending> items = new ArrayList<>(1);
+            Pending next = this.pending.peek();
+            if (next != null && next.action != null) {
+                items.add(this.pending.poll());
+            } else {
+                while (next != null && next.action == null) {
+                    items.add(this.pending.poll());
+                    next = this.pending.peek();
+                }
+            }
+            if (items.isEmpty()) {
+                this.running.set(false);
+                if (!this.pending.isEmpty()) {
+                    this.drain();
+                }
+            } else {
+                final Set<Key> keys = new LinkedHashSet<>();
+                items.forEach(item -> keys.addAll(item.gems));
+                CompletionStage<Map<Key, Throwable>> update;
+                try {
+                    if (items.get(0).action == null) {
+                        update = this.batch.apply(keys);
+                    } else {
+                        update = items.get(0).action.get()
+                            .thenApply(none -> Collections.emptyMap());
+                    }
+                    // @checkstyle IllegalCatchCheck (1 line)
+                } catch (final RuntimeException err) {
+                    final CompletableFuture<Map<Key, Throwable>> failed =
+                        new CompletableFuture<>();
+                    failed.completeExceptionally(err);
+                    update = failed;
+                }
+                update.handle(
+                    (failures, err) -> {
+                        for (final Pending item : items) {
+                            if (err == null) {
+                                item.complete(failures);
+                            } else {
+                                item.future.completeExceptionally(err);
+                            }
+                        }
+                        this.running.set(false);
+                        this.drain();
+                        return null;
+                    }
+                );
+            }
+        }
+    }
+
+    /**
+     * Pending index update.
+     * @since 1.0
+     */
+    private static final class Pending {
+
+        /**
+         * Gems to index.
+         */
+        private final Collection<Key> gems;
+
+        /**
+         * Other index change, null for gems indexing.
+         */
+        private final Supplier<CompletionStage<Void>> action;
+
+        /**
+         * Update future.
+         */
+        private final CompletableFuture<Void> future;
+
+        /**
+         * New pending update.
+         * @param gems Gems to index
+         * @param action Other index change, null for gems indexing
+         * @param future Update future
+         */
+        Pending(final Collection<Key> gems, final Supplier<CompletionStage<Void>> action,
+            final CompletableFuture<Void> future) {
+            this.gems = gems;
+            this.action = action;
+            this.future = future;
+        }
+
+        /**
+         * Complete update, it fails with the first failure of its gems.
+         * @param failures Failures of batch gems
+         */
+        void complete(final Map<Key, Throwable> failures) {
+            final Optional<Throwable> failure = this.gems.stream()
+                .map(failures::get)
+                .filter(Objects::nonNull)
+                .findFirst();
+            if (failure.isPresent()) {
+                this.future.completeExceptionally(failure.get());
+            } else {
+                this.future.complete(null);
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Gem metadata extracted for indexing.
+ * <p>
+ * Gemspec YAML is parsed once, then specs entry, runtime dependencies and
+ * Ruby requirements are used by index files.
+ * </p>
+ * @since 1.0
+ */
+final class IndexedGem {
+
+    /**
+     * Any version requirement.
+     */
+    private static final String ANY = ">= 0";
+
+    /**
+     * Gemspec YAML.
+     */
+    private final String yaml;
+
+    /**
+     * SHA-256 checksum of gem file, hex.
+     */
+    private final String sha;
+
+    /**
+     * Specs entry.
+     */
+    private final SpecEntry spec;
+
+    /**
+     * Runtime dependencies requirements by name.
+     */
+    private final Map<String, String> deps;
+
+    /**
+     * Required Ruby and RubyGems versions.
+     */
+    private final Map<String, String> required;
+
+    /**
+     * New indexed gem.
+     * @param yaml Gemspec YAML
+     * @param sha SHA-256 checksum of gem file, hex
+     */
+    IndexedGem(final String yaml, final String sha) {
+        this.yaml = yaml;
+        this.sha = sha;
+        final GemMeta.MetaInfo info = YamlGemMeta.parse(yaml);
+        this.spec = EntryFormat.entry(info);
+        final Fields fields = new Fields();
+        info.print(fields);
+        this.deps = fields.child("dependencies").child("runtime").values;
+        this.required = fields.values;
+    }
+
+    /**
+     * Specs entry.
+     * @return Entry
+     */
+    SpecEntry entry() {
+        return this.spec;
+    }
+
+    /**
+     * Gemspec YAML.
+     * @return YAML string
+     */
+    String gemspec() {
+        return this.yaml;
+    }
+
+    /**
+     * SHA-256 checksum of gem file.
+     * @return Hex checksum
+     */
+    String checksum() {
+        return this.sha;
+    }
+
+    /**
+     * Runtime dependencies.
+     * @return Requirements by dependency name, e.g. {@code rack -> >= 1.0, < 3}
+     */
+    Map<String, String> dependencies() {
+        return Collections.unmodifiableMap(this.deps);
+    }
+
+    /**
+     * Required Ruby version.
+     * @return Requirement, e.g. {@code >= 2.3}, or {@code >= 0} if not specified
+     */
+    String ruby() {
+        return this.required.getOrDefault("required_ruby_version", IndexedGem.ANY);
+    }
+
+    /**
+     * Required RubyGems version.
+     * @return Requirement, e.g. {@code >= 1.3.6}, or {@code >= 0} if not specified
+     */
+    String rubygems() {
+        return this.required.getOrDefault("required_rubygems_version", IndexedGem.ANY);
+    }
+
+    /**
+     * Meta format collecting printed fields as a tree.
+     * @since 1.0
+     */
+    private static final class Fields implements GemMeta.MetaFormat {
+
+        /**
+         * String values by name.
+         */
+        private final Map<String, String> values;
+
+        /**
+         * Nested fields by name.
+         */
+        private final Map<String, Fields> children;
+
+        /**
+         * New empty fields.
+         */
+        Fields() {
+            this.values = new LinkedHashMap<>();
+            this.children = new LinkedHashMap<>();
+        }
+
+        @Override
+        public void print(final String name, final String value) {
+            this.values.put(name, value);
+        }
+
+        @Override
+        public void print(final String name, final GemMeta.MetaInfo value) {
+            final Fields child = new Fields();
+            value.print(child);
+            this.children.put(name, child);
+        }
+
+        /**
+         * Nested fields.
+         * @param name Field name
+         * @return Nested fields or empty fields if absent
+         */
+        Fields child(final String name) {
+            return this.children.getOrDefault(name, new Fields());
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * Latest versions of each gem and platform from sorted specs entries.
+ * <p>
+ * Accepts entries in specs order and passes the latest entries of each gem to
+ * target when entries of the next gem start, only entries of one gem are held.
+ * </p>
+ * @since 1.0
+ */
+final class LatestSpecs implements Consumer<SpecEntry> {
+
+    /**
+     * Target of latest entries.
+     */
+    private final Consumer<SpecEntry> target;
+
+    /**
+     * Latest entries of current gem by platform.
+     */
+    private final Map<String, SpecEntry> platforms;
+
+    /**
+     * Current gem name.
+     */
+    private String name;
+
+    /**
+     * New latest specs.
+     * @param target Target of latest entries
+     */
+    LatestSpecs(final Consumer<SpecEntry> target) {
+        this.target = target;
+        this.platforms = new HashMap<>();
+    }
+
+    @Override
+    public void accept(final SpecEntry entry) {
+        if (!entry.name().equals(this.name)) {
+            this.finish();
+            this.name = entry.name();
+        }
+        this.platforms.put(entry.platform(), entry);
+    }
+
+    /**
+     * Pass latest entries of the last gem to target.
+     */
+    void finish() {
+        new TreeSet<>(this.platforms.values()).forEach(this.target);
+        this.platforms.clear();
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.fs.FileStorage;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Pure Java gem index implementation based on Marshal codec.
+ * <p>
+ * Merges gem entry into {@code specs.4.8}, {@code latest_specs.4.8} and
+ * {@code prerelease_specs.4.8} files (with gzipped copies) located in the parent
+ * directory of gems dir. It doesn't require Ruby runtime, but doesn't generate
+ * quick Marshal gemspec files.
+ * </p>
+ * @since 1.0
+ * @deprecated Use {@link SpecsIndex} over repository storage
+ */
+@Deprecated
+public final class MarshalGemIndex implements GemIndex {
+
+    /**
+     * Gem metadata parser.
+     */
+    private final GemMeta meta;
+
+    /**
+     * New Marshal gem index.
+     * @param meta Gem metadata parser
+     */
+    public MarshalGemIndex(final GemMeta meta) {
+        this.meta = meta;
+    }
+
+    @Override
+    public void update(final Path path) {
+        this.update(Collections.singleton(path));
+    }
+
+    @Override
+    public void update(final Collection<Path> gems) {
+        if (!gems.isEmpty()) {
+            final List<SpecEntry> entries = new ArrayList<>(gems.size());
+            for (final Path gem : gems) {
+                entries.add(EntryFormat.entry(this.meta.info(gem)));
+            }
+            final Path root = gems.iterator().next().toAbsolutePath().getParent().getParent();
+            new SpecsIndex(new FileStorage(root)).add(entries).toCompletableFuture().join();
+        }
+    }
+}
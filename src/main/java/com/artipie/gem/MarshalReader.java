@@ -0,0 +1,401 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming reader of Ruby Marshal 4.8 format.
+ * <p>
+ * Reads values one by one from input stream, so big arrays can be
+ * iterated without loading whole document into memory. Supported values are
+ * mapped to Java types: {@code nil} to {@code null}, booleans to {@link Boolean},
+ * fixnums to {@link Long}, bignums to {@link BigInteger}, floats to {@link Double},
+ * strings to {@link String}, symbols to {@link MarshalSymbol}, arrays to {@link List},
+ * hashes, objects and structs to {@link Map} and {@code Gem::Version} to {@link GemVersion}.
+ * </p>
+ * @since 1.0
+ * @checkstyle CyclomaticComplexityCheck (500 lines)
+ */
+@SuppressWarnings({"PMD.CyclomaticComplexity", "PMD.TooManyMethods"})
+public final class MarshalReader {
+
+    /**
+     * Gem version class name.
+     */
+    private static final String VERSION = "Gem::Version";
+
+    /**
+     * Input stream.
+     */
+    private final InputStream input;
+
+    /**
+     * Symbols table.
+     */
+    private final List<MarshalSymbol> symbols;
+
+    /**
+     * Objects table for links.
+     */
+    private final List<Object> objects;
+
+    /**
+     * New Marshal reader.
+     * @param input Input stream, should be buffered
+     */
+    public MarshalReader(final InputStream input) {
+        this.input = input;
+        this.symbols = new ArrayList<>(16);
+        this.objects = new ArrayList<>(64);
+    }
+
+    /**
+     * Read and check Marshal format version header.
+     * @throws IOException On read error or unsupported version
+     */
+    public void header() throws IOException {
+        final int major = this.next();
+        final int minor = this.next();
+        if (major != 4 || minor > 8) {
+            throw new IOException(
+                String.format("Unsupported Marshal version %d.%d", major, minor)
+            );
+        }
+    }
+
+    /**
+     * Read array header, array items should be read by {@link #read()}.
+     * @return Array size
+     * @throws IOException On read error or if next value is not an array
+     */
+    public int array() throws IOException {
+        final int type = this.next();
+        if (type != '[') {
+            throw new IOException(
+                String.format("Expected array but was '%c'", (char) type)
+            );
+        }
+        this.objects.add(new ArrayList<>(0));
+        return (int) this.number();
+    }
+
+    /**
+     * Read next value.
+     * @return Value
+     * @throws IOException On read error
+     * @checkstyle ReturnCountCheck (100 lines)
+     * @checkstyle ExecutableStatementCountCheck (100 lines)
+     */
+    @SuppressWarnings({"PMD.OnlyOneReturn", "PMD.NcssCount"})
+    public Object read() throws IOException {
+        final int type = this.next();
+        switch (type) {
+            case '0':
+                return null;
+            case 'T':
+                return Boolean.TRUE;
+            case 'F':
+                return Boolean.FALSE;
+            case 'i':
+                return this.number();
+            case ':':
+                return this.newSymbol();
+            case ';':
+                return this.symbols.get((int) this.number());
+            case '@':
+                return this.objects.get((int) this.number());
+            case 'I':
+                final Object ivar = this.read();
+                this.ivars(null);
+                return ivar;
+            case '"':
+                return this.register(new String(this.bytes(), StandardCharsets.UTF_8));
+            case 'f':
+                return this.register(MarshalReader.decimal(this.bytes()));
+            case 'l':
+                return this.register(this.bignum());
+            case '[':
+                return this.list();
+            case '{':
+                return this.hash(false);
+            case '}':
+                return this.hash(true);
+            case 'U':
+                return this.userMarshal();
+            case 'o':
+            case 'S':
+                final MarshalSymbol cls = this.symbol();
+                final Map<Object, Object> fields = new LinkedHashMap<>();
+                this.register(fields);
+                fields.put(new MarshalSymbol("class"), cls.name());
+                this.ivars(fields);
+                return fields;
+            case 'e':
+            case 'C':
+                this.symbol();
+                return this.read();
+            case 'c':
+            case 'm':
+            case 'M':
+                return this.register(new String(this.bytes(), StandardCharsets.UTF_8));
+            case '/':
+                final String regex = new String(this.bytes(), StandardCharsets.UTF_8);
+                this.next();
+                return this.register(regex);
+            default:
+                throw new IOException(
+                    String.format("Unsupported Marshal type '%c'", (char) type)
+                );
+        }
+    }
+
+    /**
+     * Read symbol or symbol link.
+     * @return Symbol
+     * @throws IOException On read error
+     */
+    private MarshalSymbol symbol() throws IOException {
+        final int type = this.next();
+        final MarshalSymbol sym;
+        if (type == ':') {
+            sym = this.newSymbol();
+        } else if (type == ';') {
+            sym = this.symbols.get((int) this.number());
+        } else if (type == 'I') {
+            sym = this.symbol();
+            this.ivars(null);
+        } else {
+            throw new IOException(
+                String.format("Expected symbol but was '%c'", (char) type)
+            );
+        }
+        return sym;
+    }
+
+    /**
+     * Read new symbol and put it into symbols table.
+     * @return Symbol
+     * @throws IOException On read error
+     */
+    private MarshalSymbol newSymbol() throws IOException {
+        final MarshalSymbol sym = new MarshalSymbol(
+            new String(this.bytes(), StandardCharsets.UTF_8)
+        );
+        this.symbols.add(sym);
+        return sym;
+    }
+
+    /**
+     * Read instance variables.
+     * @param target Target map or null to skip variables
+     * @throws IOException On read error
+     */
+    private void ivars(final Map<Object, Object> target) throws IOException {
+        final long count = this.number();
+        for (long idx = 0; idx < count; ++idx) {
+            final MarshalSymbol name = this.symbol();
+            final Object value = this.read();
+            if (target != null) {
+                target.put(name, value);
+            }
+        }
+    }
+
+    /**
+     * Read array items.
+     * @return List of items
+     * @throws IOException On read error
+     */
+    private List<Object> list() throws IOException {
+        final int size = (int) this.number();
+        final List<Object> items = new ArrayList<>(size);
+        this.register(items);
+        for (int idx = 0; idx < size; ++idx) {
+            items.add(this.read());
+        }
+        return items;
+    }
+
+    /**
+     * Read hash items.
+     * @param defaults Hash has default value
+     * @return Map
+     * @throws IOException On read error
+     */
+    private Map<Object, Object> hash(final boolean defaults) throws IOException {
+        final long size = this.number();
+        final Map<Object, Object> map = new LinkedHashMap<>();
+        this.register(map);
+        for (long idx = 0; idx < size; ++idx) {
+            final Object key = this.read();
+            map.put(key, this.read());
+        }
+        if (defaults) {
+            this.read();
+        }
+        return map;
+    }
+
+    /**
+     * Read object dumped by {@code marshal_dump} method.
+     * @return Object
+     * @throws IOException On read error or unsupported class
+     */
+    private Object userMarshal() throws IOException {
+        final MarshalSymbol cls = this.symbol();
+        final int pos = this.objects.size();
+        this.objects.add(null);
+        final Object data = this.read();
+        if (!MarshalReader.VERSION.equals(cls.name()) || !(data instanceof List)
+            || ((List<?>) data).isEmpty()) {
+            throw new IOException(String.format("Unsupported user class %s", cls.name()));
+        }
+        final GemVersion version = new GemVersion(String.valueOf(((List<?>) data).get(0)));
+        this.objects.set(pos, version);
+        return version;
+    }
+
+    /**
+     * Read bignum.
+     * @return Big integer
+     * @throws IOException On read error
+     */
+    private BigInteger bignum() throws IOException {
+        final int sign = this.next();
+        final int len = (int) this.number() * 2;
+        final byte[] buf = new byte[len];
+        for (int idx = len - 1; idx >= 0; --idx) {
+            buf[idx] = (byte) this.next();
+        }
+        BigInteger res = new BigInteger(1, buf);
+        if (sign == '-') {
+            res = res.negate();
+        }
+        return res;
+    }
+
+    /**
+     * Register object in objects table.
+     * @param obj Object
+     * @param <T> Object type
+     * @return Same object
+     */
+    private <T> T register(final T obj) {
+        this.objects.add(obj);
+        return obj;
+    }
+
+    /**
+     * Read bytes sequence prefixed with length.
+     * @return Bytes
+     * @throws IOException On read error
+     */
+    private byte[] bytes() throws IOException {
+        final int len = (int) this.number();
+        final byte[] buf = new byte[len];
+        int off = 0;
+        while (off < len) {
+            final int read = this.input.read(buf, off, len - off);
+            if (read < 0) {
+                throw new EOFException("Unexpected end of Marshal stream");
+            }
+            off += read;
+        }
+        return buf;
+    }
+
+    /**
+     * Read Marshal packed long number.
+     * @return Number
+     * @throws IOException On read error
+     * @checkstyle MagicNumberCheck (30 lines)
+     */
+    private long number() throws IOException {
+        final int code = (byte) this.next();
+        final long res;
+        if (code == 0) {
+            res = 0;
+        } else if (code > 4) {
+            res = code - 5;
+        } else if (code < -4) {
+            res = code + 5;
+        } else if (code > 0) {
+            long val = 0;
+            for (int idx = 0; idx < code; ++idx) {
+                val |= (long) this.next() << 8 * idx;
+            }
+            res = val;
+        } else {
+            long val = -1;
+            for (int idx = 0; idx < -code; ++idx) {
+                val &= ~(0xffL << 8 * idx);
+                val |= (long) this.next() << 8 * idx;
+            }
+            res = val;
+        }
+        return res;
+    }
+
+    /**
+     * Read next byte.
+     * @return Unsigned byte value
+     * @throws IOException On read error or end of stream
+     */
+    private int next() throws IOException {
+        final int val = this.input.read();
+        if (val < 0) {
+            throw new EOFException("Unexpected end of Marshal stream");
+        }
+        return val;
+    }
+
+    /**
+     * Parse Marshal float.
+     * @param bytes Float string bytes
+     * @return Double value
+     */
+    private static Double decimal(final byte[] bytes) {
+        final String str = new String(bytes, StandardCharsets.US_ASCII);
+        final Double res;
+        if ("inf".equals(str)) {
+            res = Double.POSITIVE_INFINITY;
+        } else if ("-inf".equals(str)) {
+            res = Double.NEGATIVE_INFINITY;
+        } else if ("nan".equals(str)) {
+            res = Double.NaN;
+        } else {
+            res = Double.valueOf(str);
+        }
+        return res;
+    }
+}
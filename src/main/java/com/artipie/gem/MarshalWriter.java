@@ -0,0 +1,300 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Streaming writer of Ruby Marshal 4.8 format.
+ * <p>
+ * Writes Java values in the same mapping as {@link MarshalReader} reads them.
+ * Equal strings are written once and referenced by object links after that,
+ * symbols are referenced by symbol links.
+ * </p>
+ * @since 1.0
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class MarshalWriter {
+
+    /**
+     * Max fixnum value.
+     */
+    private static final long MAX_FIXNUM = (1L << 30) - 1;
+
+    /**
+     * Min fixnum value.
+     */
+    private static final long MIN_FIXNUM = -(1L << 30);
+
+    /**
+     * Encoding ivar symbol.
+     */
+    private static final MarshalSymbol ENCODING = new MarshalSymbol("E");
+
+    /**
+     * Gem version class symbol.
+     */
+    private static final MarshalSymbol VERSION = new MarshalSymbol("Gem::Version");
+
+    /**
+     * Output stream.
+     */
+    private final OutputStream out;
+
+    /**
+     * Written symbols.
+     */
+    private final Map<MarshalSymbol, Integer> symbols;
+
+    /**
+     * Written strings.
+     */
+    private final Map<String, Integer> strings;
+
+    /**
+     * Objects counter.
+     */
+    private int objects;
+
+    /**
+     * New Marshal writer.
+     * @param out Output stream, should be buffered
+     */
+    public MarshalWriter(final OutputStream out) {
+        this.out = out;
+        this.symbols = new HashMap<>(16);
+        this.strings = new HashMap<>(64);
+    }
+
+    /**
+     * Write Marshal format version header.
+     * @throws IOException On write error
+     */
+    public void header() throws IOException {
+        this.out.write(4);
+        this.out.write(8);
+    }
+
+    /**
+     * Write array header, array items should be written by {@link #write(Object)}.
+     * @param size Array size
+     * @throws IOException On write error
+     */
+    public void array(final int size) throws IOException {
+        this.out.write('[');
+        this.number(size);
+        this.objects += 1;
+    }
+
+    /**
+     * Write value.
+     * @param value Value to write
+     * @throws IOException On write error or unsupported value type
+     * @checkstyle CyclomaticComplexityCheck (50 lines)
+     */
+    @SuppressWarnings("PMD.CyclomaticComplexity")
+    public void write(final Object value) throws IOException {
+        if (value == null) {
+            this.out.write('0');
+        } else if (value instanceof Boolean) {
+            if ((Boolean) value) {
+                this.out.write('T');
+            } else {
+                this.out.write('F');
+            }
+        } else if (value instanceof Integer || value instanceof Long) {
+            this.integer(((Number) value).longValue());
+        } else if (value instanceof String) {
+            this.string((String) value);
+        } else if (value instanceof MarshalSymbol) {
+            this.symbol((MarshalSymbol) value);
+        } else if (value instanceof GemVersion) {
+            this.version((GemVersion) value);
+        } else if (value instanceof SpecEntry) {
+            final SpecEntry entry = (SpecEntry) value;
+            this.array(3);
+            this.string(entry.name());
+            this.version(entry.version());
+            this.string(entry.platform());
+        } else if (value instanceof Collection) {
+            final Collection<?> items = (Collection<?>) value;
+            this.array(items.size());
+            for (final Object item : items) {
+                this.write(item);
+            }
+        } else if (value instanceof Map) {
+            final Map<?, ?> map = (Map<?, ?>) value;
+            this.out.write('{');
+            this.number(map.size());
+            this.objects += 1;
+            for (final Map.Entry<?, ?> item : map.entrySet()) {
+                this.write(item.getKey());
+                this.write(item.getValue());
+            }
+        } else {
+            throw new IOException(
+                String.format("Unsupported Marshal value type %s", value.getClass())
+            );
+        }
+    }
+
+    /**
+     * Write UTF-8 string or link to the same string written before.
+     * @param str String
+     * @throws IOException On write error
+     */
+    private void string(final String str) throws IOException {
+        final Integer link = this.strings.get(str);
+        if (link == null) {
+            this.strings.put(str, this.objects);
+            this.objects += 1;
+            this.out.write('I');
+            this.out.write('"');
+            this.bytes(str.getBytes(StandardCharsets.UTF_8));
+            this.number(1);
+            this.symbol(MarshalWriter.ENCODING);
+            this.out.write('T');
+        } else {
+            this.out.write('@');
+            this.number(link);
+        }
+    }
+
+    /**
+     * Write {@code Gem::Version} object.
+     * @param version Version
+     * @throws IOException On write error
+     */
+    private void version(final GemVersion version) throws IOException {
+        this.out.write('U');
+        this.symbol(MarshalWriter.VERSION);
+        this.objects += 1;
+        this.array(1);
+        this.string(version.string());
+    }
+
+    /**
+     * Write symbol or symbol link.
+     * @param sym Symbol
+     * @throws IOException On write error
+     */
+    private void symbol(final MarshalSymbol sym) throws IOException {
+        final Integer link = this.symbols.get(sym);
+        if (link == null) {
+            this.symbols.put(sym, this.symbols.size());
+            this.out.write(':');
+            this.bytes(sym.name().getBytes(StandardCharsets.UTF_8));
+        } else {
+            this.out.write(';');
+            this.number(link);
+        }
+    }
+
+    /**
+     * Write integer as fixnum or bignum.
+     * @param val Integer value
+     * @throws IOException On write error
+     * @checkstyle MagicNumberCheck (30 lines)
+     */
+    private void integer(final long val) throws IOException {
+        if (val >= MarshalWriter.MIN_FIXNUM && val <= MarshalWriter.MAX_FIXNUM) {
+            this.out.write('i');
+            this.number(val);
+        } else {
+            this.objects += 1;
+            this.out.write('l');
+            if (val < 0) {
+                this.out.write('-');
+            } else {
+                this.out.write('+');
+            }
+            final byte[] mag = BigInteger.valueOf(val).abs().toByteArray();
+            int start = 0;
+            while (start < mag.length - 1 && mag[start] == 0) {
+                start += 1;
+            }
+            final int len = mag.length - start;
+            final int shorts = (len + 1) / 2;
+            this.number(shorts);
+            for (int idx = 0; idx < shorts * 2; ++idx) {
+                final int pos = mag.length - 1 - idx;
+                if (pos >= start) {
+                    this.out.write(mag[pos]);
+                } else {
+                    this.out.write(0);
+                }
+            }
+        }
+    }
+
+    /**
+     * Write bytes prefixed with length.
+     * @param bytes Bytes
+     * @throws IOException On write error
+     */
+    private void bytes(final byte[] bytes) throws IOException {
+        this.number(bytes.length);
+        this.out.write(bytes);
+    }
+
+    /**
+     * Write Marshal packed long number.
+     * @param val Number
+     * @throws IOException On write error
+     * @checkstyle MagicNumberCheck (30 lines)
+     */
+    private void number(final long val) throws IOException {
+        if (val == 0) {
+            this.out.write(0);
+        } else if (val > 0 && val < 123) {
+            this.out.write((int) (val + 5));
+        } else if (val < 0 && val > -124) {
+            this.out.write((int) ((val - 5) & 0xff));
+        } else {
+            final byte[] buf = new byte[4];
+            long rest = val;
+            int len = 0;
+            while (len < buf.length) {
+                buf[len] = (byte) (rest & 0xff);
+                rest >>= 8;
+                len += 1;
+                if (val >= 0 && rest == 0 || val < 0 && rest == -1) {
+                    break;
+                }
+            }
+            if (val < 0) {
+                this.out.write(-len & 0xff);
+            } else {
+                this.out.write(len);
+            }
+            this.out.write(buf, 0, len);
+        }
+    }
+}
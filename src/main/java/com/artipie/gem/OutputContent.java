@@ -0,0 +1,260 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.Content;
+import io.reactivex.Flowable;
+import io.reactivex.schedulers.Schedulers;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import org.reactivestreams.Subscriber;
+
+/**
+ * Content written to output stream.
+ * <p>
+ * Source writes content on executor when content is subscribed. Written bytes are
+ * passed to subscriber in chunks through bounded queue, source blocks when subscriber
+ * is slower than source, so content is never held in memory as a whole. Source
+ * failure fails content, cancelled subscription stops the source on its next write.
+ * Executor threads are blocked by source and by waiting for chunks, so executor
+ * should not be shared with non-blocking code.
+ * </p>
+ * @since 1.0
+ */
+final class OutputContent implements Content {
+
+    /**
+     * Chunk size.
+     */
+    private static final int CHUNK = 64 * 1024;
+
+    /**
+     * Max number of chunks waiting for subscriber.
+     */
+    private static final int CHUNKS = 16;
+
+    /**
+     * Content source.
+     */
+    private final Source source;
+
+    /**
+     * Source executor.
+     */
+    private final Executor exec;
+
+    /**
+     * New content.
+     * @param source Content source
+     * @param exec Source executor
+     */
+    OutputContent(final Source source, final Executor exec) {
+        this.source = source;
+        this.exec = exec;
+    }
+
+    @Override
+    public Optional<Long> size() {
+        return Optional.empty();
+    }
+
+    @Override
+    public void subscribe(final Subscriber<? super ByteBuffer> subscriber) {
+        Flowable.using(
+            () -> {
+                final Pipe pipe = new Pipe();
+                this.exec.execute(() -> pipe.run(this.source));
+                return pipe;
+            },
+            pipe -> Flowable.<ByteBuffer>generate(
+                emitter -> {
+                    final ByteBuffer chunk = pipe.take();
+                    if (chunk != Pipe.END) {
+                        emitter.onNext(chunk);
+                    } else if (pipe.error == null) {
+                        emitter.onComplete();
+                    } else {
+                        emitter.onError(pipe.error);
+                    }
+                }
+            ),
+            Pipe::cancel
+        ).subscribeOn(Schedulers.from(this.exec)).subscribe(subscriber);
+    }
+
+    /**
+     * Content source.
+     * @since 1.0
+     */
+    @FunctionalInterface
+    interface Source {
+
+        /**
+         * Write content.
+         * @param out Output
+         * @throws IOException On error
+         */
+        void write(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Output stream passing written chunks to the queue.
+     * @since 1.0
+     */
+    private static final class Pipe extends OutputStream {
+
+        /**
+         * End of content marker.
+         */
+        private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+        /**
+         * Written chunks.
+         */
+        private final BlockingQueue<ByteBuffer> chunks;
+
+        /**
+         * Current chunk.
+         */
+        private final byte[] buf;
+
+        /**
+         * Number of bytes in current chunk.
+         */
+        private int len;
+
+        /**
+         * Subscription is cancelled.
+         */
+        private volatile boolean cancelled;
+
+        /**
+         * Source failure.
+         */
+        private volatile Throwable error;
+
+        /**
+         * New pipe.
+         */
+        Pipe() {
+            super();
+            this.chunks = new ArrayBlockingQueue<>(OutputContent.CHUNKS);
+            this.buf = new byte[OutputContent.CHUNK];
+        }
+
+        @Override
+        public void write(final int value) throws IOException {
+            if (this.len == this.buf.length) {
+                this.flush();
+            }
+            this.buf[this.len] = (byte) value;
+            this.len += 1;
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int off, final int size) throws IOException {
+            int pos = off;
+            final int end = off + size;
+            while (pos < end) {
+                if (this.len == this.buf.length) {
+                    this.flush();
+                }
+                final int part = Math.min(end - pos, this.buf.length - this.len);
+                System.arraycopy(bytes, pos, this.buf, this.len, part);
+                this.len += part;
+                pos += part;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (this.len > 0) {
+                this.put(ByteBuffer.wrap(Arrays.copyOf(this.buf, this.len)));
+                this.len = 0;
+            }
+        }
+
+        /**
+         * Write content by source and mark the end of content.
+         * @param source Content source
+         */
+        @SuppressWarnings("PMD.AvoidCatchingGenericException")
+        void run(final Source source) {
+            try {
+                source.write(this);
+                this.flush();
+                // @checkstyle IllegalCatchCheck (1 line)
+            } catch (final IOException | RuntimeException err) {
+                this.error = err;
+            }
+            try {
+                this.put(Pipe.END);
+            } catch (final IOException ignored) {
+                // subscription is cancelled, nobody waits for the end
+            }
+        }
+
+        /**
+         * Take next chunk, blocks until source writes it.
+         * @return Chunk or {@link #END}
+         * @throws InterruptedException If interrupted
+         */
+        ByteBuffer take() throws InterruptedException {
+            return this.chunks.take();
+        }
+
+        /**
+         * Stop source on its next write.
+         */
+        void cancel() {
+            this.cancelled = true;
+            this.chunks.clear();
+        }
+
+        /**
+         * Put chunk to the queue, blocks while queue is full.
+         * @param chunk Chunk
+         * @throws IOException If subscription is cancelled or interrupted
+         */
+        private void put(final ByteBuffer chunk) throws IOException {
+            try {
+                while (!this.chunks.offer(chunk, 100L, TimeUnit.MILLISECONDS)) {
+                    if (this.cancelled) {
+                        throw new IOException("Content subscription is cancelled");
+                    }
+                }
+            } catch (final InterruptedException err) {
+                Thread.currentThread().interrupt();
+                throw new IOException(err);
+            }
+        }
+    }
+}
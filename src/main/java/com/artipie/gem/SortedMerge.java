@@ -0,0 +1,141 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * K-way merge of sorted iterators.
+ * <p>
+ * Holds only the current item of each source, so sources can be streamed
+ * without loading them into memory. Equal items of different sources are
+ * returned once if merge is distinct.
+ * </p>
+ * @param <T> Item type
+ * @since 1.0
+ */
+final class SortedMerge<T extends Comparable<T>> implements Iterator<T> {
+
+    /**
+     * Current items of sources.
+     */
+    private final PriorityQueue<Head<T>> heads;
+
+    /**
+     * Skip equal items.
+     */
+    private final boolean distinct;
+
+    /**
+     * Last returned item.
+     */
+    private T last;
+
+    /**
+     * New merge.
+     * @param sources Sorted sources
+     * @param distinct Skip equal items
+     */
+    SortedMerge(final List<? extends Iterator<T>> sources, final boolean distinct) {
+        this.heads = new PriorityQueue<>(Math.max(1, sources.size()));
+        this.distinct = distinct;
+        sources.forEach(this::advance);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (this.distinct && this.last != null && !this.heads.isEmpty()
+            && this.heads.peek().item.compareTo(this.last) == 0) {
+            this.advance(this.heads.poll().source);
+        }
+        return !this.heads.isEmpty();
+    }
+
+    @Override
+    public T next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException("No more merged items");
+        }
+        final Head<T> head = this.heads.poll();
+        this.last = head.item;
+        this.advance(head.source);
+        return this.last;
+    }
+
+    /**
+     * Take next item of source.
+     * @param source Source
+     */
+    private void advance(final Iterator<T> source) {
+        if (source.hasNext()) {
+            this.heads.add(new Head<>(source.next(), source));
+        }
+    }
+
+    /**
+     * Current item of source.
+     * @param <T> Item type
+     * @since 1.0
+     */
+    private static final class Head<T extends Comparable<T>> implements Comparable<Head<T>> {
+
+        /**
+         * Item.
+         */
+        private final T item;
+
+        /**
+         * Source.
+         */
+        private final Iterator<T> source;
+
+        /**
+         * New head.
+         * @param item Item
+         * @param source Source
+         */
+        Head(final T item, final Iterator<T> source) {
+            this.item = item;
+            this.source = source;
+        }
+
+        @Override
+        public int compareTo(final Head<T> other) {
+            return this.item.compareTo(other.item);
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return this == other;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Specs index entry: {@code [name, Gem::Version, platform]} tuple.
+ * @since 1.0
+ */
+public final class SpecEntry implements Comparable<SpecEntry> {
+
+    /**
+     * Default gem platform.
+     */
+    public static final String RUBY = "ruby";
+
+    /**
+     * Gem name pattern, names are used in storage keys of gem files.
+     */
+    private static final Pattern NAME = Pattern.compile("^[A-Za-z0-9][A-Za-z0-9._-]*$");
+
+    /**
+     * Gem version pattern, as RubyGems accepts it.
+     */
+    private static final Pattern VERSION =
+        Pattern.compile("^[0-9]+(\\.[0-9A-Za-z]+)*(-[0-9A-Za-z-]+(\\.[0-9A-Za-z-]+)*)?$");
+
+    /**
+     * Gem platform pattern.
+     */
+    private static final Pattern PLATFORM = Pattern.compile("^[A-Za-z0-9][A-Za-z0-9._-]*$");
+
+    /**
+     * Gem name.
+     */
+    private final String nme;
+
+    /**
+     * Gem version.
+     */
+    private final GemVersion ver;
+
+    /**
+     * Gem platform.
+     */
+    private final String pfm;
+
+    /**
+     * New entry for default platform.
+     * @param name Gem name
+     * @param version Gem version
+     */
+    public SpecEntry(final String name, final String version) {
+        this(name, new GemVersion(version), SpecEntry.RUBY);
+    }
+
+    /**
+     * New entry.
+     * @param name Gem name
+     * @param version Gem version
+     * @param platform Gem platform
+     */
+    public SpecEntry(final String name, final GemVersion version, final String platform) {
+        this.nme = name;
+        this.ver = version;
+        this.pfm = platform;
+    }
+
+    /**
+     * Gem name.
+     * @return Name
+     */
+    public String name() {
+        return this.nme;
+    }
+
+    /**
+     * Gem version.
+     * @return Version
+     */
+    public GemVersion version() {
+        return this.ver;
+    }
+
+    /**
+     * Gem platform.
+     * @return Platform
+     */
+    public String platform() {
+        return this.pfm;
+    }
+
+    /**
+     * Full gem name as used for gem file names: {@code name-version[-platform]}.
+     * @return Full name
+     */
+    public String fullName() {
+        final String res;
+        if (SpecEntry.RUBY.equals(this.pfm)) {
+            res = String.format("%s-%s", this.nme, this.ver.string());
+        } else {
+            res = String.format("%s-%s-%s", this.nme, this.ver.string(), this.pfm);
+        }
+        return res;
+    }
+
+    @Override
+    public int compareTo(final SpecEntry other) {
+        int res = this.nme.compareTo(other.nme);
+        if (res == 0) {
+            res = this.ver.compareTo(other.ver);
+        }
+        if (res == 0) {
+            res = this.pfm.compareTo(other.pfm);
+        }
+        return res;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        final boolean res;
+        if (this == other) {
+            res = true;
+        } else if (other instanceof SpecEntry) {
+            final SpecEntry entry = (SpecEntry) other;
+            res = this.nme.equals(entry.nme) && this.ver.equals(entry.ver)
+                && this.pfm.equals(entry.pfm);
+        } else {
+            res = false;
+        }
+        return res;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.nme, this.ver, this.pfm);
+    }
+
+    @Override
+    public String toString() {
+        return this.fullName();
+    }
+
+    /**
+     * Check if gem name, version and platform match RubyGems patterns,
+     * so they are safe to be used in storage keys.
+     * @param name Gem name
+     * @param version Gem version
+     * @param platform Gem platform
+     * @return True if all of them are valid
+     */
+    public static boolean valid(final String name, final String version,
+        final String platform) {
+        return SpecEntry.NAME.matcher(name).matches()
+            && SpecEntry.VERSION.matcher(version).matches()
+            && SpecEntry.PLATFORM.matcher(platform).matches();
+    }
+}
@@ -0,0 +1,368 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.ArtipieIOException;
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.UnderLockOperation;
+import com.artipie.asto.ext.PublisherAs;
+import com.artipie.asto.lock.storage.StorageLock;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Specs index of gem repository storage.
+ * <p>
+ * Merges gem entries into {@code specs.4.8}, {@code latest_specs.4.8} and
+ * {@code prerelease_specs.4.8} keys (with gzipped copies) of storage root.
+ * Index keys are read and written directly in storage, index update is performed
+ * under {@link IndexLock} of specs key, which waits for updates of other adapter
+ * instances sharing the storage. Entity tags of index files are saved with files.
+ * </p>
+ * @since 1.0
+ */
+public final class SpecsIndex {
+
+    /**
+     * Specs key.
+     */
+    private static final Key SPECS = new Key.From("specs.4.8");
+
+    /**
+     * Latest specs key.
+     */
+    private static final Key LATEST = new Key.From("latest_specs.4.8");
+
+    /**
+     * Prerelease specs key.
+     */
+    private static final Key PRERELEASE = new Key.From("prerelease_specs.4.8");
+
+    /**
+     * Repository storage.
+     */
+    private final Storage storage;
+
+    /**
+     * New specs index.
+     * @param storage Repository storage
+     */
+    public SpecsIndex(final Storage storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * Add entries to index.
+     * <p>
+     * Existing entries of each specs file are read once and merged with sorted
+     * added entries in one pass, latest specs are computed from merged release
+     * entries in the same pass. Files without added entries are not rewritten.
+     * </p>
+     * @param entries Specs entries
+     * @return Completable action
+     */
+    public CompletionStage<Void> add(final Collection<SpecEntry> entries) {
+        final Set<SpecEntry> pre = new TreeSet<>();
+        final Set<SpecEntry> rel = new TreeSet<>();
+        for (final SpecEntry entry : entries) {
+            if (entry.version().prerelease()) {
+                pre.add(entry);
+            } else {
+                rel.add(entry);
+            }
+        }
+        return new UnderLockOperation<>(
+            new IndexLock(new StorageLock(this.storage, SpecsIndex.SPECS)),
+            sto -> SpecsIndex.rewrite(
+                sto, SpecsIndex.PRERELEASE, pre.isEmpty(),
+                existing -> SpecsIndex.merged(existing, pre)
+            ).thenCompose(
+                none -> SpecsIndex.rewrite(
+                    sto, SpecsIndex.SPECS, rel.isEmpty(),
+                    existing -> SpecsIndex.merged(existing, rel)
+                )
+            )
+        ).perform(this.storage);
+    }
+
+    /**
+     * Remove entry from index.
+     * <p>
+     * Prerelease entry is removed from prerelease specs. Release entry is removed
+     * from specs and latest specs are computed from remaining entries in the same
+     * pass, so previous release of the gem becomes latest.
+     * </p>
+     * @param entry Specs entry
+     * @return Completable action
+     */
+    public CompletionStage<Void> remove(final SpecEntry entry) {
+        final Key key;
+        if (entry.version().prerelease()) {
+            key = SpecsIndex.PRERELEASE;
+        } else {
+            key = SpecsIndex.SPECS;
+        }
+        return new UnderLockOperation<>(
+            new IndexLock(new StorageLock(this.storage, SpecsIndex.SPECS)),
+            sto -> SpecsIndex.rewrite(
+                sto, key, false,
+                existing -> SpecsIndex.merged(existing, Collections.emptySet()).filter(
+                    item -> !item.equals(entry)
+                )
+            )
+        ).perform(this.storage);
+    }
+
+    /**
+     * Rewrite specs file in one pass over its entries. Latest specs are
+     * written together with release specs.
+     * @param sto Storage
+     * @param key Specs key
+     * @param skip Skip rewrite if file exists
+     * @param func New entries by existing entries, both in specs order
+     * @return Completable action
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private static CompletionStage<Void> rewrite(final Storage sto, final Key key,
+        final boolean skip, final Function<Iterator<SpecEntry>, Stream<SpecEntry>> func) {
+        return sto.exists(key).thenCompose(
+            exists -> {
+                final CompletionStage<Void> res;
+                if (exists && skip) {
+                    res = CompletableFuture.completedFuture(null);
+                } else if (exists) {
+                    res = sto.value(key)
+                        .thenCompose(content -> new PublisherAs(content).bytes())
+                        .thenCompose(
+                            bytes -> SpecsIndex.write(
+                                sto, key,
+                                func.apply(
+                                    SpecsIndex.ordered(
+                                        new SpecsReader(new ByteArrayInputStream(bytes))
+                                    )
+                                )
+                            )
+                        );
+                } else {
+                    res = SpecsIndex.write(sto, key, func.apply(Collections.emptyIterator()));
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Write specs file and latest specs for release specs.
+     * @param sto Storage
+     * @param key Specs key
+     * @param entries Entries in specs order
+     * @return Completable action
+     */
+    private static CompletionStage<Void> write(final Storage sto, final Key key,
+        final Stream<SpecEntry> entries) {
+        final SpecsStream specs = new SpecsStream();
+        final CompletionStage<Void> res;
+        if (SpecsIndex.SPECS.equals(key)) {
+            final SpecsStream latest = new SpecsStream();
+            final LatestSpecs last = new LatestSpecs(latest);
+            entries.forEach(specs.andThen(last));
+            last.finish();
+            res = SpecsIndex.save(sto, key, specs.bytes())
+                .thenCompose(none -> SpecsIndex.save(sto, SpecsIndex.LATEST, latest.bytes()));
+        } else {
+            entries.forEach(specs);
+            res = SpecsIndex.save(sto, key, specs.bytes());
+        }
+        return res;
+    }
+
+    /**
+     * Distinct existing and added entries in specs order.
+     * @param existing Existing entries in specs order
+     * @param added Added entries in specs order
+     * @return Merged entries
+     */
+    private static Stream<SpecEntry> merged(final Iterator<SpecEntry> existing,
+        final Set<SpecEntry> added) {
+        return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(
+                new SortedMerge<>(Arrays.asList(existing, added.iterator()), true),
+                Spliterator.ORDERED
+            ),
+            false
+        );
+    }
+
+    /**
+     * Entries of specs file in specs order.
+     * <p>
+     * Files written by RubyGems indexer are sorted by gem names, but versions and
+     * platforms of a gem are not in specs order, e.g. {@code ruby} platform goes before
+     * other platforms of the same version. Entries are read once, entries of each gem
+     * are collected into sorted set, which also removes duplicates, so only entries of
+     * one gem are held in memory.
+     * </p>
+     * @param specs Entries of specs file sorted by gem names
+     * @return Entries in specs order without duplicates
+     */
+    static Iterator<SpecEntry> ordered(final Iterator<SpecEntry> specs) {
+        return new Ordered(specs);
+    }
+
+    /**
+     * Save specs file and its gzipped copy with entity tags.
+     * @param sto Storage
+     * @param key Specs key
+     * @param bytes Specs file
+     * @return Completable action
+     */
+    private static CompletionStage<Void> save(final Storage sto, final Key key,
+        final byte[] bytes) {
+        final Key gzkey = new Key.From(String.format("%s.gz", key.string()));
+        final byte[] gzip = SpecsIndex.gzip(bytes);
+        final StoredEtag etag = new StoredEtag(sto);
+        return sto.save(key, new Content.From(bytes))
+            .thenCompose(none -> etag.save(key, bytes))
+            .thenCompose(none -> sto.save(gzkey, new Content.From(gzip)))
+            .thenCompose(none -> etag.save(gzkey, gzip));
+    }
+
+    /**
+     * Gzip bytes.
+     * @param bytes Bytes
+     * @return Gzipped bytes
+     */
+    static byte[] gzip(final byte[] bytes) {
+        final ByteArrayOutputStream res = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(res)) {
+            out.write(bytes);
+        } catch (final IOException err) {
+            throw new ArtipieIOException(err);
+        }
+        return res.toByteArray();
+    }
+
+    /**
+     * Entries in specs order, sorted by gems.
+     * @since 1.0
+     */
+    private static final class Ordered implements Iterator<SpecEntry> {
+
+        /**
+         * Entries sorted by gem names.
+         */
+        private final Iterator<SpecEntry> origin;
+
+        /**
+         * Sorted entries of current gem.
+         */
+        private Iterator<SpecEntry> gem;
+
+        /**
+         * First entry of the next gem.
+         */
+        private SpecEntry next;
+
+        /**
+         * Name of current gem.
+         */
+        private String name;
+
+        /**
+         * New entries in specs order.
+         * @param origin Entries sorted by gem names
+         */
+        Ordered(final Iterator<SpecEntry> origin) {
+            this.origin = origin;
+            this.gem = Collections.emptyIterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!this.gem.hasNext()) {
+                this.read();
+            }
+            return this.gem.hasNext();
+        }
+
+        @Override
+        public SpecEntry next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return this.gem.next();
+        }
+
+        /**
+         * Read entries of the next gem.
+         */
+        private void read() {
+            if (this.next == null && this.origin.hasNext()) {
+                this.next = this.origin.next();
+            }
+            if (this.next != null) {
+                if (this.name != null && this.name.compareTo(this.next.name()) >= 0) {
+                    throw new ArtipieIOException(
+                        String.format(
+                            "Specs file is not sorted by gem names: %s after %s",
+                            this.next.name(), this.name
+                        )
+                    );
+                }
+                this.name = this.next.name();
+                final Set<SpecEntry> entries = new TreeSet<>();
+                entries.add(this.next);
+                this.next = null;
+                while (this.next == null && this.origin.hasNext()) {
+                    final SpecEntry entry = this.origin.next();
+                    if (entry.name().equals(this.name)) {
+                        entries.add(entry);
+                    } else {
+                        this.next = entry;
+                    }
+                }
+                this.gem = entries.iterator();
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.ArtipieIOException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Streaming reader of specs index file ({@code specs.4.8}, {@code latest_specs.4.8},
+ * {@code prerelease_specs.4.8}), iterates specs entries one by one.
+ * @since 1.0
+ */
+public final class SpecsReader implements Iterator<SpecEntry> {
+
+    /**
+     * Marshal reader.
+     */
+    private final MarshalReader marshal;
+
+    /**
+     * Entries left to read, negative if header was not read yet.
+     */
+    private int left;
+
+    /**
+     * New specs reader.
+     * @param input Input stream, should be buffered
+     */
+    public SpecsReader(final InputStream input) {
+        this.marshal = new MarshalReader(input);
+        this.left = -1;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (this.left < 0) {
+            try {
+                this.marshal.header();
+                this.left = this.marshal.array();
+            } catch (final IOException err) {
+                throw new ArtipieIOException(err);
+            }
+        }
+        return this.left > 0;
+    }
+
+    @Override
+    public SpecEntry next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException("No more specs entries");
+        }
+        this.left -= 1;
+        final Object item;
+        try {
+            item = this.marshal.read();
+        } catch (final IOException err) {
+            throw new ArtipieIOException(err);
+        }
+        if (!(item instanceof List) || ((List<?>) item).size() != 3
+            || !(((List<?>) item).get(1) instanceof GemVersion)) {
+            throw new ArtipieIOException(String.format("Invalid specs entry: %s", item));
+        }
+        final List<?> tuple = (List<?>) item;
+        return new SpecEntry(
+            String.valueOf(tuple.get(0)), (GemVersion) tuple.get(1), String.valueOf(tuple.get(2))
+        );
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.ArtipieIOException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.Consumer;
+
+/**
+ * Streaming writer of specs index file with number of entries unknown in advance.
+ * <p>
+ * Entries are Marshal encoded into buffer as they are accepted, so entries
+ * are never collected as objects. Marshal array header with number of entries
+ * is written before the buffer when file bytes are requested.
+ * </p>
+ * @since 1.0
+ */
+final class SpecsStream implements Consumer<SpecEntry> {
+
+    /**
+     * Encoded entries.
+     */
+    private final ByteArrayOutputStream buffer;
+
+    /**
+     * Entries writer.
+     */
+    private final MarshalWriter marshal;
+
+    /**
+     * Number of entries.
+     */
+    private int count;
+
+    /**
+     * New specs stream.
+     */
+    SpecsStream() {
+        this.buffer = new ByteArrayOutputStream();
+        this.marshal = new MarshalWriter(this.buffer);
+        try {
+            this.marshal.array(0);
+        } catch (final IOException err) {
+            throw new ArtipieIOException(err);
+        }
+        // array header is written by bytes(), writer only counts array object for links
+        this.buffer.reset();
+    }
+
+    @Override
+    public void accept(final SpecEntry entry) {
+        try {
+            this.marshal.write(entry);
+        } catch (final IOException err) {
+            throw new ArtipieIOException(err);
+        }
+        this.count += 1;
+    }
+
+    /**
+     * Specs file bytes.
+     * @return Marshal array of accepted entries
+     */
+    byte[] bytes() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(this.buffer.size() + 8);
+        try {
+            this.writeTo(out);
+        } catch (final IOException err) {
+            throw new ArtipieIOException(err);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Write specs file to output stream.
+     * @param out Output stream
+     * @throws IOException On write error
+     */
+    void writeTo(final OutputStream out) throws IOException {
+        final MarshalWriter header = new MarshalWriter(out);
+        header.header();
+        header.array(this.count);
+        this.buffer.writeTo(out);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+
+/**
+ * Writer of specs index file, writes sorted specs entries as Marshal array.
+ * @since 1.0
+ * @deprecated Specs files are written by {@link SpecsIndex}
+ */
+@Deprecated
+public final class SpecsWriter {
+
+    /**
+     * Output stream.
+     */
+    private final OutputStream out;
+
+    /**
+     * New specs writer.
+     * @param out Output stream, should be buffered
+     */
+    public SpecsWriter(final OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Write entries.
+     * @param entries Specs entries in index order
+     * @throws IOException On write error
+     */
+    public void write(final Collection<SpecEntry> entries) throws IOException {
+        final MarshalWriter marshal = new MarshalWriter(this.out);
+        marshal.header();
+        marshal.array(entries.size());
+        for (final SpecEntry entry : entries) {
+            marshal.write(entry);
+        }
+        this.out.flush();
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ext.Digests;
+import com.artipie.asto.ext.PublisherAs;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import org.apache.commons.codec.binary.Hex;
+
+/**
+ * Strong entity tag of storage item, stored in {@code .meta/<key>.etag} key.
+ * <p>
+ * Entity tag is computed once when item is written, sidecar contains quoted entity tag
+ * and last modification time in HTTP date format, one per line. Sidecars are kept
+ * under reserved {@code .meta} prefix, so they are not listed with items and are not
+ * served as repository files.
+ * </p>
+ * @since 1.0
+ */
+public final class StoredEtag {
+
+    /**
+     * Reserved prefix of sidecar keys.
+     */
+    public static final Key PREFIX = new Key.From(".meta");
+
+    /**
+     * Sidecar key suffix.
+     */
+    public static final String SUFFIX = ".etag";
+
+    /**
+     * Repository storage.
+     */
+    private final Storage storage;
+
+    /**
+     * New stored entity tag.
+     * @param storage Repository storage
+     */
+    public StoredEtag(final Storage storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * Save entity tag of item content as MD5 of content.
+     * @param key Item key
+     * @param content Item content
+     * @return Completable action
+     */
+    public CompletionStage<Void> save(final Key key, final byte[] content) {
+        return this.save(key, Hex.encodeHexString(Digests.MD5.get().digest(content)));
+    }
+
+    /**
+     * Save entity tag of item.
+     * @param key Item key
+     * @param digest Hex digest of item content
+     * @return Completable action
+     */
+    public CompletionStage<Void> save(final Key key, final String digest) {
+        return this.storage.save(
+            StoredEtag.sidecar(key),
+            new Content.From(
+                String.format(
+                    "\"%s\"\n%s\n", digest,
+                    DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                        Instant.now().truncatedTo(ChronoUnit.SECONDS).atOffset(ZoneOffset.UTC)
+                    )
+                ).getBytes(StandardCharsets.UTF_8)
+            )
+        );
+    }
+
+    /**
+     * Read entity tag of item.
+     * @param key Item key
+     * @return Future with entity tag if it was saved
+     */
+    public CompletionStage<Optional<Tag>> read(final Key key) {
+        final Key sidecar = StoredEtag.sidecar(key);
+        return this.storage.exists(sidecar).thenCompose(
+            exists -> {
+                final CompletionStage<Optional<Tag>> res;
+                if (exists) {
+                    res = this.storage.value(sidecar)
+                        .thenCompose(
+                            content -> new PublisherAs(content).string(StandardCharsets.UTF_8)
+                        ).thenApply(
+                            text -> {
+                                final String[] lines = text.split("\n");
+                                return Optional.of(new Tag(lines[0], lines[1]));
+                            }
+                        );
+                } else {
+                    res = CompletableFuture.completedFuture(Optional.empty());
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Delete entity tag of item.
+     * @param key Item key
+     * @return Completable action
+     */
+    public CompletionStage<Void> delete(final Key key) {
+        final Key sidecar = StoredEtag.sidecar(key);
+        return this.storage.exists(sidecar).thenCompose(
+            exists -> {
+                final CompletionStage<Void> res;
+                if (exists) {
+                    res = this.storage.delete(sidecar);
+                } else {
+                    res = CompletableFuture.completedFuture(null);
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Sidecar key of item.
+     * @param key Item key
+     * @return Key of {@code .meta/<key>.etag}
+     */
+    public static Key sidecar(final Key key) {
+        return new Key.From(
+            StoredEtag.PREFIX, String.format("%s%s", key.string(), StoredEtag.SUFFIX)
+        );
+    }
+
+    /**
+     * Check if key is under reserved sidecars prefix.
+     * @param key Key
+     * @return True for sidecar keys
+     */
+    public static boolean reserved(final Key key) {
+        return key.string().startsWith(String.format("%s/", StoredEtag.PREFIX.string()));
+    }
+
+    /**
+     * Entity tag with last modification time.
+     * @since 1.0
+     */
+    public static final class Tag {
+
+        /**
+         * Quoted entity tag.
+         */
+        private final String etag;
+
+        /**
+         * Last modification time, HTTP date.
+         */
+        private final String modified;
+
+        /**
+         * New tag.
+         * @param etag Quoted entity tag
+         * @param modified Last modification time, HTTP date
+         */
+        public Tag(final String etag, final String modified) {
+            this.etag = etag;
+            this.modified = modified;
+        }
+
+        /**
+         * Quoted entity tag.
+         * @return Entity tag, e.g. {@code "d41d8cd98f00b204e9800998ecf8427e"}
+         */
+        public String etag() {
+            return this.etag;
+        }
+
+        /**
+         * Last modification time.
+         * @return HTTP date, e.g. {@code Tue, 3 Jun 2008 11:05:30 GMT}
+         */
+        public String modified() {
+            return this.modified;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ext.PublisherAs;
+import java.io.ByteArrayInputStream;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of gem versions by gem name.
+ * <p>
+ * Index is loaded from {@code specs.4.8} and {@code prerelease_specs.4.8}
+ * on first lookup, after that it's updated with entries of indexed gems.
+ * </p>
+ * @since 1.0
+ */
+final class VersionsIndex {
+
+    /**
+     * Specs keys to load versions from.
+     */
+    private static final List<Key> SPECS = Stream.of("specs.4.8", "prerelease_specs.4.8")
+        .map(Key.From::new).collect(Collectors.toList());
+
+    /**
+     * Repository storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Loaded index, null if not loaded yet.
+     */
+    private final AtomicReference<CompletableFuture<ConcurrentMap<String, NavigableSet<SpecEntry>>>>
+        cache;
+
+    /**
+     * New versions index.
+     * @param storage Repository storage
+     */
+    VersionsIndex(final Storage storage) {
+        this.storage = storage;
+        this.cache = new AtomicReference<>();
+    }
+
+    /**
+     * Newest version of gem, release versions are preferred over prerelease.
+     * @param name Gem name
+     * @return Future with specs entry if gem is known
+     */
+    CompletionStage<Optional<SpecEntry>> latest(final String name) {
+        return this.index().thenApply(
+            map -> Optional.ofNullable(map.get(name)).flatMap(VersionsIndex::newest)
+        );
+    }
+
+    /**
+     * Add indexed gems entries, if index is not loaded yet
+     * they will be read from specs on load.
+     * @param entries Specs entries
+     */
+    void add(final Collection<SpecEntry> entries) {
+        final CompletableFuture<ConcurrentMap<String, NavigableSet<SpecEntry>>> loaded =
+            this.cache.get();
+        if (loaded != null) {
+            loaded.thenAccept(map -> entries.forEach(entry -> VersionsIndex.put(map, entry)));
+        }
+    }
+
+    /**
+     * Remove yanked gem entry, if index is not loaded yet
+     * it will be read from specs without it on load.
+     * @param entry Specs entry
+     */
+    void remove(final SpecEntry entry) {
+        final CompletableFuture<ConcurrentMap<String, NavigableSet<SpecEntry>>> loaded =
+            this.cache.get();
+        if (loaded != null) {
+            loaded.thenAccept(
+                map -> Optional.ofNullable(map.get(entry.name()))
+                    .ifPresent(versions -> versions.remove(entry))
+            );
+        }
+    }
+
+    /**
+     * Loaded index.
+     * @return Future with versions by name
+     */
+    private CompletableFuture<ConcurrentMap<String, NavigableSet<SpecEntry>>> index() {
+        CompletableFuture<ConcurrentMap<String, NavigableSet<SpecEntry>>> res = this.cache.get();
+        if (res == null) {
+            final CompletableFuture<ConcurrentMap<String, NavigableSet<SpecEntry>>> load =
+                new CompletableFuture<>();
+            if (this.cache.compareAndSet(null, load)) {
+                this.load().whenComplete(
+                    (map, err) -> {
+                        if (err == null) {
+                            load.complete(map);
+                        } else {
+                            this.cache.compareAndSet(load, null);
+                            load.completeExceptionally(err);
+                        }
+                    }
+                );
+                res = load;
+            } else {
+                res = this.cache.get();
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Load index from specs.
+     * @return Future with versions by name
+     */
+    private CompletableFuture<ConcurrentMap<String, NavigableSet<SpecEntry>>> load() {
+        final ConcurrentMap<String, NavigableSet<SpecEntry>> map = new ConcurrentHashMap<>();
+        return CompletableFuture.allOf(
+            VersionsIndex.SPECS.stream().map(
+                key -> this.storage.exists(key).thenCompose(
+                    exists -> {
+                        final CompletionStage<Void> res;
+                        if (exists) {
+                            res = this.storage.value(key)
+                                .thenCompose(content -> new PublisherAs(content).bytes())
+                                .thenAccept(
+                                    bytes -> new SpecsReader(new ByteArrayInputStream(bytes))
+                                        .forEachRemaining(entry -> VersionsIndex.put(map, entry))
+                                );
+                        } else {
+                            res = CompletableFuture.completedFuture(null);
+                        }
+                        return res;
+                    }
+                )
+            ).toArray(CompletableFuture<?>[]::new)
+        ).thenApply(none -> map);
+    }
+
+    /**
+     * Put entry to index.
+     * @param map Versions by name
+     * @param entry Specs entry
+     */
+    private static void put(final ConcurrentMap<String, NavigableSet<SpecEntry>> map,
+        final SpecEntry entry) {
+        map.computeIfAbsent(entry.name(), name -> new ConcurrentSkipListSet<>()).add(entry);
+    }
+
+    /**
+     * Newest entry, release versions are preferred over prerelease.
+     * @param versions Gem versions
+     * @return Newest entry if any
+     */
+    private static Optional<SpecEntry> newest(final NavigableSet<SpecEntry> versions) {
+        SpecEntry res = null;
+        final Iterator<SpecEntry> iter = versions.descendingIterator();
+        while (iter.hasNext()) {
+            final SpecEntry entry = iter.next();
+            if (res == null) {
+                res = entry;
+            }
+            if (!entry.version().prerelease()) {
+                res = entry;
+                break;
+            }
+        }
+        return Optional.ofNullable(res);
+    }
+}
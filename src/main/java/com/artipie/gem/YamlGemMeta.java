@@ -0,0 +1,324 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.ArtipieIOException;
+import io.reactivex.Flowable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
+import org.reactivestreams.Publisher;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.nodes.Tag;
+
+/**
+ * Java implementation of gem metadata parser.
+ * <p>
+ * Reads {@code metadata.gz} entry of gem archive and parses gemspec YAML
+ * without Ruby runtime. Ruby object tags are not constructed, gemspec
+ * is printed as a tree of string values.
+ * </p>
+ * @since 1.0
+ */
+public final class YamlGemMeta implements GemMeta {
+
+    @Override
+    public GemMeta.MetaInfo info(final Path gem) {
+        final GemArchive archive = new GemArchive();
+        try (InputStream input = Files.newInputStream(gem)) {
+            final byte[] buf = new byte[8192];
+            int read = input.read(buf);
+            while (read >= 0 && !archive.done()) {
+                archive.accept(ByteBuffer.wrap(buf, 0, read));
+                read = input.read(buf);
+            }
+        } catch (final IOException err) {
+            throw new ArtipieIOException(err);
+        }
+        return YamlGemMeta.parse(archive.gemspec());
+    }
+
+    /**
+     * Extract gem info from gem archive content.
+     * Content is consumed only until metadata entry is read.
+     * @param gem Gem archive content
+     * @return Future with gem info
+     */
+    public CompletionStage<GemMeta.MetaInfo> info(final Publisher<ByteBuffer> gem) {
+        return YamlGemMeta.gemspec(gem).thenApply(YamlGemMeta::parse);
+    }
+
+    /**
+     * Extract gemspec YAML from gem archive content.
+     * Content is consumed only until metadata entry is read.
+     * @param gem Gem archive content
+     * @return Future with gemspec YAML
+     */
+    public static CompletionStage<String> gemspec(final Publisher<ByteBuffer> gem) {
+        final CompletableFuture<String> res = new CompletableFuture<>();
+        final GemArchive archive = new GemArchive();
+        Flowable.fromPublisher(gem)
+            .doOnNext(archive::accept)
+            .takeWhile(buf -> !archive.done())
+            .ignoreElements()
+            .toSingle(archive::gemspec)
+            .subscribe(res::complete, res::completeExceptionally);
+        return res;
+    }
+
+    /**
+     * Parse gemspec YAML.
+     * @param yaml Gemspec YAML
+     * @return Gem info
+     */
+    public static GemMeta.MetaInfo parse(final String yaml) {
+        final Node root = new Yaml().compose(new StringReader(yaml));
+        if (!(root instanceof MappingNode)) {
+            throw new ArtipieIOException("Invalid gemspec YAML");
+        }
+        return new YamlMetaInfo((MappingNode) root);
+    }
+
+    /**
+     * Scalar value of node.
+     * @param node YAML node
+     * @return Value string
+     */
+    private static String scalar(final Node node) {
+        final String res;
+        if (node instanceof ScalarNode) {
+            res = ((ScalarNode) node).getValue();
+        } else if (node instanceof MappingNode) {
+            res = YamlGemMeta.fields((MappingNode) node).entrySet().stream()
+                .filter(item -> "version".equals(item.getKey()))
+                .map(item -> YamlGemMeta.scalar(item.getValue()))
+                .findFirst().orElse("");
+        } else {
+            res = "";
+        }
+        return res;
+    }
+
+    /**
+     * Requirement string, e.g. {@code >= 1.0, < 2}.
+     * @param node Gem::Requirement YAML node
+     * @return Requirement
+     */
+    private static String requirement(final Node node) {
+        final List<String> items = new ArrayList<>(1);
+        final Node reqs = YamlGemMeta.fields((MappingNode) node).get("requirements");
+        if (reqs instanceof SequenceNode) {
+            for (final Node req : ((SequenceNode) reqs).getValue()) {
+                if (req instanceof SequenceNode) {
+                    items.add(
+                        ((SequenceNode) req).getValue().stream()
+                            .map(YamlGemMeta::scalar)
+                            .collect(Collectors.joining(" "))
+                    );
+                }
+            }
+        }
+        return String.join(", ", items);
+    }
+
+    /**
+     * Mapping node fields by name.
+     * @param node Mapping node
+     * @return Fields map
+     */
+    private static Map<String, Node> fields(final MappingNode node) {
+        final Map<String, Node> res = new LinkedHashMap<>();
+        for (final NodeTuple tuple : node.getValue()) {
+            res.put(YamlGemMeta.scalar(tuple.getKeyNode()), tuple.getValueNode());
+        }
+        return res;
+    }
+
+    /**
+     * Check if node has Ruby object tag of given class.
+     * @param node YAML node
+     * @param cls Ruby class name
+     * @return True if tagged
+     */
+    private static boolean tagged(final Node node, final String cls) {
+        return node.getTag().getValue().endsWith(String.format(":%s", cls));
+    }
+
+    /**
+     * Gem info backed by gemspec YAML mapping node.
+     * @since 1.0
+     */
+    private static final class YamlMetaInfo implements GemMeta.MetaInfo {
+
+        /**
+         * YAML mapping.
+         */
+        private final MappingNode node;
+
+        /**
+         * New meta info.
+         * @param node YAML mapping
+         */
+        YamlMetaInfo(final MappingNode node) {
+            this.node = node;
+        }
+
+        @Override
+        public void print(final GemMeta.MetaFormat fmt) {
+            for (final Map.Entry<String, Node> field : YamlGemMeta.fields(this.node).entrySet()) {
+                final String name = field.getKey();
+                final Node value = field.getValue();
+                if (value instanceof ScalarNode) {
+                    if (!Tag.NULL.equals(value.getTag())) {
+                        fmt.print(name, YamlGemMeta.scalar(value));
+                    }
+                } else if (value instanceof MappingNode) {
+                    YamlMetaInfo.mapping(fmt, name, (MappingNode) value);
+                } else if (value instanceof SequenceNode) {
+                    YamlMetaInfo.sequence(fmt, name, (SequenceNode) value);
+                }
+            }
+        }
+
+        /**
+         * Print mapping value.
+         * @param fmt Format
+         * @param name Field name
+         * @param value Mapping node
+         */
+        private static void mapping(final GemMeta.MetaFormat fmt, final String name,
+            final MappingNode value) {
+            if (YamlGemMeta.tagged(value, "Gem::Version")) {
+                fmt.print(name, YamlGemMeta.scalar(value));
+            } else if (YamlGemMeta.tagged(value, "Gem::Requirement")) {
+                fmt.print(name, YamlGemMeta.requirement(value));
+            } else {
+                fmt.print(name, new YamlMetaInfo(value));
+            }
+        }
+
+        /**
+         * Print sequence value: scalars are joined into string,
+         * dependencies are grouped by type.
+         * @param fmt Format
+         * @param name Field name
+         * @param value Sequence node
+         */
+        private static void sequence(final GemMeta.MetaFormat fmt, final String name,
+            final SequenceNode value) {
+            final List<Node> items = value.getValue();
+            if (!items.isEmpty()) {
+                if (items.stream().allMatch(ScalarNode.class::isInstance)) {
+                    fmt.print(
+                        name,
+                        items.stream().map(YamlGemMeta::scalar).collect(Collectors.joining(", "))
+                    );
+                } else if (
+                    items.stream().allMatch(item -> YamlGemMeta.tagged(item, "Gem::Dependency"))
+                ) {
+                    fmt.print(name, new DependenciesInfo(items));
+                } else {
+                    fmt.print(
+                        name,
+                        inner -> {
+                            for (int idx = 0; idx < items.size(); ++idx) {
+                                final Node item = items.get(idx);
+                                if (item instanceof MappingNode) {
+                                    inner.print(
+                                        String.valueOf(idx), new YamlMetaInfo((MappingNode) item)
+                                    );
+                                } else {
+                                    inner.print(String.valueOf(idx), YamlGemMeta.scalar(item));
+                                }
+                            }
+                        }
+                    );
+                }
+            }
+        }
+    }
+
+    /**
+     * Dependencies info, prints {@code runtime} and {@code development}
+     * groups of dependency requirements by dependency name.
+     * @since 1.0
+     */
+    private static final class DependenciesInfo implements GemMeta.MetaInfo {
+
+        /**
+         * Gem::Dependency YAML nodes.
+         */
+        private final List<Node> deps;
+
+        /**
+         * New dependencies info.
+         * @param deps Dependency nodes
+         */
+        DependenciesInfo(final List<Node> deps) {
+            this.deps = deps;
+        }
+
+        @Override
+        public void print(final GemMeta.MetaFormat fmt) {
+            final Map<String, Map<String, String>> groups = new LinkedHashMap<>();
+            for (final Node dep : this.deps) {
+                final Map<String, Node> fields = YamlGemMeta.fields((MappingNode) dep);
+                String type = YamlGemMeta.scalar(fields.get("type"));
+                if (type.startsWith(":")) {
+                    type = type.substring(1);
+                }
+                final Node req = fields.get("requirement");
+                final String requirement;
+                if (req instanceof MappingNode) {
+                    requirement = YamlGemMeta.requirement(req);
+                } else {
+                    requirement = "";
+                }
+                groups.computeIfAbsent(type, key -> new LinkedHashMap<>())
+                    .put(YamlGemMeta.scalar(fields.get("name")), requirement);
+            }
+            for (final Map.Entry<String, Map<String, String>> group : groups.entrySet()) {
+                fmt.print(
+                    group.getKey(),
+                    inner -> group.getValue().forEach(inner::print)
+                );
+            }
+        }
+    }
+}
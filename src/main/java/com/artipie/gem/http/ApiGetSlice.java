@@ -30,9 +30,16 @@ import com.artipie.http.Response;
 import com.artipie.http.Slice;
 import com.artipie.http.async.AsyncResponse;
 import com.artipie.http.rq.RequestLineFrom;
-import com.artipie.http.rs.common.RsJson;
+import com.artipie.http.headers.ContentType;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.RsWithBody;
+import com.artipie.http.rs.RsWithHeaders;
+import com.artipie.http.rs.RsWithStatus;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.json.Json;
@@ -47,6 +54,12 @@ import org.reactivestreams.Publisher;
  * <a href="https://guides.rubygems.org/rubygems-org-api">RubyGems API</a>
  * for documentation.
  * </p>
+ * <p>
+ * Rendered responses are kept in size-bounded LRU cache for the newest
+ * gem version, cache entry is rendered again when newer version is indexed.
+ * Response is rendered from the same gem version it is cached for.
+ * Unknown gems are not found.
+ * </p>
  *
  * @since 0.2
  */
@@ -58,17 +71,45 @@ public final class ApiGetSlice implements Slice {
     public static final Pattern PATH_PATTERN = Pattern
         .compile("/api/v1/gems/([\\w\\d-]+).(json|yml)");
 
+    /**
+     * Default number of cached gems.
+     */
+    private static final int CACHE_SIZE = 1024;
+
     /**
      * Gem SDK.
      */
     private final Gem sdk;
 
+    /**
+     * Rendered responses cache.
+     */
+    private final InfoCache cache;
+
     /**
      * New slice for handling Get API requests.
      * @param storage Gems storage
      */
     public ApiGetSlice(final Storage storage) {
-        this.sdk = new Gem(storage);
+        this(new Gem(storage));
+    }
+
+    /**
+     * New slice for handling Get API requests.
+     * @param sdk Gem SDK
+     */
+    public ApiGetSlice(final Gem sdk) {
+        this(sdk, ApiGetSlice.CACHE_SIZE);
+    }
+
+    /**
+     * New slice for handling Get API requests.
+     * @param sdk Gem SDK
+     * @param size Max number of gems with cached responses
+     */
+    public ApiGetSlice(final Gem sdk, final int size) {
+        this.sdk = sdk;
+        this.cache = new InfoCache(size);
     }
 
     @Override
@@ -79,14 +120,36 @@ public final class ApiGetSlice implements Slice {
         if (!matcher.find()) {
             throw new IllegalStateException("Invalid routing schema");
         }
+        final String name = matcher.group(1);
+        final String format = matcher.group(2);
         return new AsyncResponse(
-            this.sdk.info(matcher.group(1)).thenApply(
-                info -> {
-                    final JsonObjectBuilder json = Json.createObjectBuilder();
-                    info.print(new JsonMetaFormat(json));
-                    return json.build();
-                }
-            ).thenApply(json -> new RsJson(json))
+            this.sdk.latest(name).thenCompose(
+                latest -> latest.<CompletionStage<Response>>map(
+                    version -> this.cache.get(name, version, format)
+                        .<CompletionStage<byte[]>>map(CompletableFuture::completedFuture)
+                        .orElseGet(
+                            () -> this.sdk.info(version).thenApply(
+                                info -> {
+                                    final JsonObjectBuilder json = Json.createObjectBuilder();
+                                    info.print(new JsonMetaFormat(json));
+                                    final byte[] bytes = json.build().toString()
+                                        .getBytes(StandardCharsets.UTF_8);
+                                    this.cache.put(name, version, format, bytes);
+                                    return bytes;
+                                }
+                            )
+                        ).thenApply(
+                            bytes -> new RsWithHeaders(
+                                new RsWithBody(new RsWithStatus(RsStatus.OK), bytes),
+                                new ContentType("application/json; charset=UTF-8")
+                            )
+                        )
+                ).orElseGet(
+                    () -> CompletableFuture.completedFuture(
+                        new RsWithStatus(RsStatus.NOT_FOUND)
+                    )
+                )
+            )
         );
     }
 }
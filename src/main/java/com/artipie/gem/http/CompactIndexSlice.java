@@ -0,0 +1,67 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.asto.Storage;
+import com.artipie.http.Slice;
+import com.artipie.http.rs.RsWithHeaders;
+import com.artipie.http.slice.SliceDownload;
+import java.util.regex.Pattern;
+
+/**
+ * Bundler compact index slice.
+ * <p>
+ * Handles {@code GET /versions}, {@code GET /names} and {@code GET /info/[GEM NAME]}.
+ * Responses have MD5 {@code ETag} of the file saved on index update, as Bundler expects,
+ * requests with matching {@code If-None-Match} get {@code 304 Not Modified}.
+ * Range requests are answered with whole file, which Bundler accepts as full
+ * update of its local copy. Clients accepting gzip get stored
+ * gzipped copy of the file with weak entity tag of the plain file, Bundler strips
+ * weak prefix and compares the tag with MD5 of decoded file.
+ * </p>
+ * @since 1.0
+ */
+public final class CompactIndexSlice extends Slice.Wrap {
+
+    /**
+     * Endpoint path pattern.
+     */
+    public static final Pattern PATH_PATTERN = Pattern.compile("^/(versions|names|info/[^/]+)$");
+
+    /**
+     * New compact index slice.
+     * @param storage Repository storage
+     */
+    public CompactIndexSlice(final Storage storage) {
+        super(
+            new GzipSlice(
+                storage,
+                (line, headers, body) -> new RsWithHeaders(
+                    new SliceDownload(storage).response(line, headers, body),
+                    "Content-Type", "text/plain; charset=utf-8"
+                )
+            )
+        );
+    }
+}
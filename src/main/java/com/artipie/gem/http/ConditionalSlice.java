@@ -0,0 +1,190 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.gem.StoredEtag;
+import com.artipie.http.Headers;
+import com.artipie.http.Response;
+import com.artipie.http.Slice;
+import com.artipie.http.async.AsyncResponse;
+import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.http.rq.RqHeaders;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.RsWithHeaders;
+import com.artipie.http.rs.RsWithStatus;
+import java.nio.ByteBuffer;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.reactivestreams.Publisher;
+
+/**
+ * Conditional GET slice.
+ * <p>
+ * Reads entity tag of requested key saved by {@link StoredEtag}, responds with
+ * {@code 304 Not Modified} if request {@code If-None-Match} or {@code If-Modified-Since}
+ * header matches it, otherwise responds with origin slice response with
+ * {@code ETag} and {@code Last-Modified} headers. Keys without entity tag are
+ * served by origin slice as is. Representation which differs from stored item,
+ * e.g. gzipped copy of it, is tagged with weak entity tag of stored item.
+ * </p>
+ * @since 1.0
+ */
+public final class ConditionalSlice implements Slice {
+
+    /**
+     * Repository storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Origin slice.
+     */
+    private final Slice origin;
+
+    /**
+     * Tag responses with weak entity tag.
+     */
+    private final boolean weak;
+
+    /**
+     * New conditional GET slice.
+     * @param storage Repository storage
+     * @param origin Origin slice
+     */
+    public ConditionalSlice(final Storage storage, final Slice origin) {
+        this(storage, origin, false);
+    }
+
+    /**
+     * New conditional GET slice.
+     * @param storage Repository storage
+     * @param origin Origin slice
+     * @param weak Tag responses with weak entity tag
+     */
+    ConditionalSlice(final Storage storage, final Slice origin, final boolean weak) {
+        this.storage = storage;
+        this.origin = origin;
+        this.weak = weak;
+    }
+
+    @Override
+    public Response response(final String line,
+        final Iterable<Map.Entry<String, String>> headers,
+        final Publisher<ByteBuffer> body) {
+        final String path = new RequestLineFrom(line).uri().getPath().replaceAll("^/+", "");
+        final Response res;
+        if (path.isEmpty()) {
+            res = this.origin.response(line, headers, body);
+        } else {
+            res = new AsyncResponse(
+                new StoredEtag(this.storage).read(new Key.From(path)).thenApply(
+                    stored -> stored.<Response>map(
+                        tag -> {
+                            final Headers tags = new Headers.From(
+                                new Headers.From("ETag", this.etag(tag)),
+                                "Last-Modified", tag.modified()
+                            );
+                            final Response rsp;
+                            if (ConditionalSlice.matches(tag, headers)) {
+                                rsp = new RsWithHeaders(
+                                    new RsWithStatus(RsStatus.NOT_MODIFIED), tags
+                                );
+                            } else {
+                                rsp = new RsWithHeaders(
+                                    this.origin.response(line, headers, body), tags
+                                );
+                            }
+                            return rsp;
+                        }
+                    ).orElseGet(() -> this.origin.response(line, headers, body))
+                )
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Entity tag of response.
+     * @param tag Stored tag
+     * @return Stored entity tag, weak one if responses are tagged weak
+     */
+    private String etag(final StoredEtag.Tag tag) {
+        final String res;
+        if (this.weak) {
+            res = String.format("W/%s", tag.etag());
+        } else {
+            res = tag.etag();
+        }
+        return res;
+    }
+
+    /**
+     * Check if request conditions match stored tag. {@code If-Modified-Since} is checked
+     * only if request has no {@code If-None-Match} header.
+     * @param tag Stored tag
+     * @param headers Request headers
+     * @return True if item was not modified
+     */
+    private static boolean matches(final StoredEtag.Tag tag,
+        final Iterable<Map.Entry<String, String>> headers) {
+        final List<String> match = new RqHeaders(headers, "If-None-Match");
+        final boolean res;
+        if (match.isEmpty()) {
+            res = new RqHeaders(headers, "If-Modified-Since").stream().anyMatch(
+                since -> ConditionalSlice.notAfter(tag.modified(), since)
+            );
+        } else {
+            res = match.stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .map(String::trim)
+                .map(value -> value.replaceFirst("^W/", ""))
+                .anyMatch(value -> "*".equals(value) || tag.etag().equals(value));
+        }
+        return res;
+    }
+
+    /**
+     * Check if modification time is not after the date.
+     * @param modified Modification time, HTTP date
+     * @param since Date, HTTP date
+     * @return True if not modified since the date, false if dates can't be parsed
+     */
+    private static boolean notAfter(final String modified, final String since) {
+        boolean res;
+        try {
+            res = !ZonedDateTime.parse(modified, DateTimeFormatter.RFC_1123_DATE_TIME).isAfter(
+                ZonedDateTime.parse(since.trim(), DateTimeFormatter.RFC_1123_DATE_TIME)
+            );
+        } catch (final DateTimeParseException err) {
+            res = false;
+        }
+        return res;
+    }
+}
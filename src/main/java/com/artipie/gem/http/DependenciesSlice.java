@@ -0,0 +1,177 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.ArtipieException;
+import com.artipie.gem.Gem;
+import com.artipie.gem.MarshalSymbol;
+import com.artipie.gem.MarshalWriter;
+import com.artipie.http.Response;
+import com.artipie.http.Slice;
+import com.artipie.http.async.AsyncResponse;
+import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.http.rq.RqParams;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.RsWithBody;
+import com.artipie.http.rs.RsWithHeaders;
+import com.artipie.http.rs.RsWithStatus;
+import com.artipie.http.rs.common.RsJson;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObjectBuilder;
+import org.reactivestreams.Publisher;
+
+/**
+ * Dependency API slice.
+ * <p>
+ * Handles {@code GET /api/v1/dependencies?gems=[GEM NAMES]} with Marshal response and
+ * {@code GET /api/v1/dependencies.json?gems=[GEM NAMES]} with JSON response. Gem names
+ * are comma separated, response contains all versions of known gems with their
+ * runtime dependencies.
+ * </p>
+ * @since 1.0
+ */
+public final class DependenciesSlice implements Slice {
+
+    /**
+     * Endpoint path pattern.
+     */
+    public static final Pattern PATH_PATTERN =
+        Pattern.compile("^/api/v1/dependencies(\\.json)?$");
+
+    /**
+     * Max number of gems per request.
+     */
+    private static final int MAX_GEMS = 200;
+
+    /**
+     * Gem SDK.
+     */
+    private final Gem sdk;
+
+    /**
+     * New dependency API slice.
+     * @param sdk Gem SDK
+     */
+    public DependenciesSlice(final Gem sdk) {
+        this.sdk = sdk;
+    }
+
+    @Override
+    public Response response(final String line,
+        final Iterable<Map.Entry<String, String>> headers,
+        final Publisher<ByteBuffer> body) {
+        final URI uri = new RequestLineFrom(line).uri();
+        final List<String> names = new RqParams(uri).value("gems")
+            .map(
+                gems -> Arrays.stream(gems.split(","))
+                    .map(String::trim)
+                    .filter(name -> !name.isEmpty())
+                    .collect(Collectors.toList())
+            ).orElse(Collections.emptyList());
+        final Response res;
+        if (names.size() > DependenciesSlice.MAX_GEMS) {
+            res = new RsWithBody(
+                new RsWithStatus(RsStatus.BAD_REQUEST),
+                String.format("Too many gems (use up to %d gems)", DependenciesSlice.MAX_GEMS),
+                StandardCharsets.UTF_8
+            );
+        } else {
+            final boolean json = uri.getPath().endsWith(".json");
+            res = new AsyncResponse(
+                this.sdk.dependencies(names).thenApply(
+                    versions -> {
+                        final Response rsp;
+                        if (json) {
+                            rsp = new RsJson(DependenciesSlice.json(versions));
+                        } else {
+                            rsp = new RsWithHeaders(
+                                new RsWithBody(
+                                    new RsWithStatus(RsStatus.OK),
+                                    DependenciesSlice.marshal(versions)
+                                ),
+                                "Content-Type", "application/octet-stream"
+                            );
+                        }
+                        return rsp;
+                    }
+                )
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Marshal response body.
+     * @param versions Gem versions
+     * @return Marshal bytes
+     */
+    private static byte[] marshal(final List<Map<MarshalSymbol, Object>> versions) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final MarshalWriter marshal = new MarshalWriter(out);
+        try {
+            marshal.header();
+            marshal.write(versions);
+        } catch (final IOException err) {
+            throw new ArtipieException(err);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * JSON response body.
+     * @param versions Gem versions
+     * @return JSON array builder
+     */
+    private static JsonArrayBuilder json(final List<Map<MarshalSymbol, Object>> versions) {
+        final JsonArrayBuilder res = Json.createArrayBuilder();
+        for (final Map<MarshalSymbol, Object> version : versions) {
+            final JsonObjectBuilder obj = Json.createObjectBuilder();
+            for (final Map.Entry<MarshalSymbol, Object> item : version.entrySet()) {
+                if (item.getValue() instanceof List) {
+                    final JsonArrayBuilder deps = Json.createArrayBuilder();
+                    for (final Object dep : (List<?>) item.getValue()) {
+                        deps.add(Json.createArrayBuilder((List<?>) dep));
+                    }
+                    obj.add(item.getKey().name(), deps);
+                } else {
+                    obj.add(item.getKey().name(), String.valueOf(item.getValue()));
+                }
+            }
+            res.add(obj);
+        }
+        return res;
+    }
+}
@@ -0,0 +1,352 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.asto.ArtipieIOException;
+import com.artipie.asto.Content;
+import com.artipie.asto.FailedCompletionStage;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.gem.StoredEtag;
+import com.artipie.http.Headers;
+import com.artipie.http.Response;
+import com.artipie.http.Slice;
+import com.artipie.http.async.AsyncResponse;
+import com.artipie.http.rq.RequestLine;
+import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.http.rq.RqHeaders;
+import com.artipie.http.rq.RqMethod;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.RsWithStatus;
+import com.artipie.http.rs.StandardRs;
+import com.artipie.http.slice.SliceDownload;
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+import org.reactivestreams.Publisher;
+
+/**
+ * Caching proxy of upstream gem repository.
+ * <p>
+ * Gems, quick gemspecs, specs files and compact index files are fetched from
+ * upstream slice on cache miss and saved to storage. Gems and gemspecs never change,
+ * they are served from storage once cached. Index files are revalidated with upstream
+ * when they are older than time to live, using upstream entity tag; if upstream is not
+ * available, stale index is served. Cache miss answers {@code 503 Service Unavailable}
+ * if upstream fails or responds with server error. Concurrent misses of the same key share
+ * one upstream request. Other requests are forwarded to upstream without
+ * {@code Authorization}, {@code Host} and hop-by-hop headers, so client credentials of
+ * this repository never reach upstream.
+ * </p>
+ * @since 1.0
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+public final class GemProxySlice implements Slice {
+
+    /**
+     * Cached files path pattern.
+     */
+    private static final Pattern CACHED = Pattern.compile(
+        String.join(
+            "|",
+            "^/gems/[^/]+\\.gem$",
+            "^/quick/Marshal\\.4\\.8/[^/]+\\.gemspec\\.rz$",
+            "^/(prerelease_|latest_)?specs\\.4\\.8(\\.gz)?$",
+            "^/(versions|names|info/[^/]+)$"
+        )
+    );
+
+    /**
+     * Immutable files path pattern.
+     */
+    private static final Pattern IMMUTABLE = Pattern.compile("^/(gems|quick)/.+$");
+
+    /**
+     * Request headers which are not forwarded to upstream.
+     */
+    private static final Set<String> PRIVATE = new HashSet<>(
+        Arrays.asList(
+            "authorization", "proxy-authorization", "host", "connection", "keep-alive", "te",
+            "trailer", "transfer-encoding", "upgrade", "proxy-connection"
+        )
+    );
+
+    /**
+     * Upstream slice.
+     */
+    private final Slice upstream;
+
+    /**
+     * Cache storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Index files time to live.
+     */
+    private final Duration ttl;
+
+    /**
+     * Clock.
+     */
+    private final Clock clock;
+
+    /**
+     * Cached files download slice.
+     */
+    private final Slice download;
+
+    /**
+     * Last validation time of index files.
+     */
+    private final ConcurrentMap<Key, Instant> validated;
+
+    /**
+     * Upstream requests in progress.
+     */
+    private final ConcurrentMap<Key, CompletableFuture<Boolean>> inflight;
+
+    /**
+     * New proxy with five minutes index time to live.
+     * @param upstream Upstream slice
+     * @param storage Cache storage
+     */
+    public GemProxySlice(final Slice upstream, final Storage storage) {
+        this(upstream, storage, Duration.ofMinutes(5), Clock.systemUTC());
+    }
+
+    /**
+     * New proxy.
+     * @param upstream Upstream slice
+     * @param storage Cache storage
+     * @param ttl Index files time to live
+     * @param clock Clock
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public GemProxySlice(final Slice upstream, final Storage storage, final Duration ttl,
+        final Clock clock) {
+        this.upstream = upstream;
+        this.storage = storage;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.download = new ConditionalSlice(storage, new SliceDownload(storage));
+        this.validated = new ConcurrentHashMap<>();
+        this.inflight = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public Response response(final String line,
+        final Iterable<Map.Entry<String, String>> headers,
+        final Publisher<ByteBuffer> body) {
+        final RequestLineFrom rql = new RequestLineFrom(line);
+        final String path = rql.uri().getPath();
+        final Response res;
+        if (rql.method() == RqMethod.GET && GemProxySlice.CACHED.matcher(path).matches()) {
+            res = new AsyncResponse(
+                this.cached(new Key.From(path.substring(1)), path).handle(
+                    (found, err) -> {
+                        final Response rsp;
+                        if (err != null) {
+                            rsp = new RsWithStatus(RsStatus.UNAVAILABLE);
+                        } else if (found) {
+                            rsp = this.download.response(line, headers, body);
+                        } else {
+                            rsp = StandardRs.NOT_FOUND;
+                        }
+                        return rsp;
+                    }
+                )
+            );
+        } else {
+            res = this.upstream.response(line, GemProxySlice.forwarded(headers), body);
+        }
+        return res;
+    }
+
+    /**
+     * Make sure file is cached and up to date.
+     * @param key Cache key
+     * @param path Request path
+     * @return Future with true if file is cached, false if upstream has no such file
+     */
+    private CompletionStage<Boolean> cached(final Key key, final String path) {
+        return this.storage.exists(key).thenCompose(
+            exists -> {
+                final CompletionStage<Boolean> res;
+                if (exists && (GemProxySlice.IMMUTABLE.matcher(path).matches()
+                    || this.fresh(key))) {
+                    res = CompletableFuture.completedFuture(true);
+                } else {
+                    final CompletableFuture<Boolean> fetch = new CompletableFuture<>();
+                    final CompletableFuture<Boolean> prev = this.inflight.putIfAbsent(key, fetch);
+                    if (prev == null) {
+                        this.fetch(key, path, exists).handle(
+                            (found, err) -> {
+                                this.inflight.remove(key, fetch);
+                                if (err == null) {
+                                    fetch.complete(found);
+                                } else if (exists) {
+                                    fetch.complete(true);
+                                } else {
+                                    fetch.completeExceptionally(err);
+                                }
+                                return found;
+                            }
+                        );
+                        res = fetch;
+                    } else {
+                        res = prev;
+                    }
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * Fetch file from upstream, conditionally if file is cached.
+     * @param key Cache key
+     * @param path Request path
+     * @param exists File is cached
+     * @return Future with true if file is cached, false if upstream has no such file,
+     *  it fails if upstream responds with server error
+     */
+    private CompletionStage<Boolean> fetch(final Key key, final String path,
+        final boolean exists) {
+        final CompletionStage<Optional<StoredEtag.Tag>> tag;
+        if (exists) {
+            tag = new StoredEtag(this.storage).read(key);
+        } else {
+            tag = CompletableFuture.completedFuture(Optional.empty());
+        }
+        return tag.thenCompose(
+            etag -> {
+                final CompletableFuture<Boolean> res = new CompletableFuture<>();
+                final Instant now = this.clock.instant();
+                return this.upstream.response(
+                    new RequestLine(RqMethod.GET, path).toString(),
+                    etag.<Headers>map(val -> new Headers.From("If-None-Match", val.etag()))
+                        .orElse(Headers.EMPTY),
+                    Content.EMPTY
+                ).send(
+                    (status, rsheaders, rsbody) -> {
+                        final CompletionStage<Boolean> done;
+                        if (status == RsStatus.OK) {
+                            done = this.storage.save(key, new Content.From(rsbody))
+                                .thenCompose(none -> this.etag(key, rsheaders))
+                                .thenApply(none -> true);
+                        } else if (status == RsStatus.NOT_MODIFIED && exists) {
+                            done = CompletableFuture.completedFuture(true);
+                        } else if (status.serverError()) {
+                            done = new FailedCompletionStage<>(
+                                new ArtipieIOException(
+                                    String.format(
+                                        "Upstream responded with %s to %s", status.code(), path
+                                    )
+                                )
+                            );
+                        } else {
+                            done = CompletableFuture.completedFuture(exists);
+                        }
+                        return done.<Void>handle(
+                            (found, err) -> {
+                                if (err != null) {
+                                    res.completeExceptionally(err);
+                                } else {
+                                    if (status == RsStatus.OK
+                                        || status == RsStatus.NOT_MODIFIED) {
+                                        this.validated.put(key, now);
+                                    }
+                                    res.complete(found);
+                                }
+                                return null;
+                            }
+                        );
+                    }
+                ).thenCompose(none -> res);
+            }
+        );
+    }
+
+    /**
+     * Save upstream entity tag of fetched file or remove stale one.
+     * @param key Cache key
+     * @param headers Upstream response headers
+     * @return Completable action
+     */
+    private CompletionStage<Void> etag(final Key key,
+        final Iterable<Map.Entry<String, String>> headers) {
+        final StoredEtag stored = new StoredEtag(this.storage);
+        return new RqHeaders(headers, "ETag").stream().findFirst()
+            .map(val -> val.trim().replaceFirst("^W/", "").replace("\"", ""))
+            .filter(val -> !val.isEmpty())
+            .map(val -> stored.save(key, val))
+            .orElseGet(() -> stored.delete(key));
+    }
+
+    /**
+     * Request headers forwarded to upstream.
+     * @param headers Request headers
+     * @return Headers without credentials, {@code Host}, hop-by-hop headers
+     *  and headers listed in {@code Connection} header
+     */
+    private static Headers forwarded(final Iterable<Map.Entry<String, String>> headers) {
+        final Set<String> skip = new HashSet<>(GemProxySlice.PRIVATE);
+        new RqHeaders(headers, "Connection").stream()
+            .flatMap(value -> Arrays.stream(value.split(",")))
+            .map(name -> name.trim().toLowerCase(Locale.US))
+            .forEach(skip::add);
+        final List<Map.Entry<String, String>> res = new ArrayList<>(0);
+        for (final Map.Entry<String, String> header : headers) {
+            if (!skip.contains(header.getKey().toLowerCase(Locale.US))) {
+                res.add(header);
+            }
+        }
+        return new Headers.From(res);
+    }
+
+    /**
+     * Check if cached index file was validated within time to live.
+     * @param key Cache key
+     * @return True if file is fresh
+     */
+    private boolean fresh(final Key key) {
+        final Instant time = this.validated.get(key);
+        return time != null && time.plus(this.ttl).isAfter(this.clock.instant());
+    }
+}
@@ -24,9 +24,16 @@
 package com.artipie.gem.http;
 
 import com.artipie.asto.Storage;
+import com.artipie.asto.fs.FileStorage;
+import com.artipie.gem.Gem;
 import com.artipie.gem.GemApiKeyAuth;
+import com.artipie.gem.StoredEtag;
+import com.artipie.gem.metrics.Metrics;
+import com.artipie.gem.metrics.MetricsText;
+import com.artipie.gem.ruby.SharedRuntime;
 import com.artipie.http.Slice;
 import com.artipie.http.auth.Action;
+import com.artipie.http.auth.AuthScheme;
 import com.artipie.http.auth.AuthSlice;
 import com.artipie.http.auth.Authentication;
 import com.artipie.http.auth.Permission;
@@ -40,7 +47,9 @@ import com.artipie.http.rt.RtRulePath;
 import com.artipie.http.rt.SliceRoute;
 import com.artipie.http.slice.SliceDownload;
 import com.artipie.http.slice.SliceSimple;
+import java.nio.file.Path;
 import java.util.Optional;
+import java.util.regex.Pattern;
 
 /**
  * A slice, which servers gem packages.
@@ -53,6 +62,20 @@ import java.util.Optional;
 @SuppressWarnings({"PMD.UnusedPrivateField", "PMD.SingularField"})
 public final class GemSlice extends Slice.Wrap {
 
+    /**
+     * Path pattern of reserved storage keys, which are not repository files.
+     */
+    private static final Pattern RESERVED = Pattern.compile(
+        String.format("^/%s/.*$", Pattern.quote(StoredEtag.PREFIX.string()))
+    );
+
+    /**
+     * Metrics slice of repository without metrics.
+     */
+    private static final Slice NO_METRICS = new SliceSimple(
+        new RsWithStatus(RsStatus.NOT_FOUND)
+    );
+
     /**
      * Ctor.
      *
@@ -75,6 +98,140 @@ public final class GemSlice extends Slice.Wrap {
     public GemSlice(final Storage storage,
         final Permissions permissions,
         final Authentication auth) {
+        this(storage, permissions, auth, new SharedRuntime());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param storage The storage.
+     * @param permissions The permissions.
+     * @param auth The auth.
+     * @param runtime Shared ruby runtime, it may be warmed up in advance
+     *  with {@link SharedRuntime#warmUp()} on adapter start.
+     */
+    public GemSlice(final Storage storage,
+        final Permissions permissions,
+        final Authentication auth,
+        final SharedRuntime runtime) {
+        this(
+            storage, permissions, auth, new GemApiKeyAuth(auth), new Gem(storage, runtime),
+            new SliceDownload(storage), GemSlice.NO_METRICS
+        );
+    }
+
+    /**
+     * Ctor of repository with metrics, which are served by {@code GET /metrics}.
+     *
+     * @param storage The storage.
+     * @param permissions The permissions.
+     * @param auth The auth.
+     * @param runtime Shared ruby runtime, it may record metrics too.
+     * @param metrics Repository metrics.
+     * @param text Text export of recorded metrics.
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    public GemSlice(final Storage storage,
+        final Permissions permissions,
+        final Authentication auth,
+        final SharedRuntime runtime,
+        final Metrics metrics,
+        final MetricsText text) {
+        this(
+            storage, permissions, auth, new GemApiKeyAuth(auth),
+            new Gem(storage, runtime, metrics), new SliceDownload(storage),
+            new MetricsSlice(text)
+        );
+    }
+
+    /**
+     * Ctor of repository in file system directory, gems and index files are
+     * downloaded as memory-mapped files.
+     *
+     * @param root Repository root directory.
+     * @param permissions The permissions.
+     * @param auth The auth.
+     * @param runtime Shared ruby runtime.
+     */
+    public GemSlice(final Path root,
+        final Permissions permissions,
+        final Authentication auth,
+        final SharedRuntime runtime) {
+        this(
+            new FileStorage(root), root, permissions, auth, runtime, Metrics.NOP,
+            GemSlice.NO_METRICS
+        );
+    }
+
+    /**
+     * Ctor of repository in file system directory with metrics, which are served
+     * by {@code GET /metrics}, gems and index files are downloaded as memory-mapped files.
+     *
+     * @param root Repository root directory.
+     * @param permissions The permissions.
+     * @param auth The auth.
+     * @param runtime Shared ruby runtime, it may record metrics too.
+     * @param metrics Repository metrics.
+     * @param text Text export of recorded metrics.
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    public GemSlice(final Path root,
+        final Permissions permissions,
+        final Authentication auth,
+        final SharedRuntime runtime,
+        final Metrics metrics,
+        final MetricsText text) {
+        this(
+            new FileStorage(root), root, permissions, auth, runtime, metrics,
+            new MetricsSlice(text)
+        );
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param storage File storage of root directory.
+     * @param root Repository root directory.
+     * @param permissions The permissions.
+     * @param auth The auth.
+     * @param runtime Shared ruby runtime.
+     * @param metrics Repository metrics.
+     * @param slice Metrics slice.
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    private GemSlice(final Storage storage,
+        final Path root,
+        final Permissions permissions,
+        final Authentication auth,
+        final SharedRuntime runtime,
+        final Metrics metrics,
+        final Slice slice) {
+        this(
+            storage, permissions, auth, new GemApiKeyAuth(auth),
+            new Gem(storage, runtime, metrics),
+            new MappedDownloadSlice(root, new SliceDownload(storage)), slice
+        );
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param storage The storage.
+     * @param permissions The permissions.
+     * @param auth The auth.
+     * @param scheme Auth scheme shared by all routes, it caches verified credentials.
+     * @param gem Gem SDK.
+     * @param download Download slice of repository files.
+     * @param metrics Metrics slice.
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    private GemSlice(final Storage storage,
+        final Permissions permissions,
+        final Authentication auth,
+        final AuthScheme scheme,
+        final Gem gem,
+        final Slice download,
+        final Slice metrics) {
         super(
             new SliceRoute(
                 new RtRulePath(
@@ -83,11 +240,22 @@ public final class GemSlice extends Slice.Wrap {
                         new RtRule.ByPath("/api/v1/gems")
                     ),
                     new AuthSlice(
-                        new SubmitGemSlice(storage),
-                        new GemApiKeyAuth(auth),
+                        new SubmitGemSlice(gem),
+                        scheme,
                         new Permission.ByName(permissions, Action.Standard.WRITE)
                     )
                 ),
+                new RtRulePath(
+                    new RtRule.All(
+                        new ByMethodsRule(RqMethod.DELETE),
+                        new RtRule.ByPath(YankSlice.PATH)
+                    ),
+                    new AuthSlice(
+                        new YankSlice(gem),
+                        scheme,
+                        new Permission.ByName(permissions, Action.Standard.DELETE)
+                    )
+                ),
                 new RtRulePath(
                     new RtRule.All(
                         new ByMethodsRule(RqMethod.GET),
@@ -100,13 +268,61 @@ public final class GemSlice extends Slice.Wrap {
                         new ByMethodsRule(RqMethod.GET),
                         new RtRule.ByPath(ApiGetSlice.PATH_PATTERN)
                     ),
-                    new ApiGetSlice(storage)
+                    new ApiGetSlice(gem)
+                ),
+                new RtRulePath(
+                    new RtRule.All(
+                        new ByMethodsRule(RqMethod.GET),
+                        new RtRule.ByPath(DependenciesSlice.PATH_PATTERN)
+                    ),
+                    new AuthSlice(
+                        new DependenciesSlice(gem),
+                        scheme,
+                        new Permission.ByName(permissions, Action.Standard.READ)
+                    )
+                ),
+                new RtRulePath(
+                    new RtRule.All(
+                        new ByMethodsRule(RqMethod.GET),
+                        new RtRule.ByPath(CompactIndexSlice.PATH_PATTERN)
+                    ),
+                    new AuthSlice(
+                        new CompactIndexSlice(storage),
+                        scheme,
+                        new Permission.ByName(permissions, Action.Standard.READ)
+                    )
+                ),
+                new RtRulePath(
+                    new RtRule.All(
+                        new ByMethodsRule(RqMethod.GET),
+                        new RtRule.ByPath(QuickSpecSlice.PATH_PATTERN)
+                    ),
+                    new AuthSlice(
+                        new QuickSpecSlice(storage, gem),
+                        scheme,
+                        new Permission.ByName(permissions, Action.Standard.READ)
+                    )
+                ),
+                new RtRulePath(
+                    new RtRule.All(
+                        new ByMethodsRule(RqMethod.GET),
+                        new RtRule.ByPath(MetricsSlice.PATH)
+                    ),
+                    new AuthSlice(
+                        metrics,
+                        scheme,
+                        new Permission.ByName(permissions, Action.Standard.READ)
+                    )
+                ),
+                new RtRulePath(
+                    new RtRule.ByPath(GemSlice.RESERVED),
+                    new SliceSimple(new RsWithStatus(RsStatus.NOT_FOUND))
                 ),
                 new RtRulePath(
                     new ByMethodsRule(RqMethod.GET),
                     new AuthSlice(
-                        new SliceDownload(storage),
-                        new GemApiKeyAuth(auth),
+                        new GzipSlice(storage, download),
+                        scheme,
                         new Permission.ByName(permissions, Action.Standard.READ)
                     )
                 ),
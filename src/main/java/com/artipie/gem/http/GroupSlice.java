@@ -0,0 +1,219 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.gem.GroupIndex;
+import com.artipie.gem.StoredEtag;
+import com.artipie.http.Response;
+import com.artipie.http.Slice;
+import com.artipie.http.async.AsyncResponse;
+import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.http.rq.RqMethod;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.RsWithStatus;
+import com.artipie.http.rs.StandardRs;
+import com.artipie.http.slice.SliceDownload;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.reactivestreams.Publisher;
+
+/**
+ * Group repository slice.
+ * <p>
+ * Serves specs files and compact index merged from member repositories by
+ * {@link GroupIndex}. Merged files are cached with fingerprints of member files
+ * and merged again when any member file changes, concurrent requests of a file which
+ * is being merged wait for the same merge. Other files are served from the
+ * first member which has them.
+ * </p>
+ * @since 1.0
+ */
+public final class GroupSlice implements Slice {
+
+    /**
+     * Member repositories storages.
+     */
+    private final List<Storage> members;
+
+    /**
+     * Group index.
+     */
+    private final GroupIndex index;
+
+    /**
+     * Merged files cache.
+     */
+    private final Storage cache;
+
+    /**
+     * Fingerprints of member files of cached merged files.
+     */
+    private final ConcurrentMap<Key, String> prints;
+
+    /**
+     * Merges in progress by keys.
+     */
+    private final ConcurrentMap<Key, CompletableFuture<Optional<Storage>>> inflight;
+
+    /**
+     * New group slice.
+     * @param members Member repositories storages in priority order
+     */
+    public GroupSlice(final Storage... members) {
+        this(Arrays.asList(members));
+    }
+
+    /**
+     * New group slice with in-memory cache of merged files.
+     * @param members Member repositories storages in priority order
+     */
+    public GroupSlice(final List<Storage> members) {
+        this(members, new InMemoryStorage());
+    }
+
+    /**
+     * New group slice.
+     * @param members Member repositories storages in priority order
+     * @param cache Merged files cache
+     */
+    public GroupSlice(final List<Storage> members, final Storage cache) {
+        this.members = members;
+        this.index = new GroupIndex(members);
+        this.cache = cache;
+        this.prints = new ConcurrentHashMap<>();
+        this.inflight = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public Response response(final String line,
+        final Iterable<Map.Entry<String, String>> headers,
+        final Publisher<ByteBuffer> body) {
+        final RequestLineFrom rql = new RequestLineFrom(line);
+        final String path = rql.uri().getPath();
+        final Response res;
+        if (rql.method() != RqMethod.GET) {
+            res = new RsWithStatus(RsStatus.METHOD_NOT_ALLOWED);
+        } else if (path.length() <= 1
+            || StoredEtag.reserved(new Key.From(path.substring(1)))) {
+            res = StandardRs.NOT_FOUND;
+        } else {
+            final Key key = new Key.From(path.substring(1));
+            final CompletionStage<Optional<Storage>> source;
+            if (GroupIndex.merged(key)) {
+                source = this.refresh(key);
+            } else {
+                source = this.member(key, 0);
+            }
+            res = new AsyncResponse(
+                source.thenApply(
+                    storage -> storage.<Response>map(
+                        sto -> new ConditionalSlice(sto, new SliceDownload(sto))
+                            .response(line, headers, body)
+                    ).orElse(StandardRs.NOT_FOUND)
+                )
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Merge index file again if member files changed since it was cached.
+     * Concurrent requests of the same file wait for one merge.
+     * @param key Index key
+     * @return Future with cache storage, empty if there is no such file
+     */
+    private CompletionStage<Optional<Storage>> refresh(final Key key) {
+        return this.index.fingerprint(key).thenCompose(
+            print -> {
+                final CompletionStage<Optional<Storage>> res;
+                if (print.equals(this.prints.get(key))) {
+                    res = CompletableFuture.completedFuture(Optional.of(this.cache));
+                } else {
+                    final CompletableFuture<Optional<Storage>> merge = new CompletableFuture<>();
+                    final CompletableFuture<Optional<Storage>> prev =
+                        this.inflight.putIfAbsent(key, merge);
+                    if (prev == null) {
+                        this.index.merge(key, this.cache).handle(
+                            (saved, err) -> {
+                                if (err == null && saved) {
+                                    this.prints.put(key, print);
+                                }
+                                this.inflight.remove(key, merge);
+                                if (err != null) {
+                                    merge.completeExceptionally(err);
+                                } else if (saved) {
+                                    merge.complete(Optional.of(this.cache));
+                                } else {
+                                    merge.complete(Optional.empty());
+                                }
+                                return saved;
+                            }
+                        );
+                        res = merge;
+                    } else {
+                        res = prev;
+                    }
+                }
+                return res;
+            }
+        );
+    }
+
+    /**
+     * First member which has the key.
+     * @param key Key
+     * @param idx Member index to start from
+     * @return Future with member storage, empty if no member has the key
+     */
+    private CompletionStage<Optional<Storage>> member(final Key key, final int idx) {
+        final CompletionStage<Optional<Storage>> res;
+        if (idx < this.members.size()) {
+            final Storage member = this.members.get(idx);
+            res = member.exists(key).thenCompose(
+                exists -> {
+                    final CompletionStage<Optional<Storage>> found;
+                    if (exists) {
+                        found = CompletableFuture.completedFuture(Optional.of(member));
+                    } else {
+                        found = this.member(key, idx + 1);
+                    }
+                    return found;
+                }
+            );
+        } else {
+            res = CompletableFuture.completedFuture(Optional.empty());
+        }
+        return res;
+    }
+}
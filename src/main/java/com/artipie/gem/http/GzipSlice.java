@@ -0,0 +1,187 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.http.Response;
+import com.artipie.http.Slice;
+import com.artipie.http.async.AsyncResponse;
+import com.artipie.http.rq.RequestLine;
+import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.http.rq.RqHeaders;
+import com.artipie.http.rq.RqMethod;
+import com.artipie.http.rs.RsWithHeaders;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.reactivestreams.Publisher;
+
+/**
+ * Gzip content negotiation slice.
+ * <p>
+ * Serves stored gzipped copy {@code <key>.gz} of requested key with
+ * {@code Content-Encoding: gzip} header if request {@code Accept-Encoding} header
+ * accepts gzip. Request line is rewritten to gzipped key for origin slice, so
+ * nothing is compressed on request. Range requests are not negotiated, because
+ * range of gzipped copy differs from range of requested file.
+ * </p>
+ * <p>
+ * Conditional requests are answered by {@link ConditionalSlice} with entity tag of
+ * requested key: gzipped copy is tagged with weak entity tag, because its bytes differ
+ * from requested file, and both representations of key with gzipped copy have
+ * {@code Vary: Accept-Encoding} header for caches.
+ * </p>
+ * @since 1.0
+ */
+public final class GzipSlice implements Slice {
+
+    /**
+     * Repository storage.
+     */
+    private final Storage storage;
+
+    /**
+     * Origin slice.
+     */
+    private final Slice origin;
+
+    /**
+     * New gzip negotiation slice.
+     * @param storage Repository storage
+     * @param origin Origin slice
+     */
+    public GzipSlice(final Storage storage, final Slice origin) {
+        this.storage = storage;
+        this.origin = origin;
+    }
+
+    @Override
+    public Response response(final String line,
+        final Iterable<Map.Entry<String, String>> headers,
+        final Publisher<ByteBuffer> body) {
+        final RequestLineFrom rqline = new RequestLineFrom(line);
+        final String path = rqline.uri().getPath().replaceAll("^/+", "");
+        final Slice identity = new ConditionalSlice(this.storage, this.origin);
+        final Response res;
+        if (rqline.method() == RqMethod.GET && !path.isEmpty() && !path.endsWith(".gz")) {
+            final Key gzkey = new Key.From(String.format("%s.gz", path));
+            res = new AsyncResponse(
+                this.storage.exists(gzkey).thenApply(
+                    exists -> {
+                        final Response rsp;
+                        if (!exists) {
+                            rsp = identity.response(line, headers, body);
+                        } else if (new RqHeaders(headers, "Range").isEmpty()
+                            && GzipSlice.accepts(headers)) {
+                            rsp = new RsWithHeaders(
+                                new ConditionalSlice(
+                                    this.storage,
+                                    (ignored, rqheaders, rqbody) -> new RsWithHeaders(
+                                        this.origin.response(
+                                            new RequestLine(
+                                                rqline.method().value(),
+                                                GzipSlice.gzipped(rqline),
+                                                rqline.version()
+                                            ).toString(),
+                                            rqheaders, rqbody
+                                        ),
+                                        "Content-Encoding", "gzip"
+                                    ),
+                                    true
+                                ).response(line, headers, body),
+                                "Vary", "Accept-Encoding"
+                            );
+                        } else {
+                            rsp = new RsWithHeaders(
+                                identity.response(line, headers, body),
+                                "Vary", "Accept-Encoding"
+                            );
+                        }
+                        return rsp;
+                    }
+                )
+            );
+        } else {
+            res = identity.response(line, headers, body);
+        }
+        return res;
+    }
+
+    /**
+     * Request target of gzipped copy.
+     * @param rqline Request line
+     * @return Path with {@code .gz} suffix and original query
+     */
+    private static String gzipped(final RequestLineFrom rqline) {
+        return String.format(
+            "%s.gz%s", rqline.uri().getRawPath(),
+            Optional.ofNullable(rqline.uri().getRawQuery()).map(query -> "?".concat(query))
+                .orElse("")
+        );
+    }
+
+    /**
+     * Check if request accepts gzip encoding with non zero quality.
+     * @param headers Request headers
+     * @return True if gzip is accepted
+     */
+    private static boolean accepts(final Iterable<Map.Entry<String, String>> headers) {
+        final Map<String, Boolean> codings = new RqHeaders(headers, "Accept-Encoding").stream()
+            .flatMap(value -> Arrays.stream(value.split(",")))
+            .map(String::trim)
+            .filter(value -> !value.isEmpty())
+            .collect(
+                Collectors.toMap(
+                    value -> value.split(";")[0].trim().toLowerCase(Locale.US),
+                    GzipSlice::acceptable,
+                    (first, second) -> first || second
+                )
+            );
+        return Stream.of("gzip", "x-gzip", "*")
+            .map(codings::get)
+            .filter(Objects::nonNull)
+            .findFirst()
+            .orElse(false);
+    }
+
+    /**
+     * Check if coding of {@code Accept-Encoding} has non zero quality.
+     * @param coding Coding with parameters, e.g. {@code gzip;q=0.5}
+     * @return False if quality is zero
+     */
+    private static boolean acceptable(final String coding) {
+        return Arrays.stream(coding.split(";"))
+            .skip(1)
+            .map(param -> param.trim().toLowerCase(Locale.US))
+            .filter(param -> param.startsWith("q="))
+            .map(param -> param.substring(2).trim())
+            .noneMatch(quality -> quality.matches("0(\\.0{0,3})?"));
+    }
+}
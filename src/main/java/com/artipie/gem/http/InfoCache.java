@@ -0,0 +1,121 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.gem.SpecEntry;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Size-bounded LRU cache of rendered gem info responses.
+ * <p>
+ * Responses are cached by gem name and format for the gem version they were
+ * rendered for, when newer version of gem is indexed, cached responses
+ * of older version are not returned and replaced on next put.
+ * </p>
+ * @since 1.0
+ */
+final class InfoCache {
+
+    /**
+     * Cached gems by name in access order.
+     */
+    private final Map<String, Rendered> gems;
+
+    /**
+     * New info cache.
+     * @param size Max number of cached gems
+     */
+    @SuppressWarnings("serial")
+    InfoCache(final int size) {
+        this.gems = new LinkedHashMap<String, Rendered>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Rendered> eldest) {
+                return this.size() > size;
+            }
+        };
+    }
+
+    /**
+     * Get cached response.
+     * @param name Gem name
+     * @param version Current gem version
+     * @param format Response format
+     * @return Response bytes if cached for this version
+     */
+    Optional<byte[]> get(final String name, final SpecEntry version, final String format) {
+        synchronized (this.gems) {
+            return Optional.ofNullable(this.gems.get(name))
+                .filter(item -> item.version.equals(version))
+                .map(item -> item.formats.get(format));
+        }
+    }
+
+    /**
+     * Put response to cache.
+     * @param name Gem name
+     * @param version Gem version of response
+     * @param format Response format
+     * @param bytes Response bytes
+     */
+    void put(final String name, final SpecEntry version, final String format,
+        final byte[] bytes) {
+        synchronized (this.gems) {
+            Rendered item = this.gems.get(name);
+            if (item == null || !item.version.equals(version)) {
+                item = new Rendered(version);
+                this.gems.put(name, item);
+            }
+            item.formats.put(format, bytes);
+        }
+    }
+
+    /**
+     * Rendered responses of gem version.
+     * @since 1.0
+     */
+    private static final class Rendered {
+
+        /**
+         * Gem version.
+         */
+        private final SpecEntry version;
+
+        /**
+         * Response bytes by format.
+         */
+        private final Map<String, byte[]> formats;
+
+        /**
+         * New rendered responses.
+         * @param version Gem version
+         */
+        Rendered(final SpecEntry version) {
+            this.version = version;
+            this.formats = new HashMap<>(2);
+        }
+    }
+}
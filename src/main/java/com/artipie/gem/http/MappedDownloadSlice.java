@@ -0,0 +1,182 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.asto.ArtipieIOException;
+import com.artipie.asto.Content;
+import com.artipie.http.Headers;
+import com.artipie.http.Response;
+import com.artipie.http.Slice;
+import com.artipie.http.async.AsyncResponse;
+import com.artipie.http.headers.ContentFileName;
+import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.http.rs.RsFull;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.reactivestreams.Publisher;
+
+/**
+ * Download slice of file system repository.
+ * <p>
+ * Serves files under repository root directory as memory-mapped direct buffers,
+ * so file content is not copied to heap buffers. Requests to missing files or
+ * paths outside of root directory are served by origin slice. File system
+ * calls are performed by own daemon executor, not by common fork-join pool.
+ * </p>
+ * @since 1.0
+ */
+public final class MappedDownloadSlice implements Slice {
+
+    /**
+     * Max size of mapped region.
+     */
+    private static final long CHUNK = 4L * 1024 * 1024;
+
+    /**
+     * Executor threads counter.
+     */
+    private static final AtomicInteger THREADS = new AtomicInteger();
+
+    /**
+     * Default executor of blocking file system calls.
+     */
+    private static final ExecutorService FILES = Executors.newCachedThreadPool(
+        task -> {
+            final Thread thread = new Thread(
+                task,
+                String.format("gem-download-%d", MappedDownloadSlice.THREADS.incrementAndGet())
+            );
+            thread.setDaemon(true);
+            return thread;
+        }
+    );
+
+    /**
+     * Repository root directory.
+     */
+    private final Path root;
+
+    /**
+     * Origin slice.
+     */
+    private final Slice origin;
+
+    /**
+     * Executor of blocking file system calls.
+     */
+    private final Executor exec;
+
+    /**
+     * New mapped download slice.
+     * @param root Repository root directory of file storage
+     * @param origin Origin slice
+     */
+    public MappedDownloadSlice(final Path root, final Slice origin) {
+        this(root, origin, MappedDownloadSlice.FILES);
+    }
+
+    /**
+     * New mapped download slice.
+     * @param root Repository root directory of file storage
+     * @param origin Origin slice
+     * @param exec Executor of blocking file system calls
+     */
+    public MappedDownloadSlice(final Path root, final Slice origin, final Executor exec) {
+        this.root = root.toAbsolutePath().normalize();
+        this.origin = origin;
+        this.exec = exec;
+    }
+
+    @Override
+    public Response response(final String line,
+        final Iterable<Map.Entry<String, String>> headers,
+        final Publisher<ByteBuffer> body) {
+        final URI uri = new RequestLineFrom(line).uri();
+        final Path file = this.root.resolve(uri.getPath().replaceAll("^/+", "")).normalize();
+        return new AsyncResponse(
+            CompletableFuture.supplyAsync(
+                () -> {
+                    final Response res;
+                    if (file.startsWith(this.root) && !file.equals(this.root)
+                        && Files.isRegularFile(file)) {
+                        res = new RsFull(
+                            RsStatus.OK,
+                            new Headers.From(new ContentFileName(uri)),
+                            MappedDownloadSlice.content(file)
+                        );
+                    } else {
+                        res = this.origin.response(line, headers, body);
+                    }
+                    return res;
+                },
+                this.exec
+            )
+        );
+    }
+
+    /**
+     * File content as memory-mapped regions.
+     * @param file File
+     * @return Content with size
+     */
+    private static Content content(final Path file) {
+        final long size;
+        try {
+            size = Files.size(file);
+        } catch (final IOException err) {
+            throw new ArtipieIOException(err);
+        }
+        final int chunks = (int) ((size + MappedDownloadSlice.CHUNK - 1)
+            / MappedDownloadSlice.CHUNK);
+        return new Content.From(
+            size,
+            Flowable.using(
+                () -> FileChannel.open(file, StandardOpenOption.READ),
+                channel -> Flowable.range(0, chunks).map(
+                    idx -> {
+                        final long pos = idx * MappedDownloadSlice.CHUNK;
+                        return (ByteBuffer) channel.map(
+                            FileChannel.MapMode.READ_ONLY, pos,
+                            Math.min(MappedDownloadSlice.CHUNK, size - pos)
+                        );
+                    }
+                ),
+                FileChannel::close
+            )
+        );
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.asto.Content;
+import com.artipie.gem.metrics.MetricsText;
+import com.artipie.http.Headers;
+import com.artipie.http.Response;
+import com.artipie.http.Slice;
+import com.artipie.http.rs.RsFull;
+import com.artipie.http.rs.RsStatus;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.reactivestreams.Publisher;
+
+/**
+ * Metrics slice.
+ * <p>
+ * Handles {@code GET /metrics} with repository metrics in Prometheus text format.
+ * </p>
+ * @since 1.0
+ */
+public final class MetricsSlice implements Slice {
+
+    /**
+     * Endpoint path.
+     */
+    public static final String PATH = "/metrics";
+
+    /**
+     * Metrics text export.
+     */
+    private final MetricsText metrics;
+
+    /**
+     * New metrics slice.
+     * @param metrics Metrics text export
+     */
+    public MetricsSlice(final MetricsText metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Response response(final String line,
+        final Iterable<Map.Entry<String, String>> headers,
+        final Publisher<ByteBuffer> body) {
+        return new RsFull(
+            RsStatus.OK,
+            new Headers.From("Content-Type", this.metrics.contentType()),
+            new Content.From(this.metrics.text().getBytes(StandardCharsets.UTF_8))
+        );
+    }
+}
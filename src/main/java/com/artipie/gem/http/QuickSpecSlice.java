@@ -0,0 +1,104 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.asto.Storage;
+import com.artipie.gem.Gem;
+import com.artipie.http.Response;
+import com.artipie.http.Slice;
+import com.artipie.http.async.AsyncResponse;
+import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.http.rs.StandardRs;
+import com.artipie.http.slice.SliceDownload;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.reactivestreams.Publisher;
+
+/**
+ * Quick Marshal gemspec slice.
+ * <p>
+ * Handles {@code GET /quick/Marshal.4.8/[GEM FULL NAME].gemspec.rz}. Missing gemspec
+ * is generated from stored gem on first request and saved to storage, next requests
+ * are served from storage.
+ * </p>
+ * @since 1.0
+ */
+public final class QuickSpecSlice implements Slice {
+
+    /**
+     * Endpoint path pattern.
+     */
+    public static final Pattern PATH_PATTERN =
+        Pattern.compile("^/quick/Marshal\\.4\\.8/([^/]+)\\.gemspec\\.rz$");
+
+    /**
+     * Gem SDK.
+     */
+    private final Gem sdk;
+
+    /**
+     * Gemspec download slice.
+     */
+    private final Slice download;
+
+    /**
+     * New quick Marshal gemspec slice.
+     * @param storage Repository storage
+     * @param sdk Gem SDK
+     */
+    public QuickSpecSlice(final Storage storage, final Gem sdk) {
+        this.sdk = sdk;
+        this.download = new ConditionalSlice(storage, new SliceDownload(storage));
+    }
+
+    @Override
+    public Response response(final String line,
+        final Iterable<Map.Entry<String, String>> headers,
+        final Publisher<ByteBuffer> body) {
+        final Matcher matcher = QuickSpecSlice.PATH_PATTERN.matcher(
+            new RequestLineFrom(line).uri().getPath()
+        );
+        final Response res;
+        if (matcher.matches()) {
+            res = new AsyncResponse(
+                this.sdk.quickspec(matcher.group(1)).thenApply(
+                    exists -> {
+                        final Response rsp;
+                        if (exists) {
+                            rsp = this.download.response(line, headers, body);
+                        } else {
+                            rsp = StandardRs.NOT_FOUND;
+                        }
+                        return rsp;
+                    }
+                )
+            );
+        } else {
+            res = StandardRs.NOT_FOUND;
+        }
+        return res;
+    }
+}
@@ -23,31 +23,32 @@
  */
 package com.artipie.gem.http;
 
-import com.artipie.asto.Key;
 import com.artipie.asto.Storage;
 import com.artipie.gem.Gem;
+import com.artipie.gem.InvalidGemException;
 import com.artipie.http.Response;
 import com.artipie.http.Slice;
 import com.artipie.http.async.AsyncResponse;
 import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.RsWithBody;
 import com.artipie.http.rs.RsWithStatus;
 import com.artipie.http.slice.ContentWithSize;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Map.Entry;
-import java.util.UUID;
+import java.util.concurrent.CompletionException;
 import org.reactivestreams.Publisher;
 
 /**
  * A slice, which servers gem packages.
+ * <p>
+ * Gems with invalid name, version or platform in metadata are rejected
+ * with {@code 400 Bad Request}.
+ * </p>
  * @since 1.0
  */
 public final class SubmitGemSlice implements Slice {
 
-    /**
-     * Repository storage.
-     */
-    private final Storage storage;
-
     /**
      * Gem SDK.
      */
@@ -59,22 +60,54 @@ public final class SubmitGemSlice implements Slice {
      * @param storage The storage.
      */
     public SubmitGemSlice(final Storage storage) {
-        this.storage = storage;
-        this.gem = new Gem(storage);
+        this(new Gem(storage));
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param gem Gem SDK.
+     */
+    public SubmitGemSlice(final Gem gem) {
+        this.gem = gem;
     }
 
     @Override
     public Response response(final String line, final Iterable<Entry<String, String>> headers,
         final Publisher<ByteBuffer> body) {
-        final Key key = new Key.From(
-            "gems", UUID.randomUUID().toString().replace("-", "").concat(".gem")
-        );
         return new AsyncResponse(
-            this.storage.save(
-                key, new ContentWithSize(body, headers)
-            ).thenCompose(none -> this.gem.update(key))
-            .thenCompose(none -> this.storage.delete(key))
-            .thenApply(none -> new RsWithStatus(RsStatus.CREATED))
+            this.gem.push(new ContentWithSize(body, headers)).handle(
+                (key, err) -> {
+                    final Response res;
+                    if (err == null) {
+                        res = new RsWithStatus(RsStatus.CREATED);
+                    } else {
+                        final Throwable cause = SubmitGemSlice.cause(err);
+                        if (cause instanceof InvalidGemException) {
+                            res = new RsWithBody(
+                                new RsWithStatus(RsStatus.BAD_REQUEST),
+                                cause.getMessage(), StandardCharsets.UTF_8
+                            );
+                        } else {
+                            throw new CompletionException(cause);
+                        }
+                    }
+                    return res;
+                }
+            )
         );
     }
+
+    /**
+     * Cause of push failure wrapped by completion stages.
+     * @param err Push failure
+     * @return Cause
+     */
+    private static Throwable cause(final Throwable err) {
+        Throwable res = err;
+        while (res instanceof CompletionException && res.getCause() != null) {
+            res = res.getCause();
+        }
+        return res;
+    }
 }
@@ -0,0 +1,154 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.asto.ext.PublisherAs;
+import com.artipie.gem.Gem;
+import com.artipie.gem.SpecEntry;
+import com.artipie.http.Response;
+import com.artipie.http.Slice;
+import com.artipie.http.async.AsyncResponse;
+import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.http.rq.RqParams;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.RsWithBody;
+import com.artipie.http.rs.RsWithStatus;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import org.reactivestreams.Publisher;
+
+/**
+ * Yank API slice.
+ * <p>
+ * Handles {@code DELETE /api/v1/gems/yank} with {@code gem_name}, {@code version} and
+ * optional {@code platform} parameters, which are sent by {@code gem yank} as form body
+ * or as query parameters. Parameters are validated before gem files are looked up,
+ * invalid values are rejected with {@code 400 Bad Request}.
+ * </p>
+ * @since 1.0
+ */
+public final class YankSlice implements Slice {
+
+    /**
+     * Endpoint path.
+     */
+    public static final String PATH = "/api/v1/gems/yank";
+
+    /**
+     * Gem SDK.
+     */
+    private final Gem sdk;
+
+    /**
+     * New yank API slice.
+     * @param sdk Gem SDK
+     */
+    public YankSlice(final Gem sdk) {
+        this.sdk = sdk;
+    }
+
+    @Override
+    public Response response(final String line,
+        final Iterable<Map.Entry<String, String>> headers,
+        final Publisher<ByteBuffer> body) {
+        final RqParams query = new RqParams(new RequestLineFrom(line).uri());
+        return new AsyncResponse(
+            new PublisherAs(body).asciiString().thenCompose(
+                text -> {
+                    final RqParams form = new RqParams(text.trim());
+                    final Optional<String> name = YankSlice.param("gem_name", query, form);
+                    final Optional<String> version = YankSlice.param("version", query, form);
+                    final String platform = YankSlice.param("platform", query, form)
+                        .orElse(SpecEntry.RUBY);
+                    final CompletionStage<Response> res;
+                    if (!name.isPresent() || !version.isPresent()) {
+                        res = YankSlice.badRequest("gem_name and version parameters are required");
+                    } else if (!SpecEntry.valid(name.get(), version.get(), platform)) {
+                        res = YankSlice.badRequest("Invalid gem_name, version or platform");
+                    } else {
+                        res = this.sdk.yank(name.get(), version.get(), platform).thenApply(
+                            yanked -> {
+                                final Response rsp;
+                                if (yanked) {
+                                    rsp = new RsWithBody(
+                                        new RsWithStatus(RsStatus.OK),
+                                        String.format(
+                                            "Successfully deleted gem: %s (%s)",
+                                            name.get(), version.get()
+                                        ),
+                                        StandardCharsets.UTF_8
+                                    );
+                                } else {
+                                    rsp = new RsWithBody(
+                                        new RsWithStatus(RsStatus.NOT_FOUND),
+                                        String.format(
+                                            "The version %s does not exist for %s",
+                                            version.get(), name.get()
+                                        ),
+                                        StandardCharsets.UTF_8
+                                    );
+                                }
+                                return rsp;
+                            }
+                        );
+                    }
+                    return res;
+                }
+            )
+        );
+    }
+
+    /**
+     * Bad request response.
+     * @param message Response message
+     * @return Future with response
+     */
+    private static CompletionStage<Response> badRequest(final String message) {
+        return CompletableFuture.completedFuture(
+            new RsWithBody(
+                new RsWithStatus(RsStatus.BAD_REQUEST), message, StandardCharsets.UTF_8
+            )
+        );
+    }
+
+    /**
+     * Request parameter from query or form body.
+     * @param name Parameter name
+     * @param query Query parameters
+     * @param form Form body parameters
+     * @return Non empty parameter value if present
+     */
+    private static Optional<String> param(final String name, final RqParams query,
+        final RqParams form) {
+        Optional<String> res = query.value(name);
+        if (!res.isPresent()) {
+            res = form.value(name);
+        }
+        return res.filter(val -> !val.isEmpty());
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.metrics;
+
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+/**
+ * Metrics of gem repository.
+ * <p>
+ * Names are lowercase with underscores, e.g. {@code gem_push_upload}. Timers record
+ * duration of pipeline stages, counters accumulate amounts, e.g. bytes or cache hits,
+ * gauges are changed up and down, e.g. by operations in flight.
+ * </p>
+ * @since 1.0
+ */
+public interface Metrics {
+
+    /**
+     * Metrics which record nothing.
+     */
+    Metrics NOP = new Metrics() {
+        @Override
+        public void timer(final String name, final long nanos) {
+            // nothing to record
+        }
+
+        @Override
+        public void counter(final String name, final long amount) {
+            // nothing to record
+        }
+
+        @Override
+        public void gauge(final String name, final long delta) {
+            // nothing to record
+        }
+    };
+
+    /**
+     * Record duration of stage.
+     * @param name Timer name
+     * @param nanos Duration in nanoseconds
+     */
+    void timer(String name, long nanos);
+
+    /**
+     * Increment counter.
+     * @param name Counter name
+     * @param amount Amount to add
+     */
+    void counter(String name, long amount);
+
+    /**
+     * Change gauge.
+     * @param name Gauge name
+     * @param delta Gauge change
+     */
+    void gauge(String name, long delta);
+
+    /**
+     * Record duration of async stage, failed stages are recorded too.
+     * @param name Timer name
+     * @param stage Stage to start
+     * @param <T> Stage result type
+     * @return Stage result
+     */
+    default <T> CompletionStage<T> timed(final String name,
+        final Supplier<? extends CompletionStage<T>> stage) {
+        final long start = System.nanoTime();
+        return stage.get().whenComplete(
+            (res, err) -> this.timer(name, System.nanoTime() - start)
+        );
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics in memory with Prometheus text format export.
+ * <p>
+ * Timers are exported as {@code <name>_seconds} histograms, counters as
+ * {@code <name>_total} and gauges as is.
+ * </p>
+ * @since 1.0
+ */
+public final class PrometheusMetrics implements Metrics, MetricsText {
+
+    /**
+     * Upper bounds of histogram buckets in milliseconds.
+     */
+    private static final long[] BUCKETS = {
+        5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10_000,
+    };
+
+    /**
+     * Timers by name.
+     */
+    private final ConcurrentMap<String, Histogram> timers;
+
+    /**
+     * Counters by name.
+     */
+    private final ConcurrentMap<String, LongAdder> counters;
+
+    /**
+     * Gauges by name.
+     */
+    private final ConcurrentMap<String, AtomicLong> gauges;
+
+    /**
+     * New empty metrics.
+     */
+    public PrometheusMetrics() {
+        this.timers = new ConcurrentHashMap<>();
+        this.counters = new ConcurrentHashMap<>();
+        this.gauges = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void timer(final String name, final long nanos) {
+        this.timers.computeIfAbsent(name, key -> new Histogram()).record(nanos);
+    }
+
+    @Override
+    public void counter(final String name, final long amount) {
+        this.counters.computeIfAbsent(name, key -> new LongAdder()).add(amount);
+    }
+
+    @Override
+    public void gauge(final String name, final long delta) {
+        this.gauges.computeIfAbsent(name, key -> new AtomicLong()).addAndGet(delta);
+    }
+
+    /**
+     * Metrics in Prometheus text exposition format.
+     * @return Metrics text
+     */
+    @Override
+    public String text() {
+        final StringBuilder out = new StringBuilder();
+        for (final Map.Entry<String, Histogram> item : new TreeMap<>(this.timers).entrySet()) {
+            item.getValue().write(String.format("%s_seconds", item.getKey()), out);
+        }
+        for (final Map.Entry<String, LongAdder> item : new TreeMap<>(this.counters).entrySet()) {
+            final String name = String.format("%s_total", item.getKey());
+            out.append("# TYPE ").append(name).append(" counter\n")
+                .append(name).append(' ').append(item.getValue().sum()).append('\n');
+        }
+        for (final Map.Entry<String, AtomicLong> item : new TreeMap<>(this.gauges).entrySet()) {
+            out.append("# TYPE ").append(item.getKey()).append(" gauge\n")
+                .append(item.getKey()).append(' ').append(item.getValue().get()).append('\n');
+        }
+        return out.toString();
+    }
+
+    @Override
+    public String contentType() {
+        return "text/plain; version=0.0.4; charset=utf-8";
+    }
+
+    /**
+     * Histogram of durations.
+     * @since 1.0
+     */
+    private static final class Histogram {
+
+        /**
+         * Counts of durations in buckets, the last one is {@code +Inf} bucket.
+         */
+        private final LongAdder[] buckets;
+
+        /**
+         * Sum of durations in nanoseconds.
+         */
+        private final LongAdder sum;
+
+        /**
+         * New empty histogram.
+         */
+        Histogram() {
+            this.buckets = new LongAdder[PrometheusMetrics.BUCKETS.length + 1];
+            for (int idx = 0; idx < this.buckets.length; idx = idx + 1) {
+                this.buckets[idx] = new LongAdder();
+            }
+            this.sum = new LongAdder();
+        }
+
+        /**
+         * Record duration.
+         * @param nanos Duration in nanoseconds
+         */
+        void record(final long nanos) {
+            int idx = 0;
+            while (idx < PrometheusMetrics.BUCKETS.length
+                && nanos > TimeUnit.MILLISECONDS.toNanos(PrometheusMetrics.BUCKETS[idx])) {
+                idx = idx + 1;
+            }
+            this.buckets[idx].increment();
+            this.sum.add(nanos);
+        }
+
+        /**
+         * Write histogram with cumulative buckets.
+         * @param name Metric name
+         * @param out Output
+         */
+        void write(final String name, final StringBuilder out) {
+            out.append("# TYPE ").append(name).append(" histogram\n");
+            long count = 0;
+            for (int idx = 0; idx < this.buckets.length; idx = idx + 1) {
+                count = count + this.buckets[idx].sum();
+                final String bound;
+                if (idx < PrometheusMetrics.BUCKETS.length) {
+                    bound = Double.toString(PrometheusMetrics.BUCKETS[idx] / 1000.0);
+                } else {
+                    bound = "+Inf";
+                }
+                out.append(name).append("_bucket{le=\"").append(bound).append("\"} ")
+                    .append(count).append('\n');
+            }
+            out.append(name).append("_sum ")
+                .append(this.sum.sum() / (double) TimeUnit.SECONDS.toNanos(1)).append('\n')
+                .append(name).append("_count ").append(count).append('\n');
+        }
+    }
+}
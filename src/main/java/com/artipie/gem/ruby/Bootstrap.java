@@ -0,0 +1,93 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.ruby;
+
+import com.artipie.ArtipieException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import org.apache.commons.io.IOUtils;
+import org.jruby.Ruby;
+import org.jruby.RubyClass;
+
+/**
+ * Ruby runtime bootstrap.
+ * <p>
+ * Loads rubygems and {@code metarunner.rb} script into runtime once,
+ * after that scripts classes are available by name without evaluating
+ * scripts again.
+ * </p>
+ * @since 1.0
+ */
+final class Bootstrap {
+
+    /**
+     * Meta runner class name.
+     */
+    private static final String RUNNER = "MetaRunner";
+
+    /**
+     * Meta runner script source.
+     */
+    private static final String SCRIPT = Bootstrap.script();
+
+    /**
+     * Ctor.
+     */
+    private Bootstrap() {
+    }
+
+    /**
+     * Load scripts into runtime if not loaded yet.
+     * @param ruby Runtime
+     * @return Same runtime
+     */
+    static Ruby boot(final Ruby ruby) {
+        if (ruby.getClass(Bootstrap.RUNNER) == null) {
+            ruby.evalScriptlet(Bootstrap.SCRIPT);
+        }
+        return ruby;
+    }
+
+    /**
+     * Meta runner class of runtime.
+     * @param ruby Runtime
+     * @return Ruby class
+     */
+    static RubyClass runner(final Ruby ruby) {
+        return Bootstrap.boot(ruby).getClass(Bootstrap.RUNNER);
+    }
+
+    /**
+     * Read meta runner script from classpath.
+     * @return Script source
+     */
+    private static String script() {
+        try (InputStream src = Bootstrap.class.getResourceAsStream("/metarunner.rb")) {
+            return IOUtils.toString(src, StandardCharsets.UTF_8);
+        } catch (final IOException err) {
+            throw new ArtipieException(err);
+        }
+    }
+}
@@ -21,25 +21,25 @@
  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
  * SOFTWARE.
  */
-
 package com.artipie.gem.ruby;
 
-import com.artipie.ArtipieException;
-import com.artipie.gem.GemIndex;
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import com.artipie.asto.Key;
+import com.artipie.asto.fs.FileStorage;
+import com.artipie.gem.Gem;
 import java.nio.file.Path;
-import org.apache.commons.io.IOUtils;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.stream.Collectors;
 import org.jruby.Ruby;
-import org.jruby.RubyRuntimeAdapter;
-import org.jruby.javasupport.JavaEmbedUtils;
 
 /**
  * Ruby runtime gem index implementation.
  *
  * @since 1.0
+ * @deprecated Use {@link Gem#update(Collection)}
  */
-public final class RubyGemIndex implements GemIndex {
+@Deprecated
+public final class RubyGemIndex implements com.artipie.gem.GemIndex {
 
     /**
      * Ruby runtime.
@@ -56,22 +56,20 @@ public final class RubyGemIndex implements GemIndex {
 
     @Override
     public void update(final Path path) {
-        final RubyRuntimeAdapter adapter = JavaEmbedUtils.newRuntimeAdapter();
-        try {
-            final String script = IOUtils.toString(
-                RubyGemIndex.class.getResourceAsStream(String.format("/metarunner.rb")),
-                StandardCharsets.UTF_8
-            );
-            adapter.eval(this.ruby, script);
-            JavaEmbedUtils.invokeMethod(
-                this.ruby,
-                adapter.eval(this.ruby, "MetaRunner"),
-                "new",
-                new Object[]{path.toString()},
-                Object.class
-            );
-        } catch (final IOException err) {
-            throw new ArtipieException(err);
+        this.update(Collections.singleton(path));
+    }
+
+    @Override
+    public void update(final Collection<Path> gems) {
+        if (!gems.isEmpty()) {
+            final Path root = gems.iterator().next().toAbsolutePath().getParent().getParent();
+            new Gem(new FileStorage(root), new SharedRuntime(() -> this.ruby)).update(
+                gems.stream().map(
+                    gem -> new Key.From(
+                        root.relativize(gem.toAbsolutePath()).toString().split("[/\\\\]")
+                    )
+                ).collect(Collectors.toList())
+            ).toCompletableFuture().join();
         }
     }
 }
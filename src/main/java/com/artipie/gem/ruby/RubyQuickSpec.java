@@ -0,0 +1,62 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.ruby;
+
+import org.jruby.Ruby;
+import org.jruby.RubyString;
+
+/**
+ * Quick Marshal gemspec generator.
+ * <p>
+ * Generates deflated {@code quick/Marshal.4.8/name-version.gemspec.rz} content
+ * from gemspec YAML, gem archive file is not required.
+ * </p>
+ * @since 1.0
+ */
+public final class RubyQuickSpec {
+
+    /**
+     * Ruby runtime.
+     */
+    private final Ruby ruby;
+
+    /**
+     * New quick spec generator.
+     * @param ruby Runtime
+     */
+    public RubyQuickSpec(final Ruby ruby) {
+        this.ruby = ruby;
+    }
+
+    /**
+     * Deflated Marshal gemspec.
+     * @param yaml Gemspec YAML from gem metadata
+     * @return Quick spec bytes
+     */
+    public byte[] deflated(final String yaml) {
+        return ((RubyString) Bootstrap.runner(this.ruby).callMethod(
+            this.ruby.getCurrentContext(), "quick", RubyString.newString(this.ruby, yaml)
+        )).getBytes();
+    }
+}
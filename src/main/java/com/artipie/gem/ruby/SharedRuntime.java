@@ -21,74 +21,248 @@
  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
  * SOFTWARE.
  */
-
 package com.artipie.gem.ruby;
 
+import com.artipie.gem.metrics.Metrics;
 import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import org.jruby.Ruby;
 import org.jruby.javasupport.JavaEmbedUtils;
 
 /**
- * Share ruby runtime and interpreter.
+ * Share ruby runtimes and interpreters.
+ * <p>
+ * Keeps a pool of ruby runtimes, each runtime is used by one task at a time.
+ * Tasks are performed by own executor with one thread per runtime and bounded
+ * queue of waiting tasks: when the queue is full, new tasks are rejected with
+ * {@link RejectedExecutionException} instead of piling up.
+ * </p>
  * @since 1.0
  */
 public final class SharedRuntime {
 
+    /**
+     * Default max number of tasks waiting for runtime.
+     */
+    private static final int QUEUE = 256;
+
+    /**
+     * Executor threads counter.
+     */
+    private static final AtomicInteger THREADS = new AtomicInteger();
+
     /**
      * Ruby runtime factory.
      */
     private final Supplier<Ruby> factory;
 
     /**
-     * Synchronization lock.
+     * Max number of runtimes.
+     */
+    private final int size;
+
+    /**
+     * Idle runtimes.
+     */
+    private final BlockingQueue<Ruby> idle;
+
+    /**
+     * Number of created runtimes.
      */
-    private final Object lock;
+    private final AtomicInteger created;
 
     /**
-     * Runtime cache.
+     * Runtime tasks executor.
      */
-    private volatile Ruby runtime;
+    private final ThreadPoolExecutor exec;
 
     /**
-     * New default shared ruby runtime.
+     * Runtime metrics.
+     */
+    private final Metrics metrics;
+
+    /**
+     * New default shared ruby runtime with one runtime per processor.
+     * Each runtime loads rubygems and gem adapter scripts once on creation.
      */
     public SharedRuntime() {
         this(
-            () -> JavaEmbedUtils.initialize(Collections.emptyList())
+            () -> Bootstrap.boot(JavaEmbedUtils.initialize(Collections.emptyList())),
+            Runtime.getRuntime().availableProcessors(),
+            SharedRuntime.QUEUE
         );
     }
 
     /**
-     * New shared ruby runtime with specified factory.
+     * New shared ruby runtime with specified factory and single runtime.
      * @param factory Runtime factory
      */
     public SharedRuntime(final Supplier<Ruby> factory) {
+        this(factory, 1, SharedRuntime.QUEUE);
+    }
+
+    /**
+     * New shared ruby runtimes pool.
+     * @param factory Runtime factory
+     * @param size Max number of runtimes and concurrent tasks
+     * @param queue Max number of tasks waiting for runtime
+     */
+    public SharedRuntime(final Supplier<Ruby> factory, final int size, final int queue) {
+        this(factory, size, queue, Metrics.NOP);
+    }
+
+    /**
+     * New default shared ruby runtime with metrics.
+     * @param metrics Runtime metrics
+     */
+    public SharedRuntime(final Metrics metrics) {
+        this(
+            () -> Bootstrap.boot(JavaEmbedUtils.initialize(Collections.emptyList())),
+            Runtime.getRuntime().availableProcessors(),
+            SharedRuntime.QUEUE,
+            metrics
+        );
+    }
+
+    /**
+     * New shared ruby runtimes pool with metrics.
+     * <p>
+     * Time from task submission to runtime acquisition is recorded by
+     * {@code gem_runtime_wait} timer, task duration by {@code gem_runtime_task} timer,
+     * waiting tasks by {@code gem_runtime_queued} gauge and rejected tasks by
+     * {@code gem_runtime_rejected} counter.
+     * </p>
+     * @param factory Runtime factory
+     * @param size Max number of runtimes and concurrent tasks
+     * @param queue Max number of tasks waiting for runtime
+     * @param metrics Runtime metrics
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public SharedRuntime(final Supplier<Ruby> factory, final int size, final int queue,
+        final Metrics metrics) {
+        this.metrics = metrics;
         this.factory = factory;
-        this.lock = new Object();
+        this.size = size;
+        this.idle = new LinkedBlockingQueue<>();
+        this.created = new AtomicInteger();
+        this.exec = new ThreadPoolExecutor(
+            size, size, 1L, TimeUnit.MINUTES, new ArrayBlockingQueue<>(queue),
+            task -> {
+                final Thread thread = new Thread(
+                    task, String.format("gem-ruby-%d", SharedRuntime.THREADS.incrementAndGet())
+                );
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+        this.exec.allowCoreThreadTimeOut(true);
     }
 
     /**
      * Apply shared runtime and interpreted to function async.
      * @param applier Function to apply
      * @param <T> Apply function result type
-     * @return Future with result of the function
+     * @return Future with result of the function, it fails with
+     *  {@link RejectedExecutionException} if too many tasks are waiting for runtime
      */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
     public <T> CompletionStage<T> apply(final Function<Ruby, T> applier) {
-        return CompletableFuture.supplyAsync(
-            () -> {
-                if (this.runtime == null) {
-                    synchronized (this.lock) {
-                        if (this.runtime == null) {
-                            this.runtime = this.factory.get();
+        final CompletableFuture<T> res = new CompletableFuture<>();
+        final long submitted = System.nanoTime();
+        this.metrics.gauge("gem_runtime_queued", 1);
+        try {
+            this.exec.execute(
+                () -> {
+                    this.metrics.gauge("gem_runtime_queued", -1);
+                    Ruby ruby = null;
+                    try {
+                        ruby = this.acquire();
+                        final long start = System.nanoTime();
+                        this.metrics.timer("gem_runtime_wait", start - submitted);
+                        final T result = applier.apply(ruby);
+                        this.metrics.timer("gem_runtime_task", System.nanoTime() - start);
+                        res.complete(result);
+                        // @checkstyle IllegalCatchCheck (1 line)
+                    } catch (final Exception err) {
+                        res.completeExceptionally(err);
+                    } finally {
+                        if (ruby != null) {
+                            this.idle.add(ruby);
                         }
                     }
                 }
-                return applier.apply(this.runtime);
-            }
+            );
+        } catch (final RejectedExecutionException err) {
+            this.metrics.gauge("gem_runtime_queued", -1);
+            this.metrics.counter("gem_runtime_rejected", 1);
+            res.completeExceptionally(err);
+        }
+        return res;
+    }
+
+    /**
+     * Create all runtimes of the pool in advance, so the first tasks
+     * don't have to wait for runtime initialization.
+     * @return Future completed when all runtimes are created
+     */
+    public CompletionStage<Void> warmUp() {
+        return CompletableFuture.runAsync(
+            () -> {
+                Ruby ruby = this.create();
+                while (ruby != null) {
+                    this.idle.add(ruby);
+                    ruby = this.create();
+                }
+            },
+            this.exec
         );
     }
+
+    /**
+     * Take idle runtime or create new one if pool is not full.
+     * @return Ruby runtime
+     * @throws InterruptedException If interrupted while waiting for runtime
+     */
+    private Ruby acquire() throws InterruptedException {
+        Ruby ruby = this.idle.poll();
+        if (ruby == null) {
+            ruby = this.create();
+        }
+        if (ruby == null) {
+            ruby = this.idle.take();
+        }
+        return ruby;
+    }
+
+    /**
+     * Create new runtime if pool is not full.
+     * @return New runtime or null if pool is full
+     */
+    private Ruby create() {
+        Ruby ruby = null;
+        if (this.created.incrementAndGet() <= this.size) {
+            boolean success = false;
+            try {
+                ruby = this.factory.get();
+                success = true;
+            } finally {
+                if (!success) {
+                    this.created.decrementAndGet();
+                }
+            }
+        } else {
+            this.created.decrementAndGet();
+        }
+        return ruby;
+    }
 }
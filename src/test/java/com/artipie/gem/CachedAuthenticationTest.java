@@ -0,0 +1,86 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.http.auth.Authentication;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link CachedAuthentication}.
+ *
+ * @since 1.0
+ */
+final class CachedAuthenticationTest {
+
+    @Test
+    void verifiesCredentialsOnce() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Authentication auth = new CachedAuthentication(
+            (name, pass) -> {
+                calls.incrementAndGet();
+                return Optional.of(new Authentication.User(name)).filter(usr -> "pwd".equals(pass));
+            },
+            Duration.ofMinutes(1), 10
+        );
+        for (int idx = 0; idx < 3; ++idx) {
+            auth.user("alice", "pwd");
+            auth.user("alice", "wrong");
+        }
+        MatcherAssert.assertThat(
+            "User is authenticated",
+            auth.user("alice", "pwd").map(Authentication.User::name),
+            Matchers.equalTo(Optional.of("alice"))
+        );
+        MatcherAssert.assertThat(
+            "Failure is cached",
+            auth.user("alice", "wrong").isPresent(),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            "Origin is called once for each credentials",
+            calls.get(),
+            Matchers.equalTo(2)
+        );
+    }
+
+    @Test
+    void verifiesExpiredCredentialsAgain() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Authentication auth = new CachedAuthentication(
+            (name, pass) -> {
+                calls.incrementAndGet();
+                return Optional.empty();
+            },
+            Duration.ZERO, 10
+        );
+        auth.user("bob", "pwd");
+        auth.user("bob", "pwd");
+        MatcherAssert.assertThat(calls.get(), Matchers.equalTo(2));
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.asto.test.TestResource;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link CompactIndex}.
+ *
+ * @since 1.0
+ */
+final class CompactIndexTest {
+
+    @Test
+    void writesInfoLineWithDependencies() {
+        final Storage storage = new InMemoryStorage();
+        new CompactIndex(storage).add(
+            Collections.singleton(CompactIndexTest.gem("gviz-0.3.5.gem"))
+        ).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            CompactIndexTest.text(storage, CompactIndex.info("gviz")),
+            Matchers.equalTo("---\n0.3.5 thor:>= 0|checksum:abc,ruby:>= 2.0.0\n")
+        );
+        MatcherAssert.assertThat(
+            CompactIndexTest.text(storage, CompactIndex.NAMES),
+            Matchers.equalTo("---\ngviz\n")
+        );
+    }
+
+    @Test
+    void appendsNewGemsToVersions() {
+        final Storage storage = new InMemoryStorage();
+        final CompactIndex index = new CompactIndex(storage);
+        index.add(Collections.singleton(CompactIndexTest.gem("gviz-0.3.5.gem")))
+            .toCompletableFuture().join();
+        final String before = CompactIndexTest.text(storage, CompactIndex.VERSIONS);
+        index.add(Collections.singleton(CompactIndexTest.gem("builder-3.2.4.gem")))
+            .toCompletableFuture().join();
+        index.add(Collections.singleton(CompactIndexTest.gem("builder-3.2.4.gem")))
+            .toCompletableFuture().join();
+        final String after = CompactIndexTest.text(storage, CompactIndex.VERSIONS);
+        MatcherAssert.assertThat(after, Matchers.startsWith(before));
+        MatcherAssert.assertThat(
+            after.substring(before.length()),
+            Matchers.equalTo("builder 3.2.4 0175128cabed9c65e4c17bcbaaf9f22c\n")
+        );
+        MatcherAssert.assertThat(
+            CompactIndexTest.text(storage, CompactIndex.NAMES),
+            Matchers.equalTo("---\nbuilder\ngviz\n")
+        );
+    }
+
+    private static IndexedGem gem(final String name) {
+        final GemArchive archive = new GemArchive();
+        archive.accept(ByteBuffer.wrap(new TestResource(name).asBytes()));
+        return new IndexedGem(archive.gemspec(), "abc");
+    }
+
+    private static String text(final Storage storage, final Key key) {
+        return new String(new BlockingStorage(storage).value(key), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.Storage;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.gem.metrics.Metrics;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link DependenciesIndex}.
+ *
+ * @since 1.0
+ */
+final class DependenciesIndexTest {
+
+    @Test
+    void doesNotCacheUnknownGem() {
+        final Storage storage = new InMemoryStorage();
+        final DependenciesIndex index = new DependenciesIndex(storage, Metrics.NOP);
+        MatcherAssert.assertThat(
+            "Unknown gem has no versions",
+            DependenciesIndexTest.numbers(index, "builder"),
+            Matchers.empty()
+        );
+        DependenciesIndexTest.info(storage, "builder", "3.2.4");
+        MatcherAssert.assertThat(
+            "Gem is loaded when it's indexed",
+            DependenciesIndexTest.numbers(index, "builder"),
+            Matchers.contains("3.2.4")
+        );
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedGem() {
+        final Storage storage = new InMemoryStorage();
+        DependenciesIndexTest.info(storage, "builder", "3.2.4");
+        DependenciesIndexTest.info(storage, "gviz", "0.3.5");
+        final DependenciesIndex index = new DependenciesIndex(storage, Metrics.NOP, 1);
+        DependenciesIndexTest.numbers(index, "builder");
+        DependenciesIndexTest.numbers(index, "gviz");
+        DependenciesIndexTest.info(storage, "builder", "3.2.5");
+        MatcherAssert.assertThat(
+            DependenciesIndexTest.numbers(index, "builder"),
+            Matchers.contains("3.2.5")
+        );
+    }
+
+    private static List<Object> numbers(final DependenciesIndex index, final String name) {
+        return index.dependencies(Collections.singleton(name)).toCompletableFuture().join()
+            .stream()
+            .map(version -> version.get(new MarshalSymbol("number")))
+            .collect(Collectors.toList());
+    }
+
+    private static void info(final Storage storage, final String name, final String version) {
+        new BlockingStorage(storage).save(
+            CompactIndex.info(name),
+            String.format("---\n%s |checksum:abc\n", version).getBytes(StandardCharsets.UTF_8)
+        );
+    }
+}
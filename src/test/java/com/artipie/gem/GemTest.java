@@ -23,15 +23,28 @@
  */
 package com.artipie.gem;
 
+import com.artipie.asto.Content;
 import com.artipie.asto.Key;
 import com.artipie.asto.Storage;
 import com.artipie.asto.blocking.BlockingStorage;
 import com.artipie.asto.memory.InMemoryStorage;
 import com.artipie.asto.test.TestResource;
+import com.artipie.gem.metrics.PrometheusMetrics;
+import com.artipie.gem.ruby.SharedRuntime;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
+import org.jruby.javasupport.JavaEmbedUtils;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -60,8 +73,257 @@ public class GemTest {
                 "latest_specs.4.8",
                 "latest_specs.4.8.gz",
                 "quick/Marshal.4.8/builder-3.2.4.gemspec.rz",
-                "gems/builder-3.2.4.gem"
+                "gems/builder-3.2.4.gem",
+                "versions",
+                "names",
+                "info/builder"
             )
         );
     }
+
+    @Test
+    public void updatesIndexWithConcurrentGems() throws Exception {
+        final Storage repo = new InMemoryStorage();
+        final Key builder = new Key.From("gems", UUID.randomUUID().toString());
+        final Key rails = new Key.From("gems", UUID.randomUUID().toString());
+        new TestResource("builder-3.2.4.gem").saveTo(repo, builder);
+        new TestResource("rails-6.0.2.2.gem").saveTo(repo, rails);
+        final Gem gem = new Gem(repo);
+        CompletableFuture.allOf(
+            gem.update(builder).toCompletableFuture(),
+            gem.update(rails).toCompletableFuture()
+        ).join();
+        final List<SpecEntry> specs = new ArrayList<>(2);
+        new SpecsReader(
+            new ByteArrayInputStream(new BlockingStorage(repo).value(new Key.From("specs.4.8")))
+        ).forEachRemaining(specs::add);
+        MatcherAssert.assertThat(
+            specs,
+            Matchers.containsInAnyOrder(
+                new SpecEntry("builder", "3.2.4"), new SpecEntry("rails", "6.0.2.2")
+            )
+        );
+    }
+
+    @Test
+    public void updatesIndexOfStorageSharedByRepositories() {
+        final Storage repo = new InMemoryStorage();
+        final Key builder = new Key.From("gems", UUID.randomUUID().toString());
+        final Key rails = new Key.From("gems", UUID.randomUUID().toString());
+        new TestResource("builder-3.2.4.gem").saveTo(repo, builder);
+        new TestResource("rails-6.0.2.2.gem").saveTo(repo, rails);
+        final SharedRuntime runtime = new SharedRuntime();
+        CompletableFuture.allOf(
+            new Gem(repo, runtime).update(builder).toCompletableFuture(),
+            new Gem(repo, runtime).update(rails).toCompletableFuture()
+        ).join();
+        final List<SpecEntry> specs = new ArrayList<>(2);
+        new SpecsReader(
+            new ByteArrayInputStream(new BlockingStorage(repo).value(new Key.From("specs.4.8")))
+        ).forEachRemaining(specs::add);
+        MatcherAssert.assertThat(
+            specs,
+            Matchers.containsInAnyOrder(
+                new SpecEntry("builder", "3.2.4"), new SpecEntry("rails", "6.0.2.2")
+            )
+        );
+    }
+
+    @Test
+    public void importsAllGemsByPrefix() throws Exception {
+        final Storage repo = new InMemoryStorage();
+        final Key prefix = new Key.From("import");
+        new TestResource("builder-3.2.4.gem")
+            .saveTo(repo, new Key.From(prefix, "first.gem"));
+        new TestResource("gviz-0.3.5.gem")
+            .saveTo(repo, new Key.From(prefix, "second.gem"));
+        new Gem(repo).updateAll(prefix).toCompletableFuture().join();
+        final List<SpecEntry> specs = new ArrayList<>(2);
+        new SpecsReader(
+            new ByteArrayInputStream(new BlockingStorage(repo).value(new Key.From("specs.4.8")))
+        ).forEachRemaining(specs::add);
+        MatcherAssert.assertThat(
+            specs,
+            Matchers.containsInAnyOrder(
+                new SpecEntry("builder", "3.2.4"), new SpecEntry("gviz", "0.3.5")
+            )
+        );
+        MatcherAssert.assertThat(
+            "Gems are moved out of import prefix",
+            new BlockingStorage(repo).list(prefix),
+            Matchers.empty()
+        );
+        MatcherAssert.assertThat(
+            "Gems are moved to gems directory",
+            new BlockingStorage(repo).list(new Key.From("gems"))
+                .stream().map(Key::string)
+                .collect(Collectors.toSet()),
+            Matchers.containsInAnyOrder("gems/builder-3.2.4.gem", "gems/gviz-0.3.5.gem")
+        );
+    }
+
+    @Test
+    public void indexesReadableGemsOfBatch() {
+        final Storage repo = new InMemoryStorage();
+        final Key broken = new Key.From("gems", "broken.gem");
+        new BlockingStorage(repo).save(broken, "not a gem".getBytes(StandardCharsets.UTF_8));
+        final Key builder = new Key.From("gems", "builder.gem");
+        new TestResource("builder-3.2.4.gem").saveTo(repo, builder);
+        final CompletableFuture<Void> update = new Gem(repo)
+            .update(Arrays.asList(broken, builder)).toCompletableFuture();
+        MatcherAssert.assertThat(
+            "Update with broken gem fails",
+            update.handle((none, err) -> err != null).join(),
+            Matchers.is(true)
+        );
+        final List<SpecEntry> specs = new ArrayList<>(1);
+        new SpecsReader(
+            new ByteArrayInputStream(new BlockingStorage(repo).value(new Key.From("specs.4.8")))
+        ).forEachRemaining(specs::add);
+        MatcherAssert.assertThat(
+            "Readable gem is indexed",
+            specs,
+            Matchers.contains(new SpecEntry("builder", "3.2.4"))
+        );
+    }
+
+    @Test
+    public void pushesGemWithSingleWrite() {
+        final Storage repo = new InMemoryStorage();
+        final Key key = new Gem(repo).push(
+            new Content.From(new TestResource("builder-3.2.4.gem").asBytes())
+        ).toCompletableFuture().join();
+        MatcherAssert.assertThat(key.string(), Matchers.equalTo("gems/builder-3.2.4.gem"));
+        MatcherAssert.assertThat(
+            new BlockingStorage(repo).list(new Key.From("gems"))
+                .stream().map(Key::string)
+                .collect(Collectors.toList()),
+            Matchers.containsInAnyOrder("gems/builder-3.2.4.gem")
+        );
+        MatcherAssert.assertThat(
+            new BlockingStorage(repo).list(StoredEtag.PREFIX)
+                .stream().map(Key::string)
+                .collect(Collectors.toList()),
+            Matchers.hasItem(".meta/gems/builder-3.2.4.gem.etag")
+        );
+    }
+
+    @Test
+    public void recordsPushMetrics() {
+        final PrometheusMetrics metrics = new PrometheusMetrics();
+        final byte[] bytes = new TestResource("builder-3.2.4.gem").asBytes();
+        new Gem(new InMemoryStorage(), new SharedRuntime(), metrics)
+            .push(new Content.From(bytes)).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            metrics.text(),
+            Matchers.allOf(
+                Matchers.containsString("gem_push_seconds_count 1\n"),
+                Matchers.containsString("gem_index_quick_seconds_count 1\n"),
+                Matchers.containsString(String.format("gem_push_bytes_total %d\n", bytes.length)),
+                Matchers.containsString("gem_push_inflight 0\n")
+            )
+        );
+    }
+
+    @Test
+    public void findsInfoOfNewestVersionByExactName() {
+        final Storage repo = new InMemoryStorage();
+        final Gem gem = new Gem(repo);
+        gem.push(new Content.From(new TestResource("builder-3.2.4.gem").asBytes()))
+            .toCompletableFuture().join();
+        gem.push(new Content.From(new TestResource("gviz-0.3.5.gem").asBytes()))
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            EntryFormat.entry(gem.info("builder").toCompletableFuture().join()),
+            Matchers.equalTo(new SpecEntry("builder", "3.2.4"))
+        );
+        MatcherAssert.assertThat(
+            gem.info("uilder").handle((info, err) -> err != null).toCompletableFuture().join(),
+            Matchers.is(true)
+        );
+    }
+
+    @Test
+    public void generatesQuickGemspecOnceForConcurrentRequests() throws Exception {
+        final Storage repo = new InMemoryStorage();
+        new TestResource("builder-3.2.4.gem").saveTo(repo, new Key.From("gems/builder-3.2.4.gem"));
+        final CountDownLatch requested = new CountDownLatch(1);
+        final PrometheusMetrics metrics = new PrometheusMetrics();
+        final Gem gem = new Gem(
+            repo,
+            new SharedRuntime(
+                () -> {
+                    try {
+                        requested.await(1, TimeUnit.MINUTES);
+                    } catch (final InterruptedException err) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException(err);
+                    }
+                    return JavaEmbedUtils.initialize(Collections.emptyList());
+                },
+                1, 2, metrics
+            ),
+            metrics
+        );
+        final CompletableFuture<Boolean> first = gem.quickspec("builder-3.2.4")
+            .toCompletableFuture();
+        final CompletableFuture<Boolean> second = gem.quickspec("builder-3.2.4")
+            .toCompletableFuture();
+        requested.countDown();
+        MatcherAssert.assertThat(
+            "Both requests find gemspec",
+            first.join() && second.join(),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            "Gemspec is converted once",
+            metrics.text(),
+            Matchers.allOf(
+                Matchers.containsString("gem_quickspec_generate_seconds_count 1\n"),
+                Matchers.containsString("gem_runtime_task_seconds_count 1\n")
+            )
+        );
+        MatcherAssert.assertThat(
+            "Gemspec is saved",
+            repo.list(new Key.From("quick")).join().stream()
+                .map(Key::string)
+                .collect(Collectors.toList()),
+            Matchers.containsInAnyOrder("quick/Marshal.4.8/builder-3.2.4.gemspec.rz")
+        );
+        MatcherAssert.assertThat(
+            "Gemspec entity tag is saved",
+            repo.exists(
+                StoredEtag.sidecar(new Key.From("quick/Marshal.4.8/builder-3.2.4.gemspec.rz"))
+            ).join(),
+            Matchers.is(true)
+        );
+    }
+
+    @Test
+    public void yanksGemVersion() {
+        final Storage repo = new InMemoryStorage();
+        final Gem gem = new Gem(repo);
+        gem.push(new Content.From(new TestResource("builder-3.2.4.gem").asBytes()))
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Gem is yanked",
+            gem.yank("builder", "3.2.4", "ruby").toCompletableFuture().join(),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            "Gem files are deleted",
+            repo.list(new Key.From("gems")).join(),
+            Matchers.empty()
+        );
+        MatcherAssert.assertThat(
+            "Gem is removed from index",
+            gem.latest("builder").toCompletableFuture().join().isPresent(),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            "Unknown gem is not yanked",
+            gem.yank("builder", "3.2.4", "ruby").toCompletableFuture().join(),
+            Matchers.is(false)
+        );
+    }
 }
@@ -0,0 +1,169 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link GroupIndex}.
+ *
+ * @since 1.0
+ */
+final class GroupIndexTest {
+
+    @Test
+    void mergesSpecsOfMembers() throws IOException {
+        final Storage first = new InMemoryStorage();
+        final Storage second = new InMemoryStorage();
+        new SpecsIndex(first).add(
+            Arrays.asList(new SpecEntry("builder", "3.2.4"), new SpecEntry("rails", "6.0.2.2"))
+        ).toCompletableFuture().join();
+        new SpecsIndex(second).add(
+            Arrays.asList(
+                new SpecEntry("builder", "3.2.3"), new SpecEntry("builder", "3.2.4"),
+                new SpecEntry("gviz", "0.3.5")
+            )
+        ).toCompletableFuture().join();
+        final GroupIndex index = new GroupIndex(Arrays.asList(first, second));
+        MatcherAssert.assertThat(
+            "Specs are merged",
+            GroupIndexTest.specs(index, "specs.4.8.gz"),
+            Matchers.contains(
+                new SpecEntry("builder", "3.2.3"), new SpecEntry("builder", "3.2.4"),
+                new SpecEntry("gviz", "0.3.5"), new SpecEntry("rails", "6.0.2.2")
+            )
+        );
+        MatcherAssert.assertThat(
+            "Latest specs are merged",
+            GroupIndexTest.specs(index, "latest_specs.4.8.gz"),
+            Matchers.contains(
+                new SpecEntry("builder", "3.2.4"), new SpecEntry("gviz", "0.3.5"),
+                new SpecEntry("rails", "6.0.2.2")
+            )
+        );
+    }
+
+    @Test
+    void mergesCompactIndexOfMembers() {
+        final Storage first = new InMemoryStorage();
+        first.save(CompactIndex.NAMES, GroupIndexTest.text("---\nbuilder\nrails\n")).join();
+        first.save(
+            CompactIndex.VERSIONS,
+            GroupIndexTest.text("created_at: 2020\n---\nbuilder 3.2.4 a\nrails 6.0 b\n")
+        ).join();
+        first.save(CompactIndex.info("builder"), GroupIndexTest.text("---\n3.2.4 |checksum:1\n"))
+            .join();
+        final Storage second = new InMemoryStorage();
+        second.save(CompactIndex.NAMES, GroupIndexTest.text("---\nbuilder\ngviz\n")).join();
+        second.save(
+            CompactIndex.VERSIONS,
+            GroupIndexTest.text("created_at: 2020\n---\nbuilder 3.2.3,3.2.4 c\ngviz 0.3.5 d\n")
+        ).join();
+        second.save(
+            CompactIndex.info("builder"),
+            GroupIndexTest.text("---\n3.2.3 |checksum:2\n3.2.4 |checksum:3\n")
+        ).join();
+        final GroupIndex index = new GroupIndex(Arrays.asList(first, second));
+        final String info = "---\n3.2.4 |checksum:1\n3.2.3 |checksum:2\n";
+        MatcherAssert.assertThat(
+            "Names are merged",
+            GroupIndexTest.string(index, CompactIndex.NAMES),
+            Matchers.equalTo("---\nbuilder\ngviz\nrails\n")
+        );
+        MatcherAssert.assertThat(
+            "Info is merged",
+            GroupIndexTest.string(index, CompactIndex.info("builder")),
+            Matchers.equalTo(info)
+        );
+        MatcherAssert.assertThat(
+            "Versions are merged",
+            GroupIndexTest.string(index, CompactIndex.VERSIONS),
+            Matchers.endsWith(
+                String.format(
+                    "---\nrails 6.0 b\ngviz 0.3.5 d\nbuilder 3.2.4,3.2.3 %s\n",
+                    CompactIndex.md5(info.getBytes(StandardCharsets.UTF_8))
+                )
+            )
+        );
+    }
+
+    @Test
+    void doesNotSaveMissingInfo() {
+        final Storage target = new InMemoryStorage();
+        MatcherAssert.assertThat(
+            "Missing info is not merged",
+            new GroupIndex(Arrays.asList(new InMemoryStorage(), new InMemoryStorage()))
+                .merge(CompactIndex.info("gviz"), target).toCompletableFuture().join(),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            "Nothing is saved to target",
+            new BlockingStorage(target).list(Key.ROOT),
+            Matchers.empty()
+        );
+    }
+
+    private static List<SpecEntry> specs(final GroupIndex index, final String key)
+        throws IOException {
+        final List<SpecEntry> res = new ArrayList<>(0);
+        new SpecsReader(
+            new GZIPInputStream(
+                new ByteArrayInputStream(GroupIndexTest.merged(index, new Key.From(key)))
+            )
+        ).forEachRemaining(res::add);
+        return res;
+    }
+
+    private static String string(final GroupIndex index, final Key key) {
+        return new String(GroupIndexTest.merged(index, key), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] merged(final GroupIndex index, final Key key) {
+        final Storage target = new InMemoryStorage();
+        MatcherAssert.assertThat(
+            "Merged file is saved",
+            index.merge(key, target).toCompletableFuture().join(),
+            Matchers.is(true)
+        );
+        return new BlockingStorage(target).value(key);
+    }
+
+    private static Content text(final String text) {
+        return new Content.From(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.lock.Lock;
+import com.artipie.asto.lock.storage.StorageLock;
+import com.artipie.asto.memory.InMemoryStorage;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link IndexLock}.
+ *
+ * @since 1.0
+ */
+final class IndexLockTest {
+
+    /**
+     * Lock key.
+     */
+    private static final Key KEY = new Key.From("specs.4.8");
+
+    @Test
+    void waitsForLockHeldByOtherInstance() {
+        final Storage storage = new InMemoryStorage();
+        final Lock held = new StorageLock(storage, IndexLockTest.KEY);
+        held.acquire().toCompletableFuture().join();
+        final CompletableFuture<Void> acquired = new IndexLock(
+            new StorageLock(storage, IndexLockTest.KEY)
+        ).acquire().toCompletableFuture();
+        MatcherAssert.assertThat(
+            "Lock is not acquired while held",
+            acquired.isDone(),
+            Matchers.is(false)
+        );
+        held.release().toCompletableFuture().join();
+        acquired.join();
+        MatcherAssert.assertThat(
+            "Lock is acquired after release",
+            acquired.isCompletedExceptionally(),
+            Matchers.is(false)
+        );
+    }
+
+    @Test
+    void failsAfterLastAttempt() {
+        final Storage storage = new InMemoryStorage();
+        new StorageLock(storage, IndexLockTest.KEY).acquire().toCompletableFuture().join();
+        Assertions.assertThrows(
+            CompletionException.class,
+            () -> new IndexLock(new StorageLock(storage, IndexLockTest.KEY), 2)
+                .acquire().toCompletableFuture().join()
+        );
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.ArtipieIOException;
+import com.artipie.asto.Key;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link IndexQueue}.
+ *
+ * @since 1.0
+ */
+final class IndexQueueTest {
+
+    @Test
+    void failsOnlyUpdatesOfFailedGems() {
+        final Key bad = new Key.From("gems", "bad.gem");
+        final Key good = new Key.From("gems", "good.gem");
+        final CompletableFuture<Map<Key, Throwable>> first = new CompletableFuture<>();
+        final List<Collection<Key>> batches = new ArrayList<>(2);
+        final IndexQueue queue = new IndexQueue(
+            keys -> {
+                final CompletionStage<Map<Key, Throwable>> res;
+                batches.add(keys);
+                if (batches.size() == 1) {
+                    res = first;
+                } else {
+                    res = CompletableFuture.completedFuture(
+                        Collections.singletonMap(bad, new ArtipieIOException("broken gem"))
+                    );
+                }
+                return res;
+            }
+        );
+        queue.add(Collections.singleton(new Key.From("gems", "first.gem")));
+        final CompletableFuture<Void> failed = queue.add(Collections.singleton(bad))
+            .toCompletableFuture();
+        final CompletableFuture<Void> indexed = queue.add(Collections.singleton(good))
+            .toCompletableFuture();
+        first.complete(Collections.emptyMap());
+        MatcherAssert.assertThat(
+            "Pending gems are indexed in one batch",
+            batches.get(1),
+            Matchers.contains(bad, good)
+        );
+        MatcherAssert.assertThat(
+            "Update of failed gem fails",
+            failed.isCompletedExceptionally(),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            "Update of other gem succeeds",
+            indexed.isDone() && !indexed.isCompletedExceptionally(),
+            Matchers.is(true)
+        );
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link MarshalGemIndex}.
+ *
+ * @since 1.0
+ */
+@SuppressWarnings("deprecation")
+final class MarshalGemIndexTest {
+
+    @Test
+    void addsEntriesToSpecs(@TempDir final Path tmp) throws IOException {
+        final Path gems = Files.createDirectory(tmp.resolve("gems"));
+        new MarshalGemIndex(MarshalGemIndexTest.meta("1.0.0"))
+            .update(Files.createFile(gems.resolve("foo-1.0.0.gem")));
+        new MarshalGemIndex(MarshalGemIndexTest.meta("1.1.0"))
+            .update(Files.createFile(gems.resolve("foo-1.1.0.gem")));
+        MatcherAssert.assertThat(
+            MarshalGemIndexTest.entries(tmp.resolve("specs.4.8")),
+            Matchers.contains(new SpecEntry("foo", "1.0.0"), new SpecEntry("foo", "1.1.0"))
+        );
+        MatcherAssert.assertThat(
+            MarshalGemIndexTest.entries(tmp.resolve("latest_specs.4.8")),
+            Matchers.contains(new SpecEntry("foo", "1.1.0"))
+        );
+    }
+
+    @Test
+    void addsPrereleaseEntries(@TempDir final Path tmp) throws IOException {
+        final Path gems = Files.createDirectory(tmp.resolve("gems"));
+        new MarshalGemIndex(MarshalGemIndexTest.meta("2.0.0.rc1"))
+            .update(Files.createFile(gems.resolve("foo-2.0.0.rc1.gem")));
+        MatcherAssert.assertThat(
+            MarshalGemIndexTest.entries(tmp.resolve("prerelease_specs.4.8")),
+            Matchers.contains(new SpecEntry("foo", "2.0.0.rc1"))
+        );
+        MatcherAssert.assertThat(
+            MarshalGemIndexTest.entries(tmp.resolve("specs.4.8")),
+            Matchers.empty()
+        );
+        MatcherAssert.assertThat(
+            Files.exists(tmp.resolve("latest_specs.4.8.gz")),
+            Matchers.is(true)
+        );
+    }
+
+    private static GemMeta meta(final String version) {
+        return path -> fmt -> {
+            fmt.print("name", "foo");
+            fmt.print("version", version);
+        };
+    }
+
+    private static List<SpecEntry> entries(final Path file) throws IOException {
+        final List<SpecEntry> res = new ArrayList<>(2);
+        try (InputStream input = Files.newInputStream(file)) {
+            new SpecsReader(input).forEachRemaining(res::add);
+        }
+        return res;
+    }
+}
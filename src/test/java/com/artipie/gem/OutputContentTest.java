@@ -0,0 +1,95 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.ext.PublisherAs;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link OutputContent}.
+ *
+ * @since 1.0
+ */
+final class OutputContentTest {
+
+    /**
+     * Source executor.
+     */
+    private ExecutorService exec;
+
+    @BeforeEach
+    void setUp() {
+        this.exec = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.exec.shutdownNow();
+    }
+
+    @Test
+    void publishesWrittenBytes() {
+        final byte[] bytes = new byte[1024 * 1024 + 7];
+        Arrays.fill(bytes, (byte) 'a');
+        MatcherAssert.assertThat(
+            new PublisherAs(
+                new OutputContent(
+                    out -> {
+                        out.write('b');
+                        out.write(bytes);
+                    },
+                    this.exec
+                )
+            ).bytes().toCompletableFuture().join().length,
+            Matchers.equalTo(bytes.length + 1)
+        );
+    }
+
+    @Test
+    void failsWhenSourceFails() {
+        final CompletionException err = Assertions.assertThrows(
+            CompletionException.class,
+            () -> new PublisherAs(
+                new OutputContent(
+                    out -> {
+                        out.write('a');
+                        throw new IOException("broken");
+                    },
+                    this.exec
+                )
+            ).bytes().toCompletableFuture().join()
+        );
+        MatcherAssert.assertThat(err.getCause(), Matchers.instanceOf(IOException.class));
+    }
+}
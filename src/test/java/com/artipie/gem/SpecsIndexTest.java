@@ -0,0 +1,191 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.ArtipieIOException;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link SpecsIndex}.
+ *
+ * @since 1.0
+ */
+final class SpecsIndexTest {
+
+    @Test
+    void mergesEntriesInStorage() {
+        final Storage storage = new InMemoryStorage();
+        final SpecsIndex index = new SpecsIndex(storage);
+        index.add(Collections.singleton(new SpecEntry("foo", "1.0.0")))
+            .toCompletableFuture().join();
+        index.add(Arrays.asList(new SpecEntry("foo", "1.1.0"), new SpecEntry("foo", "2.0.0.rc1")))
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            SpecsIndexTest.entries(storage, "specs.4.8"),
+            Matchers.contains(new SpecEntry("foo", "1.0.0"), new SpecEntry("foo", "1.1.0"))
+        );
+        MatcherAssert.assertThat(
+            SpecsIndexTest.entries(storage, "latest_specs.4.8"),
+            Matchers.contains(new SpecEntry("foo", "1.1.0"))
+        );
+        MatcherAssert.assertThat(
+            SpecsIndexTest.entries(storage, "prerelease_specs.4.8"),
+            Matchers.contains(new SpecEntry("foo", "2.0.0.rc1"))
+        );
+    }
+
+    @Test
+    void removesEntryAndRecomputesLatestOfGem() {
+        final Storage storage = new InMemoryStorage();
+        final SpecsIndex index = new SpecsIndex(storage);
+        index.add(
+            Arrays.asList(
+                new SpecEntry("foo", "1.0.0"), new SpecEntry("foo", "1.1.0"),
+                new SpecEntry("bar", "0.1.0")
+            )
+        ).toCompletableFuture().join();
+        index.remove(new SpecEntry("foo", "1.1.0")).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Entry is removed from specs",
+            SpecsIndexTest.entries(storage, "specs.4.8"),
+            Matchers.contains(new SpecEntry("bar", "0.1.0"), new SpecEntry("foo", "1.0.0"))
+        );
+        MatcherAssert.assertThat(
+            "Previous version is latest",
+            SpecsIndexTest.entries(storage, "latest_specs.4.8"),
+            Matchers.contains(new SpecEntry("bar", "0.1.0"), new SpecEntry("foo", "1.0.0"))
+        );
+    }
+
+    @Test
+    void indexesPlatformsAndPrereleases() {
+        final Storage storage = new InMemoryStorage();
+        final SpecsIndex index = new SpecsIndex(storage);
+        final SpecEntry linux = new SpecEntry(
+            "nokogiri", new GemVersion("1.10.0"), "x86_64-linux"
+        );
+        index.add(Arrays.asList(new SpecEntry("nokogiri", "1.9.0"), linux))
+            .toCompletableFuture().join();
+        index.add(
+            Arrays.asList(
+                new SpecEntry("nokogiri", "1.10.0"), new SpecEntry("nokogiri", "1.11.0.rc1"), linux
+            )
+        ).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Specs contain all platforms once",
+            SpecsIndexTest.entries(storage, "specs.4.8"),
+            Matchers.contains(
+                new SpecEntry("nokogiri", "1.9.0"), new SpecEntry("nokogiri", "1.10.0"), linux
+            )
+        );
+        MatcherAssert.assertThat(
+            "Latest specs contain latest version of each platform",
+            SpecsIndexTest.entries(storage, "latest_specs.4.8"),
+            Matchers.contains(new SpecEntry("nokogiri", "1.10.0"), linux)
+        );
+        MatcherAssert.assertThat(
+            "Prerelease specs contain prerelease",
+            SpecsIndexTest.entries(storage, "prerelease_specs.4.8"),
+            Matchers.contains(new SpecEntry("nokogiri", "1.11.0.rc1"))
+        );
+    }
+
+    @Test
+    void mergesIntoSpecsOfRubygemsIndexer() {
+        final Storage storage = new InMemoryStorage();
+        final SpecEntry java = new SpecEntry("foo", new GemVersion("1.0.0"), "java");
+        final SpecsStream existing = new SpecsStream();
+        Arrays.asList(
+            new SpecEntry("bar", "0.1.0"), new SpecEntry("foo", "1.0.0"), java,
+            new SpecEntry("foo", "1.0.0")
+        ).forEach(existing);
+        new BlockingStorage(storage).save(new Key.From("specs.4.8"), existing.bytes());
+        new SpecsIndex(storage).add(Collections.singleton(new SpecEntry("foo", "0.9.0")))
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            "Specs are sorted without duplicates",
+            SpecsIndexTest.entries(storage, "specs.4.8"),
+            Matchers.contains(
+                new SpecEntry("bar", "0.1.0"), new SpecEntry("foo", "0.9.0"), java,
+                new SpecEntry("foo", "1.0.0")
+            )
+        );
+        MatcherAssert.assertThat(
+            "Latest specs contain each gem and platform once",
+            SpecsIndexTest.entries(storage, "latest_specs.4.8"),
+            Matchers.contains(new SpecEntry("bar", "0.1.0"), java, new SpecEntry("foo", "1.0.0"))
+        );
+    }
+
+    @Test
+    void failsOnSpecsNotSortedByNames() {
+        final Iterator<SpecEntry> ordered = SpecsIndex.ordered(
+            Arrays.asList(new SpecEntry("foo", "1.0.0"), new SpecEntry("bar", "0.1.0"))
+                .iterator()
+        );
+        ordered.next();
+        Assertions.assertThrows(ArtipieIOException.class, ordered::hasNext);
+    }
+
+    @Test
+    void writesOnlyIndexKeysWithEtags() {
+        final Storage storage = new InMemoryStorage();
+        new SpecsIndex(storage).add(Collections.singleton(new SpecEntry("foo", "1.0.0")))
+            .toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            new BlockingStorage(storage).list(Key.ROOT)
+                .stream().map(Key::string)
+                .collect(Collectors.toList()),
+            Matchers.containsInAnyOrder(
+                "latest_specs.4.8", "latest_specs.4.8.gz", "prerelease_specs.4.8",
+                "prerelease_specs.4.8.gz", "specs.4.8", "specs.4.8.gz",
+                ".meta/latest_specs.4.8.etag", ".meta/latest_specs.4.8.gz.etag",
+                ".meta/prerelease_specs.4.8.etag", ".meta/prerelease_specs.4.8.gz.etag",
+                ".meta/specs.4.8.etag", ".meta/specs.4.8.gz.etag"
+            )
+        );
+    }
+
+    private static List<SpecEntry> entries(final Storage storage, final String name) {
+        final List<SpecEntry> res = new ArrayList<>(2);
+        new SpecsReader(
+            new ByteArrayInputStream(new BlockingStorage(storage).value(new Key.From(name)))
+        ).forEachRemaining(res::add);
+        return res;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.test.TestResource;
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link SpecsReader}.
+ *
+ * @since 1.0
+ */
+final class SpecsReaderTest {
+
+    @Test
+    void readsRubySpecs() {
+        final List<SpecEntry> entries = new ArrayList<>(1);
+        new SpecsReader(
+            new ByteArrayInputStream(new TestResource("test/specs.4.8").asBytes())
+        ).forEachRemaining(entries::add);
+        MatcherAssert.assertThat(
+            entries,
+            Matchers.contains(new SpecEntry("builder", "3.2.4"))
+        );
+    }
+
+    @Test
+    void readsWrittenEntriesWithLinks() {
+        final List<SpecEntry> entries = Arrays.asList(
+            new SpecEntry("rails", "6.0.2.2"),
+            new SpecEntry("rails", new GemVersion("6.1.0.rc1"), "ruby"),
+            new SpecEntry("nokogiri", new GemVersion("1.11.1"), "x86_64-linux"),
+            new SpecEntry("nokogiri", new GemVersion("1.11.1"), "java")
+        );
+        final SpecsStream stream = new SpecsStream();
+        entries.forEach(stream);
+        final List<SpecEntry> read = new ArrayList<>(entries.size());
+        new SpecsReader(new ByteArrayInputStream(stream.bytes())).forEachRemaining(read::add);
+        MatcherAssert.assertThat(read, Matchers.equalTo(entries));
+    }
+}
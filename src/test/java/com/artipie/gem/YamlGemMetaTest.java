@@ -0,0 +1,85 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.test.TestResource;
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import wtf.g4s8.hamcrest.json.JsonHas;
+import wtf.g4s8.hamcrest.json.JsonValueIs;
+
+/**
+ * Test case for {@link YamlGemMeta}.
+ *
+ * @since 1.0
+ */
+final class YamlGemMetaTest {
+
+    @Test
+    void readsGemInfoFromFile() {
+        MatcherAssert.assertThat(
+            YamlGemMetaTest.json(
+                new YamlGemMeta().info(new TestResource("builder-3.2.4.gem").asPath())
+            ),
+            Matchers.allOf(
+                new JsonHas("name", new JsonValueIs("builder")),
+                new JsonHas("version", new JsonValueIs("3.2.4")),
+                new JsonHas("platform", new JsonValueIs("ruby"))
+            )
+        );
+    }
+
+    @Test
+    void readsGemInfoFromContent() {
+        MatcherAssert.assertThat(
+            YamlGemMetaTest.json(
+                new YamlGemMeta().info(
+                    new Content.From(new TestResource("rails-6.0.2.2.gem").asBytes())
+                ).toCompletableFuture().join()
+            ),
+            Matchers.allOf(
+                new JsonHas("name", new JsonValueIs("rails")),
+                new JsonHas("version", new JsonValueIs("6.0.2.2")),
+                new JsonHas(
+                    "dependencies",
+                    new JsonHas(
+                        "runtime",
+                        new JsonHas("activesupport", new JsonValueIs("= 6.0.2.2"))
+                    )
+                )
+            )
+        );
+    }
+
+    private static JsonObject json(final GemMeta.MetaInfo info) {
+        final JsonObjectBuilder json = Json.createObjectBuilder();
+        info.print(new JsonMetaFormat(json));
+        return json.build();
+    }
+}
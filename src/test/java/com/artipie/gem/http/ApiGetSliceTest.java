@@ -23,13 +23,19 @@
  */
 package com.artipie.gem.http;
 
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
 import com.artipie.asto.fs.FileStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.gem.Gem;
 import com.artipie.http.Headers;
 import com.artipie.http.hm.IsJson;
 import com.artipie.http.hm.RsHasBody;
+import com.artipie.http.hm.RsHasStatus;
 import com.artipie.http.hm.SliceHasResponse;
 import com.artipie.http.rq.RequestLine;
 import com.artipie.http.rq.RqMethod;
+import com.artipie.http.rs.RsStatus;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -53,13 +59,16 @@ final class ApiGetSliceTest {
 
     @Test
     public void queryResultsInOkResponse(@TempDir final Path tmp) throws IOException {
-        final Path target = tmp.resolve("gviz-0.3.5.gem");
+        final Path target = Files.createDirectory(tmp.resolve("gems")).resolve("gviz-0.3.5.gem");
         try (InputStream is = this.getClass().getResourceAsStream("/gviz-0.3.5.gem");
             OutputStream os = Files.newOutputStream(target)) {
             IOUtils.copy(is, os);
         }
+        final Storage storage = new FileStorage(tmp);
+        new Gem(storage).update(new Key.From("gems", "gviz-0.3.5.gem"))
+            .toCompletableFuture().join();
         MatcherAssert.assertThat(
-            new ApiGetSlice(new FileStorage(tmp)),
+            new ApiGetSlice(storage),
             new SliceHasResponse(
                 Matchers.allOf(
                     new RsHasBody(
@@ -77,5 +86,15 @@ final class ApiGetSliceTest {
             )
         );
     }
-}
 
+    @Test
+    void returnsNotFoundForUnknownGem() {
+        MatcherAssert.assertThat(
+            new ApiGetSlice(new InMemoryStorage()),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.NOT_FOUND),
+                new RequestLine(RqMethod.GET, "/api/v1/gems/rails.json")
+            )
+        );
+    }
+}
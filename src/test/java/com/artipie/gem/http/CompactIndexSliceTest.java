@@ -0,0 +1,126 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.gem.StoredEtag;
+import com.artipie.http.Headers;
+import com.artipie.http.hm.IsHeader;
+import com.artipie.http.hm.RsHasBody;
+import com.artipie.http.hm.RsHasHeaders;
+import com.artipie.http.hm.RsHasStatus;
+import com.artipie.http.hm.SliceHasResponse;
+import com.artipie.http.rq.RequestLine;
+import com.artipie.http.rq.RqMethod;
+import com.artipie.http.rs.RsStatus;
+import java.nio.charset.StandardCharsets;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link CompactIndexSlice}.
+ *
+ * @since 1.0
+ */
+final class CompactIndexSliceTest {
+
+    /**
+     * Names file content.
+     */
+    private static final byte[] NAMES = "---\nbuilder\n".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * MD5 of names file content.
+     */
+    private static final String ETAG = "\"b191c68c18be13da2af3381fc73d419c\"";
+
+    /**
+     * Last modification time of names file.
+     */
+    private static final String MODIFIED = "Tue, 3 Jun 2008 11:05:30 GMT";
+
+    @Test
+    void servesFileWithEtag() {
+        MatcherAssert.assertThat(
+            new CompactIndexSlice(CompactIndexSliceTest.storage()),
+            new SliceHasResponse(
+                Matchers.allOf(
+                    new RsHasStatus(RsStatus.OK),
+                    new RsHasHeaders(
+                        new IsHeader("ETag", CompactIndexSliceTest.ETAG),
+                        new IsHeader("Last-Modified", CompactIndexSliceTest.MODIFIED),
+                        new IsHeader("Content-Type", "text/plain; charset=utf-8"),
+                        new IsHeader("Content-Disposition", "attachment; filename=\"names\""),
+                        new IsHeader("Content-Length", "12")
+                    ),
+                    new RsHasBody(CompactIndexSliceTest.NAMES)
+                ),
+                new RequestLine(RqMethod.GET, "/names")
+            )
+        );
+    }
+
+    @Test
+    void respondsNotModifiedForMatchingEtag() {
+        MatcherAssert.assertThat(
+            new CompactIndexSlice(CompactIndexSliceTest.storage()),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.NOT_MODIFIED),
+                new RequestLine(RqMethod.GET, "/names"),
+                new Headers.From("If-None-Match", CompactIndexSliceTest.ETAG),
+                Content.EMPTY
+            )
+        );
+    }
+
+    @Test
+    void respondsNotFoundForUnknownGem() {
+        MatcherAssert.assertThat(
+            new CompactIndexSlice(CompactIndexSliceTest.storage()),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.NOT_FOUND),
+                new RequestLine(RqMethod.GET, "/info/rails")
+            )
+        );
+    }
+
+    private static Storage storage() {
+        final Storage storage = new InMemoryStorage();
+        final Key key = new Key.From("names");
+        storage.save(key, new Content.From(CompactIndexSliceTest.NAMES)).join();
+        storage.save(
+            StoredEtag.sidecar(key),
+            new Content.From(
+                String.format(
+                    "%s\n%s\n", CompactIndexSliceTest.ETAG, CompactIndexSliceTest.MODIFIED
+                ).getBytes(StandardCharsets.UTF_8)
+            )
+        ).join();
+        return storage;
+    }
+}
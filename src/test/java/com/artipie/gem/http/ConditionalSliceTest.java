@@ -0,0 +1,140 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.gem.StoredEtag;
+import com.artipie.http.Headers;
+import com.artipie.http.hm.IsHeader;
+import com.artipie.http.hm.RsHasHeaders;
+import com.artipie.http.hm.RsHasStatus;
+import com.artipie.http.hm.SliceHasResponse;
+import com.artipie.http.rq.RequestLine;
+import com.artipie.http.rq.RqMethod;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.StandardRs;
+import com.artipie.http.slice.SliceSimple;
+import java.nio.charset.StandardCharsets;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link ConditionalSlice}.
+ *
+ * @since 1.0
+ */
+final class ConditionalSliceTest {
+
+    /**
+     * Entity tag.
+     */
+    private static final String ETAG = "\"abc\"";
+
+    /**
+     * Last modification time.
+     */
+    private static final String MODIFIED = "Tue, 3 Jun 2008 11:05:30 GMT";
+
+    @Test
+    void respondsNotModifiedForMatchingEtag() {
+        MatcherAssert.assertThat(
+            new ConditionalSlice(ConditionalSliceTest.storage(), new SliceSimple(StandardRs.OK)),
+            new SliceHasResponse(
+                Matchers.allOf(
+                    new RsHasStatus(RsStatus.NOT_MODIFIED),
+                    new RsHasHeaders(
+                        new IsHeader("ETag", ConditionalSliceTest.ETAG),
+                        new IsHeader("Last-Modified", ConditionalSliceTest.MODIFIED)
+                    )
+                ),
+                new RequestLine(RqMethod.GET, "/specs.4.8.gz"),
+                new Headers.From("If-None-Match", "\"xyz\", \"abc\""),
+                Content.EMPTY
+            )
+        );
+    }
+
+    @Test
+    void respondsNotModifiedSinceDate() {
+        MatcherAssert.assertThat(
+            new ConditionalSlice(ConditionalSliceTest.storage(), new SliceSimple(StandardRs.OK)),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.NOT_MODIFIED),
+                new RequestLine(RqMethod.GET, "/specs.4.8.gz"),
+                new Headers.From("If-Modified-Since", "Wed, 4 Jun 2008 11:05:30 GMT"),
+                Content.EMPTY
+            )
+        );
+    }
+
+    @Test
+    void respondsWithEtagForChangedContent() {
+        MatcherAssert.assertThat(
+            new ConditionalSlice(ConditionalSliceTest.storage(), new SliceSimple(StandardRs.OK)),
+            new SliceHasResponse(
+                Matchers.allOf(
+                    new RsHasStatus(RsStatus.OK),
+                    new RsHasHeaders(
+                        new IsHeader("ETag", ConditionalSliceTest.ETAG),
+                        new IsHeader("Last-Modified", ConditionalSliceTest.MODIFIED)
+                    )
+                ),
+                new RequestLine(RqMethod.GET, "/specs.4.8.gz"),
+                new Headers.From("If-None-Match", "\"xyz\""),
+                Content.EMPTY
+            )
+        );
+    }
+
+    @Test
+    void passesRequestWithoutEtagToOrigin() {
+        MatcherAssert.assertThat(
+            new ConditionalSlice(
+                ConditionalSliceTest.storage(), new SliceSimple(StandardRs.NO_CONTENT)
+            ),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.NO_CONTENT),
+                new RequestLine(RqMethod.GET, "/latest_specs.4.8.gz"),
+                new Headers.From("If-None-Match", "*"),
+                Content.EMPTY
+            )
+        );
+    }
+
+    private static Storage storage() {
+        final Storage storage = new InMemoryStorage();
+        storage.save(
+            StoredEtag.sidecar(new Key.From("specs.4.8.gz")),
+            new Content.From(
+                String.format("%s\n%s\n", ConditionalSliceTest.ETAG, ConditionalSliceTest.MODIFIED)
+                    .getBytes(StandardCharsets.UTF_8)
+            )
+        ).join();
+        return storage;
+    }
+}
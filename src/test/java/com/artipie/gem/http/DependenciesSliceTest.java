@@ -0,0 +1,119 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.gem.Gem;
+import com.artipie.gem.MarshalSymbol;
+import com.artipie.gem.MarshalWriter;
+import com.artipie.http.Headers;
+import com.artipie.http.hm.IsJson;
+import com.artipie.http.hm.RsHasBody;
+import com.artipie.http.hm.SliceHasResponse;
+import com.artipie.http.rq.RequestLine;
+import com.artipie.http.rq.RqMethod;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import wtf.g4s8.hamcrest.json.JsonContains;
+import wtf.g4s8.hamcrest.json.JsonHas;
+import wtf.g4s8.hamcrest.json.JsonValueIs;
+
+/**
+ * Test case for {@link DependenciesSlice}.
+ *
+ * @since 1.0
+ */
+final class DependenciesSliceTest {
+
+    @Test
+    void returnsJsonDependencies() {
+        MatcherAssert.assertThat(
+            new DependenciesSlice(new Gem(DependenciesSliceTest.storage())),
+            new SliceHasResponse(
+                new RsHasBody(
+                    new IsJson(
+                        new JsonContains(
+                            Matchers.allOf(
+                                new JsonHas("name", new JsonValueIs("gviz")),
+                                new JsonHas("number", new JsonValueIs("0.3.5")),
+                                new JsonHas("platform", new JsonValueIs("ruby"))
+                            )
+                        )
+                    )
+                ),
+                new RequestLine(RqMethod.GET, "/api/v1/dependencies.json?gems=gviz,unknown"),
+                Headers.EMPTY,
+                Content.EMPTY
+            )
+        );
+    }
+
+    @Test
+    void returnsMarshalDependencies() throws IOException {
+        final Map<MarshalSymbol, Object> version = new LinkedHashMap<>();
+        version.put(new MarshalSymbol("name"), "gviz");
+        version.put(new MarshalSymbol("number"), "0.3.5");
+        version.put(new MarshalSymbol("platform"), "ruby");
+        version.put(
+            new MarshalSymbol("dependencies"),
+            Collections.singletonList(Arrays.asList("thor", ">= 0, < 2"))
+        );
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        final MarshalWriter marshal = new MarshalWriter(expected);
+        marshal.header();
+        marshal.write(Collections.singletonList(version));
+        MatcherAssert.assertThat(
+            new DependenciesSlice(new Gem(DependenciesSliceTest.storage())),
+            new SliceHasResponse(
+                new RsHasBody(expected.toByteArray()),
+                new RequestLine(RqMethod.GET, "/api/v1/dependencies?gems=gviz"),
+                Headers.EMPTY,
+                Content.EMPTY
+            )
+        );
+    }
+
+    private static Storage storage() {
+        final Storage storage = new InMemoryStorage();
+        storage.save(
+            new Key.From("info", "gviz"),
+            new Content.From(
+                "---\n0.3.5 thor:>= 0&< 2|checksum:abc,ruby:>= 2.0.0\n"
+                    .getBytes(StandardCharsets.UTF_8)
+            )
+        ).join();
+        return storage;
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ext.PublisherAs;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.http.Headers;
+import com.artipie.http.Response;
+import com.artipie.http.Slice;
+import com.artipie.http.async.AsyncResponse;
+import com.artipie.http.hm.IsHeader;
+import com.artipie.http.hm.RsHasBody;
+import com.artipie.http.hm.RsHasStatus;
+import com.artipie.http.hm.SliceHasResponse;
+import com.artipie.http.rq.RequestLine;
+import com.artipie.http.rq.RqHeaders;
+import com.artipie.http.rq.RqMethod;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.RsWithBody;
+import com.artipie.http.rs.RsWithHeaders;
+import com.artipie.http.rs.RsWithStatus;
+import com.artipie.http.rs.StandardRs;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link GemProxySlice}.
+ *
+ * @since 1.0
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+final class GemProxySliceTest {
+
+    /**
+     * Upstream content.
+     */
+    private static final byte[] CONTENT = "gem".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void fetchesConcurrentMissesOnce() {
+        final AtomicInteger calls = new AtomicInteger();
+        final CompletableFuture<Response> gate = new CompletableFuture<>();
+        final Storage storage = new InMemoryStorage();
+        final Slice proxy = new GemProxySlice(
+            (line, headers, body) -> {
+                calls.incrementAndGet();
+                return new AsyncResponse(gate);
+            },
+            storage
+        );
+        final String line = new RequestLine(RqMethod.GET, "/gems/nokogiri-1.10.0.gem")
+            .toString();
+        final CompletableFuture<Void> first = proxy.response(line, Headers.EMPTY, Content.EMPTY)
+            .send((status, headers, body) -> CompletableFuture.allOf()).toCompletableFuture();
+        final CompletableFuture<Void> second = proxy.response(line, Headers.EMPTY, Content.EMPTY)
+            .send((status, headers, body) -> CompletableFuture.allOf()).toCompletableFuture();
+        gate.complete(new RsWithBody(StandardRs.OK, GemProxySliceTest.CONTENT));
+        CompletableFuture.allOf(first, second).join();
+        MatcherAssert.assertThat(
+            "Cached gem is served",
+            proxy,
+            new SliceHasResponse(
+                new RsHasBody(GemProxySliceTest.CONTENT),
+                new RequestLine(RqMethod.GET, "/gems/nokogiri-1.10.0.gem")
+            )
+        );
+        MatcherAssert.assertThat(
+            "Upstream is requested once",
+            calls.get(),
+            Matchers.equalTo(1)
+        );
+        MatcherAssert.assertThat(
+            "Gem is saved to storage",
+            new PublisherAs(storage.value(new Key.From("gems/nokogiri-1.10.0.gem")).join())
+                .bytes().toCompletableFuture().join(),
+            Matchers.equalTo(GemProxySliceTest.CONTENT)
+        );
+    }
+
+    @Test
+    void revalidatesExpiredIndexWithEntityTag() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Slice proxy = new GemProxySlice(
+            (line, headers, body) -> {
+                calls.incrementAndGet();
+                final Response rsp;
+                if (new RqHeaders(headers, "If-None-Match").contains("\"v1\"")) {
+                    rsp = new RsWithStatus(RsStatus.NOT_MODIFIED);
+                } else {
+                    rsp = new RsWithHeaders(
+                        new RsWithBody(StandardRs.OK, GemProxySliceTest.CONTENT),
+                        "ETag", "\"v1\""
+                    );
+                }
+                return rsp;
+            },
+            new InMemoryStorage(), Duration.ZERO, Clock.systemUTC()
+        );
+        for (int idx = 0; idx < 2; ++idx) {
+            MatcherAssert.assertThat(
+                "Index is served",
+                proxy,
+                new SliceHasResponse(
+                    new RsHasBody(GemProxySliceTest.CONTENT),
+                    new RequestLine(RqMethod.GET, "/specs.4.8.gz")
+                )
+            );
+        }
+        MatcherAssert.assertThat(
+            "Index is revalidated",
+            calls.get(),
+            Matchers.equalTo(2)
+        );
+    }
+
+    @Test
+    void servesFreshIndexFromCache() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Slice proxy = new GemProxySlice(
+            (line, headers, body) -> {
+                calls.incrementAndGet();
+                return new RsWithBody(StandardRs.OK, GemProxySliceTest.CONTENT);
+            },
+            new InMemoryStorage()
+        );
+        for (int idx = 0; idx < 2; ++idx) {
+            MatcherAssert.assertThat(
+                proxy,
+                new SliceHasResponse(
+                    new RsHasBody(GemProxySliceTest.CONTENT),
+                    new RequestLine(RqMethod.GET, "/versions")
+                )
+            );
+        }
+        MatcherAssert.assertThat(calls.get(), Matchers.equalTo(1));
+    }
+
+    @Test
+    void returnsNotFoundIfUpstreamHasNoFile() {
+        MatcherAssert.assertThat(
+            new GemProxySlice(
+                (line, headers, body) -> StandardRs.NOT_FOUND, new InMemoryStorage()
+            ),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.NOT_FOUND),
+                new RequestLine(RqMethod.GET, "/info/rails")
+            )
+        );
+    }
+
+    @Test
+    void returnsUnavailableIfUpstreamFailsOnMiss() {
+        MatcherAssert.assertThat(
+            new GemProxySlice(
+                (line, headers, body) -> new RsWithStatus(RsStatus.INTERNAL_ERROR),
+                new InMemoryStorage()
+            ),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.UNAVAILABLE),
+                new RequestLine(RqMethod.GET, "/info/rails")
+            )
+        );
+    }
+
+    @Test
+    void forwardsRequestsWithoutCredentials() {
+        final List<Map.Entry<String, String>> forwarded = new ArrayList<>(1);
+        new GemProxySlice(
+            (line, headers, body) -> {
+                headers.forEach(forwarded::add);
+                return StandardRs.OK;
+            },
+            new InMemoryStorage()
+        ).response(
+            new RequestLine(RqMethod.GET, "/api/v1/dependencies?gems=rails").toString(),
+            new Headers.From(
+                new Headers.From(
+                    new Headers.From(
+                        new Headers.From("Authorization", "Basic YWxpY2U6c2VjcmV0"),
+                        "Connection", "keep-alive, X-Trace"
+                    ),
+                    "X-Trace", "1"
+                ),
+                "Accept", "application/octet-stream"
+            ),
+            Content.EMPTY
+        ).send((status, headers, body) -> CompletableFuture.allOf()).toCompletableFuture().join();
+        MatcherAssert.assertThat(
+            forwarded,
+            Matchers.contains(new IsHeader("Accept", "application/octet-stream"))
+        );
+    }
+}
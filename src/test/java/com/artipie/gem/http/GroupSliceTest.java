@@ -0,0 +1,231 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.ext.PublisherAs;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.gem.CompactIndex;
+import com.artipie.gem.StoredEtag;
+import com.artipie.http.Headers;
+import com.artipie.http.Slice;
+import com.artipie.http.hm.RsHasBody;
+import com.artipie.http.hm.RsHasStatus;
+import com.artipie.http.hm.SliceHasResponse;
+import com.artipie.http.rq.RequestLine;
+import com.artipie.http.rq.RqMethod;
+import com.artipie.http.rs.RsStatus;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link GroupSlice}.
+ *
+ * @since 1.0
+ */
+final class GroupSliceTest {
+
+    @Test
+    void servesMergedNamesUntilMemberChanges() {
+        final Storage first = new InMemoryStorage();
+        GroupSliceTest.save(first, CompactIndex.NAMES, "---\nbuilder\n");
+        final Storage second = new InMemoryStorage();
+        GroupSliceTest.save(second, CompactIndex.NAMES, "---\ngviz\n");
+        final Slice group = new GroupSlice(first, second);
+        MatcherAssert.assertThat(
+            "Names are merged",
+            group,
+            new SliceHasResponse(
+                new RsHasBody("---\nbuilder\ngviz\n", StandardCharsets.UTF_8),
+                new RequestLine(RqMethod.GET, "/names")
+            )
+        );
+        GroupSliceTest.save(second, CompactIndex.NAMES, "---\ngviz\nrails\n");
+        MatcherAssert.assertThat(
+            "Names are merged again",
+            group,
+            new SliceHasResponse(
+                new RsHasBody("---\nbuilder\ngviz\nrails\n", StandardCharsets.UTF_8),
+                new RequestLine(RqMethod.GET, "/names")
+            )
+        );
+    }
+
+    @Test
+    void servesGemFromMember() {
+        final Storage second = new InMemoryStorage();
+        GroupSliceTest.save(second, new Key.From("gems/gviz-0.3.5.gem"), "gem");
+        MatcherAssert.assertThat(
+            new GroupSlice(new InMemoryStorage(), second),
+            new SliceHasResponse(
+                new RsHasBody("gem", StandardCharsets.UTF_8),
+                new RequestLine(RqMethod.GET, "/gems/gviz-0.3.5.gem")
+            )
+        );
+    }
+
+    @Test
+    void doesNotServeEtagSidecars() {
+        final Storage member = new InMemoryStorage();
+        GroupSliceTest.save(member, new Key.From("gems/gviz-0.3.5.gem"), "gem");
+        MatcherAssert.assertThat(
+            new GroupSlice(member),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.NOT_FOUND),
+                new RequestLine(RqMethod.GET, "/.meta/gems/gviz-0.3.5.gem.etag")
+            )
+        );
+    }
+
+    @Test
+    void returnsNotFoundForUnknownInfo() {
+        MatcherAssert.assertThat(
+            new GroupSlice(new InMemoryStorage(), new InMemoryStorage()),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.NOT_FOUND),
+                new RequestLine(RqMethod.GET, "/info/rails")
+            )
+        );
+    }
+
+    @Test
+    void mergesOnceForConcurrentRequests() {
+        final Storage member = new InMemoryStorage();
+        GroupSliceTest.save(member, CompactIndex.NAMES, "---\nbuilder\n");
+        final GatedStorage cache = new GatedStorage();
+        final Slice group = new GroupSlice(Collections.singletonList(member), cache);
+        final List<CompletableFuture<Void>> responses = new ArrayList<>(2);
+        for (int idx = 0; idx < 2; idx += 1) {
+            responses.add(
+                group.response(
+                    new RequestLine(RqMethod.GET, "/names").toString(),
+                    Headers.EMPTY, Content.EMPTY
+                ).send(
+                    (status, headers, body) -> new PublisherAs(body).bytes()
+                        .thenCompose(bytes -> CompletableFuture.allOf())
+                ).toCompletableFuture()
+            );
+        }
+        cache.gate.complete(null);
+        responses.forEach(CompletableFuture::join);
+        MatcherAssert.assertThat(cache.saves.get(), Matchers.equalTo(1));
+    }
+
+    private static void save(final Storage storage, final Key key, final String text) {
+        final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        storage.save(key, new Content.From(bytes)).join();
+        new StoredEtag(storage).save(key, bytes).toCompletableFuture().join();
+    }
+
+    /**
+     * Storage which saves names file after gate is opened and counts its saves.
+     * @since 1.0
+     */
+    private static final class GatedStorage implements Storage {
+
+        /**
+         * Origin storage.
+         */
+        private final Storage origin;
+
+        /**
+         * Gate of names file saves.
+         */
+        private final CompletableFuture<Void> gate;
+
+        /**
+         * Number of names file saves.
+         */
+        private final AtomicInteger saves;
+
+        /**
+         * New gated storage.
+         */
+        GatedStorage() {
+            this.origin = new InMemoryStorage();
+            this.gate = new CompletableFuture<>();
+            this.saves = new AtomicInteger();
+        }
+
+        @Override
+        public CompletableFuture<Boolean> exists(final Key key) {
+            return this.origin.exists(key);
+        }
+
+        @Override
+        public CompletableFuture<Collection<Key>> list(final Key prefix) {
+            return this.origin.list(prefix);
+        }
+
+        @Override
+        public CompletableFuture<Void> save(final Key key, final Content content) {
+            final CompletableFuture<Void> res;
+            if (CompactIndex.NAMES.equals(key)) {
+                this.saves.incrementAndGet();
+                res = this.gate.thenCompose(none -> this.origin.save(key, content));
+            } else {
+                res = this.origin.save(key, content);
+            }
+            return res;
+        }
+
+        @Override
+        public CompletableFuture<Void> move(final Key source, final Key destination) {
+            return this.origin.move(source, destination);
+        }
+
+        @Override
+        public CompletableFuture<Long> size(final Key key) {
+            return this.origin.size(key);
+        }
+
+        @Override
+        public CompletableFuture<Content> value(final Key key) {
+            return this.origin.value(key);
+        }
+
+        @Override
+        public CompletableFuture<Void> delete(final Key key) {
+            return this.origin.delete(key);
+        }
+
+        @Override
+        public <T> CompletionStage<T> exclusively(final Key key,
+            final Function<Storage, CompletionStage<T>> operation) {
+            return this.origin.exclusively(key, operation);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.gem.StoredEtag;
+import com.artipie.http.Headers;
+import com.artipie.http.hm.IsHeader;
+import com.artipie.http.hm.RsHasBody;
+import com.artipie.http.hm.RsHasHeaders;
+import com.artipie.http.hm.RsHasStatus;
+import com.artipie.http.hm.SliceHasResponse;
+import com.artipie.http.rq.RequestLine;
+import com.artipie.http.rq.RqMethod;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.StandardRs;
+import com.artipie.http.slice.SliceDownload;
+import com.artipie.http.slice.SliceSimple;
+import java.nio.charset.StandardCharsets;
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link GzipSlice}.
+ *
+ * @since 1.0
+ */
+final class GzipSliceTest {
+
+    /**
+     * Gzipped copy content.
+     */
+    private static final byte[] GZIP = {(byte) 0x1f, (byte) 0x8b, 0x08, 0x00};
+
+    /**
+     * Entity tag of plain file.
+     */
+    private static final String ETAG = "\"4f5e5e8f0f3f6e0e6ea4b5bd4e55d8b2\"";
+
+    /**
+     * Last modification time of plain file.
+     */
+    private static final String MODIFIED = "Tue, 3 Jun 2008 11:05:30 GMT";
+
+    @Test
+    void servesGzippedCopyIfAccepted() {
+        final Storage storage = GzipSliceTest.storage();
+        MatcherAssert.assertThat(
+            new GzipSlice(storage, new SliceDownload(storage)),
+            new SliceHasResponse(
+                new RsHasBody(GzipSliceTest.GZIP),
+                new RequestLine(RqMethod.GET, "/specs.4.8"),
+                new Headers.From("Accept-Encoding", "deflate, gzip;q=0.8"),
+                Content.EMPTY
+            )
+        );
+    }
+
+    @Test
+    void addsEncodingHeaders() {
+        MatcherAssert.assertThat(
+            new GzipSlice(GzipSliceTest.storage(), new SliceSimple(StandardRs.EMPTY)),
+            new SliceHasResponse(
+                new RsHasHeaders(
+                    new IsHeader("Content-Encoding", "gzip"),
+                    new IsHeader("Vary", "Accept-Encoding")
+                ),
+                new RequestLine(RqMethod.GET, "/specs.4.8"),
+                new Headers.From("Accept-Encoding", "gzip"),
+                Content.EMPTY
+            )
+        );
+    }
+
+    @Test
+    void servesPlainFileIfGzipIsRejected() {
+        final Storage storage = GzipSliceTest.storage();
+        MatcherAssert.assertThat(
+            new GzipSlice(storage, new SliceDownload(storage)),
+            new SliceHasResponse(
+                new RsHasBody("plain", StandardCharsets.UTF_8),
+                new RequestLine(RqMethod.GET, "/specs.4.8"),
+                new Headers.From("Accept-Encoding", "gzip;q=0, identity"),
+                Content.EMPTY
+            )
+        );
+    }
+
+    @Test
+    void tagsGzippedCopyWithWeakEtag() {
+        MatcherAssert.assertThat(
+            new GzipSlice(GzipSliceTest.tagged(), new SliceSimple(StandardRs.EMPTY)),
+            new SliceHasResponse(
+                new RsHasHeaders(
+                    new IsHeader("ETag", String.format("W/%s", GzipSliceTest.ETAG)),
+                    new IsHeader("Last-Modified", GzipSliceTest.MODIFIED),
+                    new IsHeader("Content-Encoding", "gzip"),
+                    new IsHeader("Vary", "Accept-Encoding")
+                ),
+                new RequestLine(RqMethod.GET, "/specs.4.8"),
+                new Headers.From("Accept-Encoding", "gzip"),
+                Content.EMPTY
+            )
+        );
+    }
+
+    @Test
+    void tagsPlainFileWithStrongEtag() {
+        MatcherAssert.assertThat(
+            new GzipSlice(GzipSliceTest.tagged(), new SliceSimple(StandardRs.EMPTY)),
+            new SliceHasResponse(
+                new RsHasHeaders(
+                    new IsHeader("ETag", GzipSliceTest.ETAG),
+                    new IsHeader("Last-Modified", GzipSliceTest.MODIFIED),
+                    new IsHeader("Vary", "Accept-Encoding")
+                ),
+                new RequestLine(RqMethod.GET, "/specs.4.8"),
+                new Headers.From("Accept-Encoding", "identity"),
+                Content.EMPTY
+            )
+        );
+    }
+
+    @Test
+    void respondsNotModifiedForWeakEtagOfGzippedCopy() {
+        MatcherAssert.assertThat(
+            new GzipSlice(GzipSliceTest.tagged(), new SliceSimple(StandardRs.EMPTY)),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.NOT_MODIFIED),
+                new RequestLine(RqMethod.GET, "/specs.4.8"),
+                new Headers.From(
+                    new Headers.From("Accept-Encoding", "gzip"),
+                    "If-None-Match", String.format("W/%s", GzipSliceTest.ETAG)
+                ),
+                Content.EMPTY
+            )
+        );
+    }
+
+    /**
+     * Storage with specs file, its gzipped copy and entity tag of specs file.
+     * @return Storage
+     */
+    private static Storage tagged() {
+        final Storage storage = GzipSliceTest.storage();
+        storage.save(
+            StoredEtag.sidecar(new Key.From("specs.4.8")),
+            new Content.From(
+                String.format("%s\n%s\n", GzipSliceTest.ETAG, GzipSliceTest.MODIFIED)
+                    .getBytes(StandardCharsets.UTF_8)
+            )
+        ).join();
+        return storage;
+    }
+
+    /**
+     * Storage with specs file and its gzipped copy.
+     * @return Storage
+     */
+    private static Storage storage() {
+        final Storage storage = new InMemoryStorage();
+        storage.save(
+            new Key.From("specs.4.8"), new Content.From("plain".getBytes(StandardCharsets.UTF_8))
+        ).join();
+        storage.save(new Key.From("specs.4.8.gz"), new Content.From(GzipSliceTest.GZIP)).join();
+        return storage;
+    }
+}
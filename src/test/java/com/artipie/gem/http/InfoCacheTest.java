@@ -0,0 +1,83 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.gem.SpecEntry;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link InfoCache}.
+ *
+ * @since 1.0
+ */
+final class InfoCacheTest {
+
+    @Test
+    void returnsResponseOfSameVersion() {
+        final InfoCache cache = new InfoCache(2);
+        final SpecEntry version = new SpecEntry("foo", "1.0");
+        cache.put("foo", version, "json", "{}".getBytes(StandardCharsets.UTF_8));
+        MatcherAssert.assertThat(
+            cache.get("foo", version, "json").map(String::new),
+            Matchers.equalTo(Optional.of("{}"))
+        );
+        MatcherAssert.assertThat(
+            cache.get("foo", version, "yml").isPresent(),
+            Matchers.is(false)
+        );
+    }
+
+    @Test
+    void skipsResponseOfOlderVersion() {
+        final InfoCache cache = new InfoCache(2);
+        cache.put("foo", new SpecEntry("foo", "1.0"), "json", new byte[0]);
+        MatcherAssert.assertThat(
+            cache.get("foo", new SpecEntry("foo", "1.1"), "json").isPresent(),
+            Matchers.is(false)
+        );
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedGem() {
+        final InfoCache cache = new InfoCache(2);
+        final SpecEntry foo = new SpecEntry("foo", "1.0");
+        final SpecEntry bar = new SpecEntry("bar", "1.0");
+        cache.put("foo", foo, "json", new byte[0]);
+        cache.put("bar", bar, "json", new byte[0]);
+        cache.get("foo", foo, "json");
+        cache.put("baz", new SpecEntry("baz", "1.0"), "json", new byte[0]);
+        MatcherAssert.assertThat(
+            cache.get("bar", bar, "json").isPresent(),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            cache.get("foo", foo, "json").isPresent(),
+            Matchers.is(true)
+        );
+    }
+}
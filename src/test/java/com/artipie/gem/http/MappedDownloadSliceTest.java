@@ -0,0 +1,102 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.http.hm.RsHasBody;
+import com.artipie.http.hm.RsHasStatus;
+import com.artipie.http.hm.SliceHasResponse;
+import com.artipie.http.rq.RequestLine;
+import com.artipie.http.rq.RqMethod;
+import com.artipie.http.rs.RsStatus;
+import com.artipie.http.rs.StandardRs;
+import com.artipie.http.slice.SliceSimple;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link MappedDownloadSlice}.
+ *
+ * @since 1.0
+ */
+final class MappedDownloadSliceTest {
+
+    @Test
+    void servesFileFromRoot(@TempDir final Path root) throws IOException {
+        final byte[] data = new byte[5 * 1024 * 1024];
+        new Random().nextBytes(data);
+        Files.createDirectory(root.resolve("gems"));
+        Files.write(root.resolve("gems/builder-3.2.4.gem"), data);
+        MatcherAssert.assertThat(
+            new MappedDownloadSlice(root, new SliceSimple(StandardRs.NOT_FOUND)),
+            new SliceHasResponse(
+                Matchers.allOf(new RsHasStatus(RsStatus.OK), new RsHasBody(data)),
+                new RequestLine(RqMethod.GET, "/gems/builder-3.2.4.gem")
+            )
+        );
+    }
+
+    @Test
+    void fallsBackToOriginForMissingFile(@TempDir final Path root) {
+        MatcherAssert.assertThat(
+            new MappedDownloadSlice(root, new SliceSimple(StandardRs.NOT_FOUND)),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.NOT_FOUND),
+                new RequestLine(RqMethod.GET, "/gems/missing-1.0.gem")
+            )
+        );
+    }
+
+    @Test
+    void readsFilesOnGivenExecutor(@TempDir final Path root) throws IOException {
+        Files.write(root.resolve("names"), "---\n".getBytes(StandardCharsets.UTF_8));
+        final AtomicInteger tasks = new AtomicInteger();
+        MatcherAssert.assertThat(
+            "File is served",
+            new MappedDownloadSlice(
+                root, new SliceSimple(StandardRs.NOT_FOUND),
+                task -> {
+                    tasks.incrementAndGet();
+                    task.run();
+                }
+            ),
+            new SliceHasResponse(
+                new RsHasBody("---\n", StandardCharsets.UTF_8),
+                new RequestLine(RqMethod.GET, "/names")
+            )
+        );
+        MatcherAssert.assertThat(
+            "File is read on executor",
+            tasks.get(),
+            Matchers.equalTo(1)
+        );
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.asto.test.TestResource;
+import com.artipie.gem.Gem;
+import com.artipie.http.Headers;
+import com.artipie.http.hm.RsHasStatus;
+import com.artipie.http.hm.SliceHasResponse;
+import com.artipie.http.rq.RequestLine;
+import com.artipie.http.rq.RqMethod;
+import com.artipie.http.rs.RsStatus;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link QuickSpecSlice}.
+ *
+ * @since 1.0
+ */
+final class QuickSpecSliceTest {
+
+    @Test
+    void generatesMissingGemspecFromGem() {
+        final Storage storage = new InMemoryStorage();
+        new TestResource("builder-3.2.4.gem")
+            .saveTo(storage, new Key.From("gems", "builder-3.2.4.gem"));
+        MatcherAssert.assertThat(
+            "Gemspec is served",
+            new QuickSpecSlice(storage, new Gem(storage)),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.OK),
+                new RequestLine(RqMethod.GET, "/quick/Marshal.4.8/builder-3.2.4.gemspec.rz"),
+                Headers.EMPTY,
+                Content.EMPTY
+            )
+        );
+        MatcherAssert.assertThat(
+            "Gemspec is saved",
+            storage.exists(new Key.From("quick/Marshal.4.8/builder-3.2.4.gemspec.rz")).join(),
+            new IsEqual<>(true)
+        );
+    }
+
+    @Test
+    void returnsNotFoundForUnknownGem() {
+        final Storage storage = new InMemoryStorage();
+        MatcherAssert.assertThat(
+            new QuickSpecSlice(storage, new Gem(storage)),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.NOT_FOUND),
+                new RequestLine(RqMethod.GET, "/quick/Marshal.4.8/gviz-0.3.5.gemspec.rz"),
+                Headers.EMPTY,
+                Content.EMPTY
+            )
+        );
+    }
+}
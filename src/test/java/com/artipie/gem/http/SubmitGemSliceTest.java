@@ -0,0 +1,119 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.Key;
+import com.artipie.asto.Storage;
+import com.artipie.asto.blocking.BlockingStorage;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.asto.test.TestResource;
+import com.artipie.gem.GemArchive;
+import com.artipie.http.Headers;
+import com.artipie.http.hm.RsHasStatus;
+import com.artipie.http.hm.SliceHasResponse;
+import com.artipie.http.rq.RequestLine;
+import com.artipie.http.rq.RqMethod;
+import com.artipie.http.rs.RsStatus;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link SubmitGemSlice}.
+ *
+ * @since 1.0
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class SubmitGemSliceTest {
+
+    @Test
+    void rejectsGemWithInvalidName() throws IOException {
+        final Storage storage = new InMemoryStorage();
+        MatcherAssert.assertThat(
+            "Gem with invalid name is rejected",
+            new SubmitGemSlice(storage),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.BAD_REQUEST),
+                new RequestLine(RqMethod.POST, "/api/v1/gems"),
+                Headers.EMPTY,
+                new Content.From(SubmitGemSliceTest.gem("\"../builder\""))
+            )
+        );
+        MatcherAssert.assertThat(
+            "Rejected gem is not saved",
+            new BlockingStorage(storage).list(new Key.From("gems")),
+            Matchers.empty()
+        );
+    }
+
+    @Test
+    void acceptsValidGem() throws IOException {
+        MatcherAssert.assertThat(
+            new SubmitGemSlice(new InMemoryStorage()),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.CREATED),
+                new RequestLine(RqMethod.POST, "/api/v1/gems"),
+                Headers.EMPTY,
+                new Content.From(SubmitGemSliceTest.gem("builder"))
+            )
+        );
+    }
+
+    /**
+     * Gem archive with metadata of builder gem with another name.
+     * @param name Gem name in metadata YAML
+     * @return Gem archive bytes
+     * @throws IOException If fails
+     */
+    private static byte[] gem(final String name) throws IOException {
+        final GemArchive archive = new GemArchive();
+        archive.accept(ByteBuffer.wrap(new TestResource("builder-3.2.4.gem").asBytes()));
+        final ByteArrayOutputStream meta = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(meta)) {
+            gzip.write(
+                archive.gemspec()
+                    .replace("\nname: builder\n", String.format("\nname: %s\n", name))
+                    .getBytes(StandardCharsets.UTF_8)
+            );
+        }
+        final byte[] header = new byte[512];
+        final byte[] entry = "metadata.gz".getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(entry, 0, header, 0, entry.length);
+        final byte[] size = String.format("%011o", meta.size())
+            .getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(size, 0, header, 124, size.length);
+        final ByteArrayOutputStream tar = new ByteArrayOutputStream();
+        tar.write(header);
+        tar.write(meta.toByteArray());
+        tar.write(new byte[(512 - meta.size() % 512) % 512 + 1024]);
+        return tar.toByteArray();
+    }
+}
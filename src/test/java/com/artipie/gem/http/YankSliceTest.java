@@ -0,0 +1,115 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.http;
+
+import com.artipie.asto.Content;
+import com.artipie.asto.memory.InMemoryStorage;
+import com.artipie.gem.Gem;
+import com.artipie.http.Headers;
+import com.artipie.http.hm.RsHasStatus;
+import com.artipie.http.hm.SliceHasResponse;
+import com.artipie.http.rq.RequestLine;
+import com.artipie.http.rq.RqMethod;
+import com.artipie.http.rs.RsStatus;
+import java.nio.charset.StandardCharsets;
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link YankSlice}.
+ *
+ * @since 1.0
+ */
+final class YankSliceTest {
+
+    @Test
+    void returnsNotFoundForUnknownVersion() {
+        MatcherAssert.assertThat(
+            new YankSlice(new Gem(new InMemoryStorage())),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.NOT_FOUND),
+                new RequestLine(RqMethod.DELETE, YankSlice.PATH),
+                Headers.EMPTY,
+                new Content.From(
+                    "gem_name=builder&version=3.2.4".getBytes(StandardCharsets.US_ASCII)
+                )
+            )
+        );
+    }
+
+    @Test
+    void requiresGemNameAndVersion() {
+        MatcherAssert.assertThat(
+            new YankSlice(new Gem(new InMemoryStorage())),
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.BAD_REQUEST),
+                new RequestLine(RqMethod.DELETE, "/api/v1/gems/yank?gem_name=builder"),
+                Headers.EMPTY,
+                Content.EMPTY
+            )
+        );
+    }
+
+    @Test
+    void rejectsInvalidParameters() {
+        final YankSlice slice = new YankSlice(new Gem(new InMemoryStorage()));
+        MatcherAssert.assertThat(
+            "Gem name with path is rejected",
+            slice,
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.BAD_REQUEST),
+                new RequestLine(RqMethod.DELETE, "/api/v1/gems/yank"),
+                Headers.EMPTY,
+                new Content.From(
+                    "gem_name=../x&version=3.2.4".getBytes(StandardCharsets.US_ASCII)
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            "Invalid version is rejected",
+            slice,
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.BAD_REQUEST),
+                new RequestLine(
+                    RqMethod.DELETE, "/api/v1/gems/yank?gem_name=builder&version=3.2.4/x"
+                ),
+                Headers.EMPTY,
+                Content.EMPTY
+            )
+        );
+        MatcherAssert.assertThat(
+            "Invalid platform is rejected",
+            slice,
+            new SliceHasResponse(
+                new RsHasStatus(RsStatus.BAD_REQUEST),
+                new RequestLine(
+                    RqMethod.DELETE,
+                    "/api/v1/gems/yank?gem_name=builder&version=3.2.4&platform=../java"
+                ),
+                Headers.EMPTY,
+                Content.EMPTY
+            )
+        );
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.metrics;
+
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link PrometheusMetrics}.
+ *
+ * @since 1.0
+ */
+final class PrometheusMetricsTest {
+
+    @Test
+    void exportsMetricsInTextFormat() {
+        final PrometheusMetrics metrics = new PrometheusMetrics();
+        metrics.timer("gem_info", TimeUnit.MILLISECONDS.toNanos(20));
+        metrics.timer("gem_info", TimeUnit.MILLISECONDS.toNanos(200));
+        metrics.counter("gem_push_bytes", 1024);
+        metrics.gauge("gem_push_inflight", 1);
+        MatcherAssert.assertThat(
+            metrics.text(),
+            Matchers.allOf(
+                Matchers.containsString("# TYPE gem_info_seconds histogram\n"),
+                Matchers.containsString("gem_info_seconds_bucket{le=\"0.01\"} 0\n"),
+                Matchers.containsString("gem_info_seconds_bucket{le=\"0.025\"} 1\n"),
+                Matchers.containsString("gem_info_seconds_bucket{le=\"0.25\"} 2\n"),
+                Matchers.containsString("gem_info_seconds_bucket{le=\"+Inf\"} 2\n"),
+                Matchers.containsString("gem_info_seconds_sum 0.22\n"),
+                Matchers.containsString("gem_info_seconds_count 2\n"),
+                Matchers.containsString("gem_push_bytes_total 1024\n"),
+                Matchers.containsString("gem_push_inflight 1\n")
+            )
+        );
+    }
+}
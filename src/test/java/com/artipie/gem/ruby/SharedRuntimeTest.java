@@ -0,0 +1,104 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2020 artipie.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON-INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.artipie.gem.ruby;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.jruby.Ruby;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link SharedRuntime}.
+ *
+ * @since 1.0
+ */
+final class SharedRuntimeTest {
+
+    @Test
+    void createsNoMoreRuntimesThanPoolSize() {
+        final AtomicInteger created = new AtomicInteger();
+        final SharedRuntime shared = new SharedRuntime(
+            () -> {
+                created.incrementAndGet();
+                return Ruby.getGlobalRuntime();
+            },
+            2, 16
+        );
+        final CompletableFuture<?>[] tasks = new CompletableFuture<?>[8];
+        for (int idx = 0; idx < tasks.length; ++idx) {
+            tasks[idx] = shared.apply(Ruby::getRuntimeNumber).toCompletableFuture();
+        }
+        CompletableFuture.allOf(tasks).join();
+        MatcherAssert.assertThat(created.get(), Matchers.lessThanOrEqualTo(2));
+    }
+
+    @Test
+    void warmsUpAllRuntimes() {
+        final AtomicInteger created = new AtomicInteger();
+        final SharedRuntime shared = new SharedRuntime(
+            () -> {
+                created.incrementAndGet();
+                return Ruby.getGlobalRuntime();
+            },
+            3, 16
+        );
+        shared.warmUp().toCompletableFuture().join();
+        shared.apply(Ruby::getRuntimeNumber).toCompletableFuture().join();
+        MatcherAssert.assertThat(created.get(), Matchers.equalTo(3));
+    }
+
+    @Test
+    void rejectsTasksWhenQueueIsFull() throws Exception {
+        final SharedRuntime shared = new SharedRuntime(Ruby::getGlobalRuntime, 1, 1);
+        final CountDownLatch latch = new CountDownLatch(1);
+        final CompletableFuture<Boolean> busy = shared.apply(
+            ruby -> {
+                try {
+                    latch.await();
+                } catch (final InterruptedException err) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+        ).toCompletableFuture();
+        final CompletableFuture<Boolean> queued = shared.apply(ruby -> true)
+            .toCompletableFuture();
+        final CompletableFuture<Boolean> rejected = shared.apply(ruby -> true)
+            .toCompletableFuture();
+        final CompletionException err = Assertions.assertThrows(
+            CompletionException.class, rejected::join
+        );
+        latch.countDown();
+        MatcherAssert.assertThat(
+            err.getCause(), Matchers.instanceOf(RejectedExecutionException.class)
+        );
+        MatcherAssert.assertThat(busy.join() && queued.join(), Matchers.is(true));
+    }
+}